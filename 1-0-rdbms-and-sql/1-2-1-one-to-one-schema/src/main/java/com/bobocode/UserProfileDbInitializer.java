@@ -1,11 +1,9 @@
 package com.bobocode;
 
-import com.bobocode.util.FileReader;
+import com.bobocode.util.SqlScriptRunner;
 
 import javax.sql.DataSource;
-import java.sql.Connection;
 import java.sql.SQLException;
-import java.sql.Statement;
 
 /**
  * {@link UserProfileDbInitializer} is an API that has only one method. It allows to create a database tables to store
@@ -20,16 +18,13 @@ public class UserProfileDbInitializer {
     }
 
     /**
-     * Reads the SQL script form the file and executes it
+     * Reads the SQL script form the file and executes it statement by statement in one transaction
      *
      * @throws SQLException
      */
     public void init() throws SQLException {
-        String createTablesSql = FileReader.readWholeFileFromResources(TABLE_INITIALIZATION_SQL_FILE);
-
-        try (Connection connection = dataSource.getConnection()) {
-            Statement statement = connection.createStatement();
-            statement.execute(createTablesSql);
+        try {
+            new SqlScriptRunner(dataSource).runScript(TABLE_INITIALIZATION_SQL_FILE);
         } catch (SQLException e) {
             throw new SQLException("INIT ERROR", e);
         }
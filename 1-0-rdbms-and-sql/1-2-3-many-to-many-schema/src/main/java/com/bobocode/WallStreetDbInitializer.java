@@ -1,11 +1,10 @@
 package com.bobocode;
 
-import com.bobocode.util.FileReader;
+import com.bobocode.util.ParallelSchemaInitializer;
+import com.bobocode.util.SqlScriptRunner;
 
 import javax.sql.DataSource;
-import java.sql.Connection;
 import java.sql.SQLException;
-import java.sql.Statement;
 
 /**
  * {@link WallStreetDbInitializer} is an API that has only one method. It allows to create a database tables to store
@@ -20,17 +19,23 @@ public class WallStreetDbInitializer {
     }
 
     /**
-     * Reads the SQL script form the file and executes it
+     * Reads the SQL script form the file and executes it statement by statement in one transaction
      *
      * @throws SQLException
      */
     public void init() throws SQLException {
-        String createTablesSql = FileReader.readWholeFileFromResources(TABLE_INITIALIZATION_SQL_FILE);
+        new SqlScriptRunner(dataSource).runScript(TABLE_INITIALIZATION_SQL_FILE);
+    }
 
-        try (Connection connection = dataSource.getConnection()) {
-            Statement statement = connection.createStatement();
-            statement.execute(createTablesSql);
-        }
+    /**
+     * Reads the SQL script form the file and executes it, creating independent tables (broker and sales_group)
+     * at the same time, and the link table after them. Unlike {@link WallStreetDbInitializer#init()}, it does not run
+     * the script in one transaction, so it should be used only for a fresh database
+     *
+     * @throws SQLException
+     */
+    public void initInParallel() throws SQLException {
+        new ParallelSchemaInitializer(dataSource).run(TABLE_INITIALIZATION_SQL_FILE);
     }
 
 }
@@ -499,6 +499,32 @@ class WallStreetDbInitializerTest {
         }
     }
 
+    @Test
+    @Order(28)
+    @DisplayName("The parallel initialization creates the same tables and constraints")
+    void parallelInitializationCreatesSameSchema() throws SQLException {
+        DataSource parallelDataSource = JdbcUtil.createInMemoryH2DataSource(
+                "jdbc:h2:mem:wall_street_parallel_db;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false;", "sa", "");
+
+        new WallStreetDbInitializer(parallelDataSource).initInParallel();
+
+        assertThat(fetchConstraints(parallelDataSource)).isNotEmpty().isEqualTo(fetchConstraints(dataSource));
+    }
+
+    private List<String> fetchConstraints(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            Statement statement = connection.createStatement();
+            ResultSet resultSet = statement.executeQuery("""
+                    SELECT TABLE_NAME || '.' || CONSTRAINT_NAME AS CONSTRAINT_NAME
+                    FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS
+                    WHERE TABLE_SCHEMA = 'PUBLIC'
+                    ORDER BY 1;
+                    """);
+
+            return fetchColumnValues(resultSet, "CONSTRAINT_NAME");
+        }
+    }
+
     private List<String> fetchTableNames(ResultSet resultSet) throws SQLException {
         List<String> tableNamesList = new ArrayList<>();
         while (resultSet.next()) {
@@ -3,7 +3,9 @@ package com.bobocode.dao;
 import com.bobocode.exception.DaoOperationException;
 import com.bobocode.model.Product;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * {@link ProductDao} is a Data Access Object pattern (DAO) that encapsulates all database access and manipulation logic.
@@ -18,6 +20,16 @@ public interface ProductDao {
      */
     void save(Product product);
 
+    /**
+     * Stores all new products into the database within a single transaction. Products are inserted in batches,
+     * so the whole collection takes a few database round trips instead of one round trip per product.
+     * Sets the database-generated ID to each {@link Product} instance
+     *
+     * @param products new products
+     * @throws DaoOperationException in case of database errors
+     */
+    void saveAll(Collection<Product> products);
+
     /**
      * Retrieves and returns all products from the database
      *
@@ -26,6 +38,16 @@ public interface ProductDao {
      */
     List<Product> findAll();
 
+    /**
+     * Returns all products from the database as a lazy {@link Stream}. Unlike {@link ProductDao#findAll()}, it does
+     * not load the whole table into memory, products are fetched from the database in chunks while the stream
+     * is consumed. The stream holds an open database connection, so it should be closed after use.
+     *
+     * @return stream of all products that should be used within try-with-resources
+     * @throws DaoOperationException in case of database errors
+     */
+    Stream<Product> streamAll();
+
     /**
      * Returns a product object by provided id
      *
@@ -35,6 +57,16 @@ public interface ProductDao {
      */
     Product findOne(Long id);
 
+    /**
+     * Returns products by provided ids using a few queries instead of a query per id. Ids are passed as a primitive
+     * array, so they are not boxed. Duplicate ids are loaded once, and ids that are not found are skipped.
+     *
+     * @param ids product identifiers (primary keys)
+     * @return found products ordered by id
+     * @throws DaoOperationException in case of database errors
+     */
+    List<Product> findAllByIds(long[] ids);
+
     /**
      * Updates existing product.
      *
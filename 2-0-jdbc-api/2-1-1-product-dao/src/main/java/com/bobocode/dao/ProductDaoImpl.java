@@ -2,15 +2,24 @@ package com.bobocode.dao;
 
 import com.bobocode.model.Product;
 import com.bobocode.util.ExerciseNotCompletedException;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 import javax.sql.DataSource;
 
 public class ProductDaoImpl implements ProductDao {
+    static final int DEFAULT_BATCH_SIZE = 500;
 
     private final DataSource dataSource;
+    private final int batchSize;
 
     public ProductDaoImpl(DataSource dataSource) {
+        this(dataSource, DEFAULT_BATCH_SIZE);
+    }
+
+    public ProductDaoImpl(DataSource dataSource, int batchSize) {
         this.dataSource = dataSource;
+        this.batchSize = batchSize;
     }
 
     @Override
@@ -18,9 +27,19 @@ public class ProductDaoImpl implements ProductDao {
         throw new ExerciseNotCompletedException();// todo
     }
 
+    @Override
+    public void saveAll(Collection<Product> products) {
+        throw new ExerciseNotCompletedException();// todo: use BatchInserter with batchSize
+    }
+
     @Override
     public List<Product> findAll() {
-        throw new ExerciseNotCompletedException();// todo
+        throw new ExerciseNotCompletedException();// todo: map rows with CompiledRowMapper
+    }
+
+    @Override
+    public Stream<Product> streamAll() {
+        throw new ExerciseNotCompletedException();// todo: use ResultSetStreams with CompiledRowMapper
     }
 
     @Override
@@ -28,6 +47,11 @@ public class ProductDaoImpl implements ProductDao {
         throw new ExerciseNotCompletedException();// todo
     }
 
+    @Override
+    public List<Product> findAllByIds(long[] ids) {
+        throw new ExerciseNotCompletedException();// todo: use BatchFinder with batchSize and CompiledRowMapper
+    }
+
     @Override
     public void update(Product product) {
         throw new ExerciseNotCompletedException();// todo
@@ -5,6 +5,8 @@ import com.bobocode.dao.ProductDaoImpl;
 import com.bobocode.exception.DaoOperationException;
 import com.bobocode.model.Product;
 import com.bobocode.util.JdbcUtil;
+import com.bobocode.util.PoolConfig;
+import com.bobocode.util.PooledDataSource;
 import lombok.SneakyThrows;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.commons.lang3.RandomUtils;
@@ -22,11 +24,14 @@ import java.time.LocalDate;
 import java.time.Month;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
 import static org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @TestMethodOrder(OrderAnnotation.class)
 class ProductDaoTest extends AbstractDaoTest {
@@ -230,6 +235,161 @@ class ProductDaoTest extends AbstractDaoTest {
                 .isThrownBy(() -> productDao.remove(new Product()));
     }
 
+    @Test
+    @Order(15)
+    @DisplayName("saveAll stores all products to the DB")
+    void saveAll() {
+        List<Product> products = createTestProductList();
+
+        productDao.saveAll(products);
+        List<Product> foundProducts = findAllFromDataBase();
+
+        assertThat(foundProducts)
+                .usingRecursiveFieldByFieldElementComparatorIgnoringFields("id", "creationTime")
+                .containsExactlyInAnyOrderElementsOf(products);
+    }
+
+    @Test
+    @Order(16)
+    @DisplayName("saveAll generates ids for all products when they don't fit into a single batch")
+    void saveAllGeneratesIds() {
+        ProductDao smallBatchProductDao = new ProductDaoImpl(spyDataSource, 2);
+        List<Product> products = Stream.generate(this::generateTestProduct).limit(5).toList();
+
+        smallBatchProductDao.saveAll(products);
+
+        assertThat(products).extracting(Product::getId).doesNotContainNull().doesNotHaveDuplicates();
+        products.forEach(product -> assertThat(findOneFromDatabase(product.getId())).isEqualTo(product));
+    }
+
+    @Test
+    @Order(17)
+    @DisplayName("saveAll uses a single connection for all products")
+    @SneakyThrows
+    void saveAllUsesSingleConnection() {
+        List<Product> products = Stream.generate(this::generateTestProduct).limit(10).toList();
+
+        productDao.saveAll(products);
+
+        verify(spyDataSource, times(1)).getConnection();
+    }
+
+    @Test
+    @Order(18)
+    @DisplayName("saveAll wraps DB errors with a custom exception")
+    @SneakyThrows
+    void saveAllWrapsSqlException() {
+        List<Product> products = createTestProductList();
+        mockDataSourceToThrowError();
+
+        assertThatExceptionOfType(DaoOperationException.class)
+                .isThrownBy(() -> productDao.saveAll(products));
+    }
+
+    @Test
+    @Order(19)
+    @DisplayName("streamAll loads all products from the DB")
+    void streamAll() {
+        List<Product> products = givenStoredProductsFromDB();
+
+        try (Stream<Product> productStream = productDao.streamAll()) {
+            assertThat(productStream.toList()).isEqualTo(products);
+        }
+    }
+
+    @Test
+    @Order(20)
+    @DisplayName("streamAll holds a connection until the stream is closed")
+    void streamAllReleasesConnectionOnClose() {
+        givenStoredProductsFromDB();
+        try (PooledDataSource pooledDataSource = JdbcUtil.createPooledDataSource(originalDataSource)) {
+            ProductDao pooledProductDao = new ProductDaoImpl(pooledDataSource);
+
+            Stream<Product> productStream = pooledProductDao.streamAll();
+            productStream.findFirst();
+            assertThat(pooledDataSource.getActiveConnections()).isEqualTo(1);
+
+            productStream.close();
+            assertThat(pooledDataSource.getActiveConnections()).isZero();
+        }
+    }
+
+    @Test
+    @Order(21)
+    @DisplayName("streamAll wraps DB errors with a custom exception")
+    @SneakyThrows
+    void streamAllWrapsSqlExceptions() {
+        mockDataSourceToThrowError();
+        assertThatExceptionOfType(DaoOperationException.class).isThrownBy(() -> productDao.streamAll());
+    }
+
+    @Test
+    @Order(22)
+    @DisplayName("findOne and update reuse prepared statements of a pooled connection")
+    void findOneAndUpdateReuseCachedStatements() {
+        Product product = givenStoredProductFromDB();
+        PoolConfig poolConfig = PoolConfig.builder().maxPoolSize(1).statementCacheSize(8).build();
+        try (PooledDataSource pooledDataSource = JdbcUtil.createPooledDataSource(originalDataSource, poolConfig)) {
+            ProductDao pooledProductDao = new ProductDaoImpl(pooledDataSource);
+
+            for (int i = 0; i < 3; i++) {
+                Product foundProduct = pooledProductDao.findOne(product.getId());
+                foundProduct.setName("Updated name " + i);
+                pooledProductDao.update(foundProduct);
+            }
+
+            assertThat(pooledDataSource.getStatementCacheMisses()).isEqualTo(2);
+            assertThat(pooledDataSource.getStatementCacheHits()).isEqualTo(4);
+        }
+    }
+
+    @Test
+    @Order(23)
+    @DisplayName("findAllByIds loads products ordered by id")
+    void findAllByIds() {
+        List<Product> products = givenStoredProductsFromDB();
+        long[] ids = {products.get(2).getId(), products.get(0).getId(), products.get(2).getId(), -1L};
+
+        List<Product> foundProducts = productDao.findAllByIds(ids);
+
+        assertThat(foundProducts).containsExactly(products.get(0), products.get(2));
+    }
+
+    @Test
+    @Order(24)
+    @DisplayName("findAllByIds loads products in chunks when ids don't fit into a single IN clause")
+    @SneakyThrows
+    void findAllByIdsUsesChunks() {
+        List<Product> products = Stream.generate(this::generateTestProduct).limit(5).toList();
+        products.forEach(this::saveToDB);
+        ProductDao smallBatchProductDao = new ProductDaoImpl(spyDataSource, 2);
+
+        List<Product> foundProducts = smallBatchProductDao.findAllByIds(
+                products.stream().mapToLong(Product::getId).toArray());
+
+        assertThat(foundProducts).containsExactlyElementsOf(products);
+        verify(spyDataSource, times(1)).getConnection();
+    }
+
+    @Test
+    @Order(25)
+    @DisplayName("findAllByIds returns an empty list when no ids are provided")
+    void findAllByIdsWithoutIds() {
+        givenStoredProductsFromDB();
+
+        assertThat(productDao.findAllByIds(new long[0])).isEmpty();
+    }
+
+    @Test
+    @Order(26)
+    @DisplayName("findAllByIds wraps DB errors with a custom exception")
+    @SneakyThrows
+    void findAllByIdsWrapsSqlExceptions() {
+        mockDataSourceToThrowError();
+
+        assertThatExceptionOfType(DaoOperationException.class).isThrownBy(() -> productDao.findAllByIds(new long[]{1L}));
+    }
+
     private Product givenStoredProductFromDB() {
         Product product = generateTestProduct();
         saveToDB(product);
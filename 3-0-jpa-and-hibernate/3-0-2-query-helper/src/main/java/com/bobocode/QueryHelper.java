@@ -25,13 +25,20 @@ public class QueryHelper {
      * throws a {@link QueryHelperException} with the following message: "Error performing query. Transaction is rolled back"
      * <p>
      * The purpose of this method is to perform read operations using {@link EntityManager}, so it uses read only mode
-     * by default.
+     * by default:
+     * <ul>
+     * <li>the {@link Session} is switched to default read-only mode, so Hibernate does not keep snapshots of loaded
+     * entities and does not dirty check them</li>
+     * <li>the {@link Session} uses {@link org.hibernate.FlushMode#MANUAL}, so it is never flushed</li>
+     * <li>the JDBC connection is marked read-only for the time of the transaction, so the database can optimize
+     * it as well. The connection is switched back before it is released, since it's reused by other transactions</li>
+     * </ul>
      *
      * @param entityManagerConsumer query logic encapsulated as function that receives entity manager and returns result
      * @param <T>                   generic type that allows to specify single entity class of some collection
      * @return query result specified by type T
      */
     public <T> T readWithinTx(Function<EntityManager, T> entityManagerConsumer) {
-        throw new ExerciseNotCompletedException(); // todo:
+        throw new ExerciseNotCompletedException(); // todo: use Session read-only mode, FlushMode.MANUAL and read-only connection
     }
 }
\ No newline at end of file
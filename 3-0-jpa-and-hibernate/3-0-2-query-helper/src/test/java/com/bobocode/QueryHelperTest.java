@@ -4,6 +4,8 @@ import com.bobocode.exception.QueryHelperException;
 import com.bobocode.model.Account;
 import com.bobocode.util.EntityManagerUtil;
 import com.bobocode.util.TestDataGenerator;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
 import org.junit.jupiter.api.*;
 
 import jakarta.persistence.EntityManagerFactory;
@@ -76,6 +78,23 @@ class QueryHelperTest {
         }
     }
 
+    @Test
+    @Order(4)
+    @DisplayName("Query helper disables flush and dirty checking")
+    void queryHelperUsesReadOnlySession() {
+        Account account = saveRandomAccount();
+
+        queryHelper.readWithinTx(entityManager -> {
+            Session session = entityManager.unwrap(Session.class);
+            Account managedAccount = session.find(Account.class, account.getId());
+
+            assertThat(session.isDefaultReadOnly()).isTrue();
+            assertThat(session.isReadOnly(managedAccount)).isTrue();
+            assertThat(session.getHibernateFlushMode()).isEqualTo(FlushMode.MANUAL);
+            return managedAccount;
+        });
+    }
+
     private Account saveRandomAccount() {
         Account account = TestDataGenerator.generateAccount();
         emUtil.performWithinTx(entityManager -> entityManager.persist(account));
@@ -1,7 +1,9 @@
 package com.bobocode.dao;
 
 import com.bobocode.model.Account;
+import com.bobocode.util.KeysetPage;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -15,6 +17,15 @@ public interface AccountDao {
      */
     void save(Account account);
 
+    /**
+     * Stores new accounts into database in batches, and sets generated ids to them. All accounts are stored in
+     * one transaction. The persistence context is flushed and cleared after each batch, so it does not grow with
+     * the number of accounts.
+     *
+     * @param accounts new instances of account
+     */
+    void saveAll(Collection<Account> accounts);
+
     /**
      * Returns an {@link Account} instance by its id
      *
@@ -23,6 +34,16 @@ public interface AccountDao {
      */
     Account findById(Long id);
 
+    /**
+     * Returns accounts by their ids using a few queries instead of a query per id. Ids are passed as a primitive array,
+     * so they are only boxed chunk by chunk when bound to a query. Duplicate ids are loaded once, and ids that are
+     * not found are skipped.
+     *
+     * @param ids account ids in the database
+     * @return found accounts ordered by id
+     */
+    List<Account> findAllByIds(long[] ids);
+
     /**
      * Returns {@link Account} instance by its email
      *
@@ -38,6 +59,17 @@ public interface AccountDao {
      */
     List<Account> findAll();
 
+    /**
+     * Returns a page of accounts ordered by id. The first page is loaded by passing {@code null} token, the next ones
+     * are loaded by passing {@link KeysetPage#getNextPageToken()} of the previous page. It uses keyset pagination,
+     * so loading the last page is as fast as loading the first one.
+     *
+     * @param pageToken continuation token of the previous page, or {@code null} for the first page
+     * @param pageSize  max number of accounts on the page
+     * @return page of accounts
+     */
+    KeysetPage<Account> findAll(String pageToken, int pageSize);
+
     /**
      * Receives stored {@link Account} instance and updates it in the database
      *
@@ -45,6 +77,14 @@ public interface AccountDao {
      */
     void update(Account account);
 
+    /**
+     * Receives stored {@link Account} instances and updates them in the database in batches. All accounts are updated
+     * in one transaction.
+     *
+     * @param accounts stored accounts with updated fields
+     */
+    void updateAll(Collection<Account> accounts);
+
     /**
      * Removes the stored account from the database.
      *
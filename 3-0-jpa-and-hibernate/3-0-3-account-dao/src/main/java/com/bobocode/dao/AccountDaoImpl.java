@@ -2,15 +2,25 @@ package com.bobocode.dao;
 
 import com.bobocode.model.Account;
 import com.bobocode.util.ExerciseNotCompletedException;
+import com.bobocode.util.KeysetPage;
 
 import jakarta.persistence.EntityManagerFactory;
+import java.util.Collection;
 import java.util.List;
 
 public class AccountDaoImpl implements AccountDao {
+    static final int DEFAULT_BATCH_SIZE = 50;
+
     private EntityManagerFactory emf;
+    private int batchSize;
 
     public AccountDaoImpl(EntityManagerFactory emf) {
+        this(emf, DEFAULT_BATCH_SIZE);
+    }
+
+    public AccountDaoImpl(EntityManagerFactory emf, int batchSize) {
         this.emf = emf;
+        this.batchSize = batchSize;
     }
 
     @Override
@@ -18,11 +28,21 @@ public class AccountDaoImpl implements AccountDao {
         throw new ExerciseNotCompletedException(); // todo
     }
 
+    @Override
+    public void saveAll(Collection<Account> accounts) {
+        throw new ExerciseNotCompletedException(); // todo: flush and clear the persistence context after every batch
+    }
+
     @Override
     public Account findById(Long id) {
         throw new ExerciseNotCompletedException(); // todo
     }
 
+    @Override
+    public List<Account> findAllByIds(long[] ids) {
+        throw new ExerciseNotCompletedException(); // todo: use Session#byMultipleIds with batchSize on sorted distinct ids
+    }
+
     @Override
     public Account findByEmail(String email) {
         throw new ExerciseNotCompletedException(); // todo
@@ -33,11 +53,21 @@ public class AccountDaoImpl implements AccountDao {
         throw new ExerciseNotCompletedException(); // todo
     }
 
+    @Override
+    public KeysetPage<Account> findAll(String pageToken, int pageSize) {
+        throw new ExerciseNotCompletedException(); // todo: use KeysetPagination
+    }
+
     @Override
     public void update(Account account) {
         throw new ExerciseNotCompletedException(); // todo
     }
 
+    @Override
+    public void updateAll(Collection<Account> accounts) {
+        throw new ExerciseNotCompletedException(); // todo: flush and clear the persistence context after every batch
+    }
+
     @Override
     public void remove(Account account) {
         throw new ExerciseNotCompletedException(); // todo
@@ -0,0 +1,125 @@
+package com.bobocode.dao;
+
+import com.bobocode.model.Account;
+import com.bobocode.util.CacheStats;
+import com.bobocode.util.EntityCache;
+import com.bobocode.util.KeysetPage;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * {@link CachingAccountDao} is an {@link AccountDao} decorator that adds a read-through cache for the hottest lookups:
+ * {@link AccountDao#findById(Long)} and {@link AccountDao#findByEmail(String)}. Accounts are cached by id, and
+ * the email index allows to find the same cached account by its email. Repeated reads of the same account are served
+ * from memory and do not reach the database.
+ * <p>
+ * {@link CachingAccountDao#update(Account)}, {@link CachingAccountDao#updateAll(Collection)} and
+ * {@link CachingAccountDao#remove(Account)} invalidate the cached accounts. Every caller receives its own copy of
+ * the cached account, so changing a returned instance does not change the cache.
+ */
+public class CachingAccountDao implements AccountDao {
+    private final AccountDao accountDao;
+    private final EntityCache<Long, String, Account> accountCache;
+
+    /**
+     * @param accountDao a DAO that loads accounts on a cache miss
+     * @param maxSize    max number of cached accounts
+     * @param timeToLive time after which a cached account is loaded again
+     */
+    public CachingAccountDao(AccountDao accountDao, int maxSize, Duration timeToLive) {
+        this.accountDao = accountDao;
+        this.accountCache = new EntityCache<>(maxSize, timeToLive, Account::getId, Account::getEmail);
+    }
+
+    @Override
+    public void save(Account account) {
+        accountDao.save(account);
+    }
+
+    @Override
+    public void saveAll(Collection<Account> accounts) {
+        accountDao.saveAll(accounts);
+    }
+
+    @Override
+    public Account findById(Long id) {
+        return copyOf(accountCache.get(id, this::loadById));
+    }
+
+    @Override
+    public List<Account> findAllByIds(long[] ids) {
+        return accountDao.findAllByIds(ids);
+    }
+
+    @Override
+    public Account findByEmail(String email) {
+        return copyOf(accountCache.getBySecondaryKey(email, this::loadByEmail));
+    }
+
+    @Override
+    public List<Account> findAll() {
+        return accountDao.findAll();
+    }
+
+    @Override
+    public KeysetPage<Account> findAll(String pageToken, int pageSize) {
+        return accountDao.findAll(pageToken, pageSize);
+    }
+
+    @Override
+    public void update(Account account) {
+        try {
+            accountDao.update(account);
+        } finally {
+            accountCache.invalidate(account.getId());
+        }
+    }
+
+    @Override
+    public void updateAll(Collection<Account> accounts) {
+        try {
+            accountDao.updateAll(accounts);
+        } finally {
+            accounts.forEach(account -> accountCache.invalidate(account.getId()));
+        }
+    }
+
+    @Override
+    public void remove(Account account) {
+        try {
+            accountDao.remove(account);
+        } finally {
+            accountCache.invalidate(account.getId());
+        }
+    }
+
+    public CacheStats getCacheStats() {
+        return accountCache.getStats();
+    }
+
+    private Account loadById(Long id) {
+        return copyOf(accountDao.findById(id));
+    }
+
+    private Account loadByEmail(String email) {
+        return copyOf(accountDao.findByEmail(email));
+    }
+
+    private static Account copyOf(Account account) {
+        if (account == null) {
+            return null;
+        }
+        Account copy = new Account();
+        copy.setId(account.getId());
+        copy.setFirstName(account.getFirstName());
+        copy.setLastName(account.getLastName());
+        copy.setEmail(account.getEmail());
+        copy.setBirthday(account.getBirthday());
+        copy.setGender(account.getGender());
+        copy.setCreationTime(account.getCreationTime());
+        copy.setBalance(account.getBalance());
+        return copy;
+    }
+}
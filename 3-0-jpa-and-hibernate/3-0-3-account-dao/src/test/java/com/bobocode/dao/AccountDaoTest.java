@@ -2,8 +2,11 @@ package com.bobocode.dao;
 
 import com.bobocode.exception.AccountDaoException;
 import com.bobocode.model.Account;
+import com.bobocode.util.KeysetPage;
 import com.bobocode.util.TestDataGenerator;
 import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.*;
 
 import jakarta.persistence.EntityManager;
@@ -15,7 +18,9 @@ import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
@@ -136,6 +141,151 @@ class AccountDaoTest {
         assertThat(saved).isFalse();
     }
 
+    @Test
+    @Order(9)
+    @DisplayName("Find the first page of accounts")
+    void testFindFirstPageOfAccounts() {
+        List<Account> accounts = TestDataGenerator.generateAccountList(3);
+        accounts.forEach(this::saveTestAccount);
+
+        KeysetPage<Account> page = accountDao.findAll(null, 2);
+
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.getContent()).extracting(Account::getId).isSorted();
+        assertThat(page.hasNext()).isTrue();
+    }
+
+    @Test
+    @Order(10)
+    @DisplayName("Find all accounts page by page")
+    void testFindAllAccountsPageByPage() {
+        List<Account> accounts = TestDataGenerator.generateAccountList(5);
+        accounts.forEach(this::saveTestAccount);
+
+        List<Account> foundAccounts = new ArrayList<>();
+        KeysetPage<Account> page = accountDao.findAll(null, 2);
+        foundAccounts.addAll(page.getContent());
+        while (page.hasNext()) {
+            page = accountDao.findAll(page.getNextPageToken(), 2);
+            assertThat(page.getContent()).hasSizeLessThanOrEqualTo(2);
+            foundAccounts.addAll(page.getContent());
+        }
+
+        assertThat(foundAccounts).containsAll(accounts);
+        assertThat(foundAccounts).doesNotHaveDuplicates();
+        assertThat(foundAccounts).extracting(Account::getId).isSorted();
+    }
+
+    @Test
+    @Order(11)
+    @DisplayName("The last page of accounts has no next page token")
+    void testLastPageOfAccountsHasNoToken() {
+        Account account = TestDataGenerator.generateAccount();
+        saveTestAccount(account);
+
+        KeysetPage<Account> page = accountDao.findAll(KeysetPage.encodeToken(account.getId() - 1), 10);
+
+        assertThat(page.getContent()).containsExactly(account);
+        assertThat(page.hasNext()).isFalse();
+        assertThat(page.getNextPageToken()).isNull();
+    }
+
+    @Test
+    @Order(12)
+    @DisplayName("Save all accounts")
+    void testSaveAllAccounts() {
+        List<Account> accounts = TestDataGenerator.generateAccountList(7);
+
+        new AccountDaoImpl(emf, 3).saveAll(accounts);
+
+        assertThat(accounts).extracting(Account::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(accounts).allMatch(this::isSaved);
+    }
+
+    @Test
+    @Order(13)
+    @DisplayName("Save all throws exception when one of accounts is invalid")
+    void testSaveAllWithInvalidAccount() {
+        List<Account> accounts = TestDataGenerator.generateAccountList(3);
+        accounts.get(1).setEmail(null);
+
+        assertThatThrownBy(() -> accountDao.saveAll(accounts)).isInstanceOf(AccountDaoException.class);
+    }
+
+    @Test
+    @Order(14)
+    @DisplayName("Update all accounts")
+    void testUpdateAllAccounts() {
+        List<Account> accounts = TestDataGenerator.generateAccountList(7);
+        accounts.forEach(this::saveTestAccount);
+        accounts.forEach(account -> account.setBalance(account.getBalance().add(BigDecimal.valueOf(100))));
+
+        new AccountDaoImpl(emf, 3).updateAll(accounts);
+
+        assertThat(accounts).allMatch(this::isBalanceUpdated);
+    }
+
+    @Test
+    @Order(15)
+    @DisplayName("Save all sends inserts in JDBC batches when account ids are generated by a sequence")
+    void testSaveAllUsesJdbcBatching() {
+        EntityManagerFactory batchedEmf = Persistence.createEntityManagerFactory("SingleAccountEntityH2Batched",
+                Map.of("hibernate.generate_statistics", "true"));
+        try {
+            Statistics statistics = batchedEmf.unwrap(SessionFactory.class).getStatistics();
+            List<Account> accounts = TestDataGenerator.generateAccountList(25);
+            statistics.clear();
+
+            new AccountDaoImpl(batchedEmf, 10).saveAll(accounts);
+
+            assertThat(accounts).extracting(Account::getId).doesNotContainNull().doesNotHaveDuplicates();
+            assertThat(statistics.getEntityInsertCount()).isEqualTo(25);
+            assertThat(statistics.getPrepareStatementCount()).isLessThan(accounts.size());
+        } finally {
+            batchedEmf.close();
+        }
+    }
+
+    @Test
+    @Order(16)
+    @DisplayName("Find accounts by ids")
+    void testFindAllAccountsByIds() {
+        List<Account> accounts = TestDataGenerator.generateAccountList(3);
+        accounts.forEach(this::saveTestAccount);
+        long[] ids = {accounts.get(2).getId(), accounts.get(0).getId(), accounts.get(2).getId(), -1L};
+
+        List<Account> foundAccounts = accountDao.findAllByIds(ids);
+
+        assertThat(foundAccounts).containsExactly(accounts.get(0), accounts.get(2));
+    }
+
+    @Test
+    @Order(17)
+    @DisplayName("Find accounts by ids loads them in chunks instead of one query per id")
+    void testFindAllAccountsByIdsUsesChunks() {
+        EntityManagerFactory batchedEmf = Persistence.createEntityManagerFactory("SingleAccountEntityH2Batched",
+                Map.of("hibernate.generate_statistics", "true"));
+        try {
+            Statistics statistics = batchedEmf.unwrap(SessionFactory.class).getStatistics();
+            List<Account> accounts = TestDataGenerator.generateAccountList(7);
+            EntityManager entityManager = batchedEmf.createEntityManager();
+            entityManager.getTransaction().begin();
+            accounts.forEach(entityManager::persist);
+            entityManager.getTransaction().commit();
+            entityManager.close();
+            long[] ids = accounts.stream().mapToLong(Account::getId).toArray();
+            statistics.clear();
+
+            List<Account> foundAccounts = new AccountDaoImpl(batchedEmf, 3).findAllByIds(ids);
+
+            assertThat(foundAccounts).extracting(Account::getId).containsExactly(accounts.stream()
+                    .map(Account::getId).sorted().toArray(Long[]::new));
+            assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+        } finally {
+            batchedEmf.close();
+        }
+    }
+
     private boolean isBalanceUpdated(Account account) {
         EntityManager entityManager = emf.createEntityManager();
         boolean isUpdated = entityManager.unwrap(Session.class).doReturningWork(connection -> {
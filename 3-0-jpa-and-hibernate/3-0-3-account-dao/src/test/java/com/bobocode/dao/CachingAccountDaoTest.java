@@ -0,0 +1,200 @@
+package com.bobocode.dao;
+
+import com.bobocode.model.Account;
+import com.bobocode.util.TestDataGenerator;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class CachingAccountDaoTest {
+    private AccountDao accountDao;
+    private CachingAccountDao cachingAccountDao;
+
+    @BeforeEach
+    void setup() {
+        accountDao = mock(AccountDao.class);
+        cachingAccountDao = new CachingAccountDao(accountDao, 2, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Repeated findById loads account from the database only once")
+    void findByIdIsCached() {
+        Account account = givenStoredAccount(1L);
+
+        Account firstFoundAccount = cachingAccountDao.findById(1L);
+        Account secondFoundAccount = cachingAccountDao.findById(1L);
+
+        assertThat(firstFoundAccount).isEqualTo(account);
+        assertThat(secondFoundAccount).isEqualTo(account);
+        verify(accountDao, times(1)).findById(1L);
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Repeated findByEmail loads account from the database only once")
+    void findByEmailIsCached() {
+        Account account = givenStoredAccount(1L);
+
+        cachingAccountDao.findByEmail(account.getEmail());
+        Account foundAccount = cachingAccountDao.findByEmail(account.getEmail());
+
+        assertThat(foundAccount).isEqualTo(account);
+        verify(accountDao, times(1)).findByEmail(account.getEmail());
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("findByEmail finds an account that was cached by findById")
+    void findByEmailUsesEmailIndex() {
+        Account account = givenStoredAccount(1L);
+
+        cachingAccountDao.findById(1L);
+        Account foundAccount = cachingAccountDao.findByEmail(account.getEmail());
+
+        assertThat(foundAccount).isEqualTo(account);
+        verify(accountDao, never()).findByEmail(account.getEmail());
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("update invalidates a cached account")
+    void updateInvalidatesCache() {
+        Account account = givenStoredAccount(1L);
+        cachingAccountDao.findById(1L);
+
+        cachingAccountDao.update(account);
+        cachingAccountDao.findById(1L);
+
+        verify(accountDao, times(2)).findById(1L);
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("remove invalidates a cached account and its email")
+    void removeInvalidatesCache() {
+        Account account = givenStoredAccount(1L);
+        cachingAccountDao.findById(1L);
+
+        cachingAccountDao.remove(account);
+        cachingAccountDao.findByEmail(account.getEmail());
+
+        verify(accountDao, times(1)).findByEmail(account.getEmail());
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Cached account expires after time to live")
+    void cachedAccountExpires() throws InterruptedException {
+        cachingAccountDao = new CachingAccountDao(accountDao, 2, Duration.ofMillis(50));
+        givenStoredAccount(1L);
+        cachingAccountDao.findById(1L);
+
+        Thread.sleep(100);
+        cachingAccountDao.findById(1L);
+
+        verify(accountDao, times(2)).findById(1L);
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("Cache evicts the oldest account when it's full")
+    void cacheIsBounded() {
+        givenStoredAccount(1L);
+        givenStoredAccount(2L);
+        givenStoredAccount(3L);
+
+        cachingAccountDao.findById(1L);
+        cachingAccountDao.findById(2L);
+        cachingAccountDao.findById(3L);
+        cachingAccountDao.findById(3L);
+        cachingAccountDao.findById(1L);
+
+        verify(accountDao, times(2)).findById(1L);
+        verify(accountDao, times(1)).findById(3L);
+        assertThat(cachingAccountDao.getCacheStats().getEvictionCount()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("Changing a returned account does not change the cached one")
+    void cachedAccountIsCopied() {
+        Account account = givenStoredAccount(1L);
+        String firstName = account.getFirstName();
+
+        cachingAccountDao.findById(1L).setFirstName("XXX");
+        Account foundAccount = cachingAccountDao.findById(1L);
+
+        assertThat(foundAccount.getFirstName()).isEqualTo(firstName);
+    }
+
+    @Test
+    @Order(9)
+    @DisplayName("Cache stats report hit ratio")
+    void cacheStatsReportHitRatio() {
+        givenStoredAccount(1L);
+
+        for (int i = 0; i < 4; i++) {
+            cachingAccountDao.findById(1L);
+        }
+
+        assertThat(cachingAccountDao.getCacheStats().getHitCount()).isEqualTo(3);
+        assertThat(cachingAccountDao.getCacheStats().getMissCount()).isEqualTo(1);
+        assertThat(cachingAccountDao.getCacheStats().getHitRatio()).isEqualTo(0.75);
+    }
+
+    @Test
+    @Order(10)
+    @DisplayName("Missing accounts are not cached")
+    void missingAccountIsNotCached() {
+        when(accountDao.findById(anyLong())).thenReturn(null);
+
+        cachingAccountDao.findById(1L);
+        cachingAccountDao.findById(1L);
+
+        verify(accountDao, times(2)).findById(1L);
+    }
+
+    @Test
+    @Order(11)
+    @DisplayName("updateAll invalidates all updated accounts")
+    void updateAllInvalidatesCache() {
+        Account firstAccount = givenStoredAccount(1L);
+        Account secondAccount = givenStoredAccount(2L);
+        cachingAccountDao.findById(1L);
+        cachingAccountDao.findById(2L);
+
+        cachingAccountDao.updateAll(List.of(firstAccount, secondAccount));
+        cachingAccountDao.findById(1L);
+        cachingAccountDao.findById(2L);
+
+        verify(accountDao, times(2)).findById(1L);
+        verify(accountDao, times(2)).findById(2L);
+    }
+
+    private Account givenStoredAccount(Long id) {
+        Account account = TestDataGenerator.generateAccount();
+        account.setId(id);
+        when(accountDao.findById(id)).thenAnswer(invocation -> copyOf(account));
+        when(accountDao.findByEmail(account.getEmail())).thenAnswer(invocation -> copyOf(account));
+        return account;
+    }
+
+    private Account copyOf(Account account) {
+        Account copy = TestDataGenerator.generateAccount();
+        copy.setId(account.getId());
+        copy.setFirstName(account.getFirstName());
+        copy.setEmail(account.getEmail());
+        return copy;
+    }
+}
@@ -0,0 +1,29 @@
+package com.bobocode.dao;
+
+import com.bobocode.model.Employee;
+import com.bobocode.model.EmployeeProfile;
+
+import java.util.List;
+
+/**
+ * {@link EmployeeDao} provides an API to access {@link Employee} and {@link EmployeeProfile} data. A profile shares
+ * the primary key of its employee, so it's loaded by the employee id directly, without going through the employee.
+ */
+public interface EmployeeDao {
+    /**
+     * Returns a profile of an employee using a single primary key lookup. The employee is not loaded.
+     *
+     * @param employeeId employee id, which is also the profile id
+     * @return employee profile, or {@code null} if the employee has no profile
+     */
+    EmployeeProfile findProfileByEmployeeId(long employeeId);
+
+    /**
+     * Returns employees together with their profiles using a single query, no matter how many employees are found.
+     * Employees without a profile are returned too, and ids that are not found are skipped.
+     *
+     * @param ids employee ids
+     * @return employees with their profiles ordered by employee id
+     */
+    List<EmployeeWithProfile> findEmployeesWithProfiles(List<Long> ids);
+}
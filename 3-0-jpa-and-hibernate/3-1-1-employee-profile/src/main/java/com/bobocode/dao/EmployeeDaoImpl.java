@@ -0,0 +1,25 @@
+package com.bobocode.dao;
+
+import com.bobocode.model.EmployeeProfile;
+import com.bobocode.util.ExerciseNotCompletedException;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+
+public class EmployeeDaoImpl implements EmployeeDao {
+    private EntityManagerFactory entityManagerFactory;
+
+    public EmployeeDaoImpl(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public EmployeeProfile findProfileByEmployeeId(long employeeId) {
+        throw new ExerciseNotCompletedException(); // todo: find the profile by id, since it's the employee id
+    }
+
+    @Override
+    public List<EmployeeWithProfile> findEmployeesWithProfiles(List<Long> ids) {
+        throw new ExerciseNotCompletedException(); // todo: left join EmployeeProfile on the shared primary key
+    }
+}
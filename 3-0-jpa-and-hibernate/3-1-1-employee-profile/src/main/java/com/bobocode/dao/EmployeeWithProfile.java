@@ -0,0 +1,13 @@
+package com.bobocode.dao;
+
+import com.bobocode.model.Employee;
+import com.bobocode.model.EmployeeProfile;
+
+/**
+ * An {@link Employee} together with its optional {@link EmployeeProfile}
+ *
+ * @param employee an employee
+ * @param profile  a profile of the employee, or {@code null} if the employee has no profile
+ */
+public record EmployeeWithProfile(Employee employee, EmployeeProfile profile) {
+}
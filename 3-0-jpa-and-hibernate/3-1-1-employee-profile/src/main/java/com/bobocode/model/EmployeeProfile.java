@@ -12,6 +12,7 @@ import lombok.Setter;
  *
  * - map relation between {@link Employee} and {@link EmployeeProfile} using foreign_key column: "employee_id"
  * - configure a derived identifier. E.g. map "employee_id" column should be also a primary key (id) for this entity
+ * - configure the relation as lazy, so a profile can be loaded without its employee
  */
 @NoArgsConstructor
 @Getter
@@ -0,0 +1,121 @@
+package com.bobocode;
+
+import com.bobocode.dao.EmployeeDao;
+import com.bobocode.dao.EmployeeDaoImpl;
+import com.bobocode.dao.EmployeeWithProfile;
+import com.bobocode.model.Employee;
+import com.bobocode.model.EmployeeProfile;
+import com.bobocode.util.EntityManagerUtil;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class EmployeeDaoTest {
+    private static EntityManagerUtil emUtil;
+    private static EntityManagerFactory entityManagerFactory;
+    private static EmployeeDao employeeDao;
+
+    @BeforeAll
+    static void setup() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("Employees",
+                Map.of("hibernate.generate_statistics", "true"));
+        emUtil = new EntityManagerUtil(entityManagerFactory);
+        employeeDao = new EmployeeDaoImpl(entityManagerFactory);
+    }
+
+    @AfterAll
+    static void destroy() {
+        entityManagerFactory.close();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Find a profile by employee id using a single query without loading the employee")
+    void findProfileByEmployeeId() {
+        Employee employee = saveRandomEmployee(true);
+        Statistics statistics = getStatistics();
+
+        EmployeeProfile profile = employeeDao.findProfileByEmployeeId(employee.getId());
+
+        assertThat(profile.getId()).isEqualTo(employee.getId());
+        assertThat(Hibernate.isInitialized(profile.getEmployee())).isFalse();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Find a profile by employee id returns null when the employee has no profile")
+    void findProfileByEmployeeIdWithoutProfile() {
+        Employee employee = saveRandomEmployee(false);
+        Statistics statistics = getStatistics();
+
+        EmployeeProfile profile = employeeDao.findProfileByEmployeeId(employee.getId());
+
+        assertThat(profile).isNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Find employees with profiles using a single query")
+    void findEmployeesWithProfiles() {
+        List<Employee> employees = List.of(saveRandomEmployee(true), saveRandomEmployee(false),
+                saveRandomEmployee(true), saveRandomEmployee(false), saveRandomEmployee(true));
+        List<Long> ids = List.of(employees.get(4).getId(), employees.get(1).getId(), employees.get(0).getId(),
+                employees.get(3).getId(), employees.get(2).getId(), -1L);
+        Statistics statistics = getStatistics();
+
+        List<EmployeeWithProfile> found = employeeDao.findEmployeesWithProfiles(ids);
+
+        assertThat(found).extracting(employeeWithProfile -> employeeWithProfile.employee().getId())
+                .containsExactlyElementsOf(employees.stream().map(Employee::getId).toList());
+        assertThat(found).extracting(employeeWithProfile -> employeeWithProfile.profile() == null
+                        ? null : employeeWithProfile.profile().getId())
+                .containsExactly(employees.get(0).getId(), null, employees.get(2).getId(), null,
+                        employees.get(4).getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Find employees with profiles returns an empty list when no ids are passed")
+    void findEmployeesWithProfilesWithEmptyIds() {
+        assertThat(employeeDao.findEmployeesWithProfiles(List.of())).isEmpty();
+    }
+
+    private Employee saveRandomEmployee(boolean withProfile) {
+        Employee employee = new Employee();
+        employee.setEmail(RandomStringUtils.randomAlphabetic(15));
+        employee.setFistName(RandomStringUtils.randomAlphabetic(15));
+        employee.setLastName(RandomStringUtils.randomAlphabetic(15));
+        emUtil.performWithinTx(entityManager -> {
+            entityManager.persist(employee);
+            if (withProfile) {
+                EmployeeProfile profile = new EmployeeProfile();
+                profile.setDepartment(RandomStringUtils.randomAlphabetic(15));
+                profile.setPosition(RandomStringUtils.randomAlphabetic(15));
+                profile.setEmployee(employee);
+                entityManager.persist(profile);
+            }
+        });
+        return employee;
+    }
+
+    private Statistics getStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
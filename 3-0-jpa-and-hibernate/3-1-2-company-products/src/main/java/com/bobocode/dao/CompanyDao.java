@@ -2,7 +2,30 @@ package com.bobocode.dao;
 
 import com.bobocode.model.Company;
 
+import java.util.List;
+
 public interface CompanyDao {
+    /**
+     * A way to load companies together with their products. Each strategy runs a fixed number of queries
+     * that does not grow with the number of companies, unlike initializing the lazy products one by one (N+1).
+     */
+    enum FetchStrategy {
+        /**
+         * A single query that fetch joins the products. Company columns are repeated in every product row.
+         */
+        FETCH_JOIN,
+        /**
+         * A query for the companies, and then products of several companies at a time, so
+         * {@code 1 + ceil(companies / batchSize)} queries
+         */
+        BATCH_FETCH,
+        /**
+         * A query for the companies, and a second query that fetch joins the products of the found company ids.
+         * The first query can be ordered or paginated in the database, since it does not join the products.
+         */
+        TWO_QUERIES
+    }
+
     /**
      * Retrieves a {@link Company} with all its products by company id
      *
@@ -10,4 +33,13 @@ public interface CompanyDao {
      * @return company with all its products
      */
     Company findByIdFetchProducts(Long id);
+
+    /**
+     * Retrieves companies with all their products by company ids. Companies that are not found are skipped.
+     *
+     * @param ids      company ids
+     * @param strategy a way to load the products
+     * @return companies with all their products ordered by id
+     */
+    List<Company> findAllByIdsFetchProducts(List<Long> ids, FetchStrategy strategy);
 }
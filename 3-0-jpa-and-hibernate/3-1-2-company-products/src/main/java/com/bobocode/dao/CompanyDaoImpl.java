@@ -4,16 +4,30 @@ import com.bobocode.model.Company;
 import com.bobocode.util.ExerciseNotCompletedException;
 
 import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
 
 public class CompanyDaoImpl implements CompanyDao {
+    static final int DEFAULT_BATCH_SIZE = 50;
+
     private EntityManagerFactory entityManagerFactory;
+    private int batchSize;
 
     public CompanyDaoImpl(EntityManagerFactory entityManagerFactory) {
+        this(entityManagerFactory, DEFAULT_BATCH_SIZE);
+    }
+
+    public CompanyDaoImpl(EntityManagerFactory entityManagerFactory, int batchSize) {
         this.entityManagerFactory = entityManagerFactory;
+        this.batchSize = batchSize;
     }
 
     @Override
     public Company findByIdFetchProducts(Long id) {
         throw new ExerciseNotCompletedException(); // todo
     }
+
+    @Override
+    public List<Company> findAllByIdsFetchProducts(List<Long> ids, FetchStrategy strategy) {
+        throw new ExerciseNotCompletedException(); // todo: for BATCH_FETCH use Session#setFetchBatchSize(batchSize)
+    }
 }
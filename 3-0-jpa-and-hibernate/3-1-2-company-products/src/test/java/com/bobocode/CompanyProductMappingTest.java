@@ -1,13 +1,19 @@
 package com.bobocode;
 
 import com.bobocode.dao.CompanyDao;
+import com.bobocode.dao.CompanyDao.FetchStrategy;
 import com.bobocode.dao.CompanyDaoImpl;
 import com.bobocode.model.Company;
 import com.bobocode.model.Product;
 import com.bobocode.util.EntityManagerUtil;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.Hibernate;
 import org.hibernate.LazyInitializationException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.JoinColumn;
@@ -16,6 +22,8 @@ import jakarta.persistence.PersistenceException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
@@ -29,7 +37,8 @@ class CompanyProductMappingTest {
 
     @BeforeAll
     static void setup() {
-        entityManagerFactory = Persistence.createEntityManagerFactory("CompanyProducts");
+        entityManagerFactory = Persistence.createEntityManagerFactory("CompanyProducts",
+                Map.of("hibernate.generate_statistics", "true"));
         emUtil = new EntityManagerUtil(entityManagerFactory);
         companyDao = new CompanyDaoImpl(entityManagerFactory);
     }
@@ -228,6 +237,82 @@ class CompanyProductMappingTest {
         assertThat(Company.class.getDeclaredMethod("setProducts", List.class).getModifiers()).isEqualTo(Modifier.PRIVATE);
     }
 
+    @ParameterizedTest
+    @EnumSource(FetchStrategy.class)
+    @Order(13)
+    @DisplayName("findAllByIdsFetchProducts() loads companies and their products all together")
+    void findAllByIdsFetchesProducts(FetchStrategy strategy) {
+        List<Company> companies = saveRandomCompaniesWithProducts(3, 2);
+        var productlessCompany = createRandomCompany();
+        emUtil.performWithinTx(entityManager -> entityManager.persist(productlessCompany));
+        List<Long> ids = List.of(companies.get(2).getId(), productlessCompany.getId(), companies.get(0).getId(), -1L);
+
+        List<Company> foundCompanies = companyDao.findAllByIdsFetchProducts(ids, strategy);
+
+        assertThat(foundCompanies).containsExactly(companies.get(0), companies.get(2), productlessCompany);
+        assertThat(foundCompanies).allMatch(company -> Hibernate.isInitialized(company.getProducts()));
+        assertThat(foundCompanies.get(0).getProducts()).hasSameElementsAs(companies.get(0).getProducts());
+        assertThat(foundCompanies.get(1).getProducts()).hasSameElementsAs(companies.get(2).getProducts());
+        assertThat(foundCompanies.get(2).getProducts()).isEmpty();
+    }
+
+    @ParameterizedTest
+    @EnumSource(FetchStrategy.class)
+    @Order(14)
+    @DisplayName("findAllByIdsFetchProducts() returns an empty list when no ids are passed")
+    void findAllByIdsFetchProductsWithEmptyIds(FetchStrategy strategy) {
+        assertThat(companyDao.findAllByIdsFetchProducts(List.of(), strategy)).isEmpty();
+    }
+
+    @Test
+    @Order(15)
+    @DisplayName("FETCH_JOIN strategy loads companies with their products in a single query")
+    void fetchJoinStrategyRunsSingleQuery() {
+        assertThat(countQueriesOfFindingCompanies(7, FetchStrategy.FETCH_JOIN, companyDao)).isEqualTo(1);
+    }
+
+    @Test
+    @Order(16)
+    @DisplayName("BATCH_FETCH strategy loads products of several companies in a single query")
+    void batchFetchStrategyRunsQueryPerBatch() {
+        var batchingCompanyDao = new CompanyDaoImpl(entityManagerFactory, 3);
+
+        assertThat(countQueriesOfFindingCompanies(7, FetchStrategy.BATCH_FETCH, batchingCompanyDao)).isEqualTo(4);
+    }
+
+    @Test
+    @Order(17)
+    @DisplayName("TWO_QUERIES strategy loads companies and their products in two queries")
+    void twoQueriesStrategyRunsTwoQueries() {
+        assertThat(countQueriesOfFindingCompanies(7, FetchStrategy.TWO_QUERIES, companyDao)).isEqualTo(2);
+    }
+
+    private long countQueriesOfFindingCompanies(int companyCount, FetchStrategy strategy, CompanyDao companyDao) {
+        List<Long> ids = saveRandomCompaniesWithProducts(companyCount, 2).stream().map(Company::getId).toList();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Company> foundCompanies = companyDao.findAllByIdsFetchProducts(ids, strategy);
+
+        assertThat(foundCompanies).hasSize(companyCount);
+        assertThat(foundCompanies).allMatch(company -> company.getProducts().size() == 2);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<Company> saveRandomCompaniesWithProducts(int companyCount, int productsPerCompany) {
+        List<Company> companies = Stream.generate(this::createRandomCompany).limit(companyCount).toList();
+        emUtil.performWithinTx(entityManager -> companies.forEach(company -> {
+            entityManager.persist(company);
+            for (int i = 0; i < productsPerCompany; i++) {
+                var product = createRandomProduct();
+                product.setCompany(company);
+                entityManager.persist(product);
+                company.getProducts().add(product);
+            }
+        }));
+        return companies;
+    }
+
     private Company createRandomCompany() {
         var company = new Company();
         company.setName(RandomStringUtils.randomAlphabetic(20));
@@ -0,0 +1,29 @@
+package com.bobocode.dao;
+
+import com.bobocode.model.Author;
+import com.bobocode.model.Book;
+
+/**
+ * {@link AuthorBookDao} links {@link Author} and {@link Book} by writing straight to the "author_book" link table.
+ * Unlike {@link Author#addBook(Book)} and {@link Author#removeBook(Book)}, it does not load the author, the books,
+ * or the collections on either side, so its cost depends only on the number of passed book ids. Rows are written
+ * in JDBC batches. Collections that are already loaded into a persistence context are not updated.
+ */
+public interface AuthorBookDao {
+    /**
+     * Links books to an author in one transaction. Links that already exist are skipped.
+     *
+     * @param authorId id of a stored author
+     * @param bookIds  ids of stored books
+     */
+    void link(long authorId, long[] bookIds);
+
+    /**
+     * Unlinks books from an author in one transaction. Books that are not linked to the author are skipped.
+     * The author and the books themselves are not removed.
+     *
+     * @param authorId id of a stored author
+     * @param bookIds  ids of stored books
+     */
+    void unlink(long authorId, long[] bookIds);
+}
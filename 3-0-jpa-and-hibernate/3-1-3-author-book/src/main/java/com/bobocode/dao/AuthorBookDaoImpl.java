@@ -0,0 +1,31 @@
+package com.bobocode.dao;
+
+import com.bobocode.util.ExerciseNotCompletedException;
+
+import jakarta.persistence.EntityManagerFactory;
+
+public class AuthorBookDaoImpl implements AuthorBookDao {
+    static final int DEFAULT_BATCH_SIZE = 50;
+
+    private EntityManagerFactory entityManagerFactory;
+    private int batchSize;
+
+    public AuthorBookDaoImpl(EntityManagerFactory entityManagerFactory) {
+        this(entityManagerFactory, DEFAULT_BATCH_SIZE);
+    }
+
+    public AuthorBookDaoImpl(EntityManagerFactory entityManagerFactory, int batchSize) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void link(long authorId, long[] bookIds) {
+        throw new ExerciseNotCompletedException(); // todo: batch "INSERT ... ON CONFLICT DO NOTHING" or MERGE in Session#doWork
+    }
+
+    @Override
+    public void unlink(long authorId, long[] bookIds) {
+        throw new ExerciseNotCompletedException(); // todo: batch DELETE statements in Session#doWork
+    }
+}
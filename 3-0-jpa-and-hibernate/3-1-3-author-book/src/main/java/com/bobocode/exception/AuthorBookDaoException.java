@@ -0,0 +1,7 @@
+package com.bobocode.exception;
+
+public class AuthorBookDaoException extends RuntimeException {
+    public AuthorBookDaoException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,75 @@
+package com.bobocode.model;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import jakarta.persistence.*;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * {@link AssignedIdAuthor} is an alternative mapping of {@link Author}. {@link Author} gets its id only when it's
+ * persisted, so its hashCode() has to be constant, and every {@code Set<Author>} degrades to a linear scan.
+ * {@link AssignedIdAuthor} is assigned a random {@link UUID} when it's created, so equals() and hashCode() are based
+ * on the id, and they never change during the lifetime of an entity.
+ * <p>
+ * Since the id is assigned, Hibernate cannot tell a new author from a detached one, so new authors should be
+ * stored with {@link EntityManager#persist(Object)}. {@link EntityManager#merge(Object)} works too, but it selects
+ * the author first.
+ */
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+@Entity
+@Table(name = "author")
+public class AssignedIdAuthor {
+    @Id
+    private UUID id;
+
+    @Setter
+    @Column(name = "first_name", nullable = false)
+    private String firstName;
+
+    @Setter
+    @Column(name = "last_name", nullable = false)
+    private String lastName;
+
+    @ManyToMany(cascade = {CascadeType.PERSIST, CascadeType.MERGE})
+    @JoinTable(name = "author_book",
+            joinColumns = @JoinColumn(name = "author_id"),
+            inverseJoinColumns = @JoinColumn(name = "book_id"))
+    private Set<IsbnBook> books = new HashSet<>();
+
+    public AssignedIdAuthor(String firstName, String lastName) {
+        this.id = UUID.randomUUID();
+        this.firstName = firstName;
+        this.lastName = lastName;
+    }
+
+    public void addBook(IsbnBook book) {
+        books.add(book);
+        book.getAuthors().add(this);
+    }
+
+    public void removeBook(IsbnBook book) {
+        books.remove(book);
+        book.getAuthors().remove(this);
+    }
+
+    /**
+     * The id is read with a getter, since the other author can be an uninitialized proxy
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AssignedIdAuthor)) return false;
+        return id.equals(((AssignedIdAuthor) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
+}
@@ -0,0 +1,58 @@
+package com.bobocode.model;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.NaturalId;
+
+import jakarta.persistence.*;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * {@link IsbnBook} is an alternative mapping of {@link Book} that is used together with {@link AssignedIdAuthor}.
+ * Its ISBN is an immutable natural id, which is set when the book is created, so equals() and hashCode() are based
+ * on the ISBN, and a book can be found in a {@code Set} before and after it's persisted. The surrogate id is
+ * generated by a sequence, so new books can be inserted in JDBC batches.
+ */
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+@Entity
+@Table(name = "book")
+public class IsbnBook {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    @Setter
+    @Column(nullable = false)
+    private String name;
+
+    @NaturalId
+    @Column(nullable = false, unique = true, updatable = false)
+    private String isbn;
+
+    @ManyToMany(mappedBy = "books")
+    private Set<AssignedIdAuthor> authors = new HashSet<>();
+
+    public IsbnBook(String isbn, String name) {
+        this.isbn = isbn;
+        this.name = name;
+    }
+
+    /**
+     * The ISBN is read with a getter, since the other book can be an uninitialized proxy
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof IsbnBook)) return false;
+        return isbn.equals(((IsbnBook) o).getIsbn());
+    }
+
+    @Override
+    public int hashCode() {
+        return isbn.hashCode();
+    }
+}
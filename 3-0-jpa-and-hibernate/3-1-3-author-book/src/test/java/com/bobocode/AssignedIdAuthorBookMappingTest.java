@@ -0,0 +1,136 @@
+package com.bobocode;
+
+import com.bobocode.model.AssignedIdAuthor;
+import com.bobocode.model.IsbnBook;
+import com.bobocode.util.EntityManagerUtil;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.Session;
+import org.junit.jupiter.api.*;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class AssignedIdAuthorBookMappingTest {
+    private static EntityManagerUtil emUtil;
+    private static EntityManagerFactory entityManagerFactory;
+
+    @BeforeAll
+    static void setup() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("BookAuthorsNaturalKeys");
+        emUtil = new EntityManagerUtil(entityManagerFactory);
+    }
+
+    @AfterAll
+    static void destroy() {
+        entityManagerFactory.close();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Author id is assigned when the author is created and does not change when it's saved")
+    void authorIdIsAssignedOnCreation() {
+        AssignedIdAuthor author = createRandomAuthor();
+        UUID id = author.getId();
+        int hashCode = author.hashCode();
+
+        emUtil.performWithinTx(entityManager -> entityManager.persist(author));
+
+        assertThat(id).isNotNull();
+        assertThat(author.getId()).isEqualTo(id);
+        assertThat(author.hashCode()).isEqualTo(hashCode);
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Book hash code does not change when the book is saved")
+    void bookHashCodeDoesNotChangeOnSave() {
+        IsbnBook book = createRandomBook();
+        int hashCode = book.hashCode();
+
+        emUtil.performWithinTx(entityManager -> entityManager.persist(book));
+
+        assertThat(book.getId()).isNotNull();
+        assertThat(book.hashCode()).isEqualTo(hashCode);
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Save a new author with several new books")
+    void saveNewAuthorWithNewBooks() {
+        AssignedIdAuthor author = createRandomAuthor();
+        List<IsbnBook> books = List.of(createRandomBook(), createRandomBook(), createRandomBook());
+        books.forEach(author::addBook);
+
+        emUtil.performWithinTx(entityManager -> entityManager.persist(author));
+
+        emUtil.performWithinTx(entityManager -> {
+            AssignedIdAuthor managedAuthor = entityManager.find(AssignedIdAuthor.class, author.getId());
+            assertThat(managedAuthor.getBooks()).containsExactlyInAnyOrderElementsOf(books);
+            assertThat(managedAuthor.getBooks()).allMatch(book -> book.getAuthors().contains(author));
+        });
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Add an existing book found by ISBN to an existing author")
+    void addExistingBookToExistingAuthor() {
+        AssignedIdAuthor author = createRandomAuthor();
+        IsbnBook book = createRandomBook();
+        emUtil.performWithinTx(entityManager -> {
+            entityManager.persist(author);
+            entityManager.persist(book);
+        });
+
+        emUtil.performWithinTx(entityManager -> {
+            AssignedIdAuthor managedAuthor = entityManager.find(AssignedIdAuthor.class, author.getId());
+            IsbnBook managedBook = entityManager.unwrap(Session.class)
+                    .bySimpleNaturalId(IsbnBook.class)
+                    .load(book.getIsbn());
+            managedAuthor.addBook(managedBook);
+        });
+
+        emUtil.performWithinTx(entityManager -> {
+            AssignedIdAuthor managedAuthor = entityManager.find(AssignedIdAuthor.class, author.getId());
+            assertThat(managedAuthor.getBooks()).containsExactly(book);
+        });
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Remove a book from an author")
+    void removeBookFromAuthor() {
+        AssignedIdAuthor author = createRandomAuthor();
+        IsbnBook removedBook = createRandomBook();
+        IsbnBook keptBook = createRandomBook();
+        author.addBook(removedBook);
+        author.addBook(keptBook);
+        emUtil.performWithinTx(entityManager -> entityManager.persist(author));
+
+        emUtil.performWithinTx(entityManager -> {
+            AssignedIdAuthor managedAuthor = entityManager.find(AssignedIdAuthor.class, author.getId());
+            managedAuthor.removeBook(entityManager.getReference(IsbnBook.class, removedBook.getId()));
+        });
+
+        emUtil.performWithinTx(entityManager -> {
+            AssignedIdAuthor managedAuthor = entityManager.find(AssignedIdAuthor.class, author.getId());
+            IsbnBook managedBook = entityManager.find(IsbnBook.class, removedBook.getId());
+            assertThat(managedAuthor.getBooks()).containsExactly(keptBook);
+            assertThat(managedBook).isNotNull();
+            assertThat(managedBook.getAuthors()).isEmpty();
+        });
+    }
+
+    private AssignedIdAuthor createRandomAuthor() {
+        return new AssignedIdAuthor(RandomStringUtils.randomAlphabetic(20), RandomStringUtils.randomAlphabetic(20));
+    }
+
+    private IsbnBook createRandomBook() {
+        return new IsbnBook(RandomStringUtils.randomAlphabetic(30), RandomStringUtils.randomAlphabetic(20));
+    }
+}
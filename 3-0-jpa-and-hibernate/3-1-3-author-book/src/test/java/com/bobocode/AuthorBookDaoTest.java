@@ -0,0 +1,131 @@
+package com.bobocode;
+
+import com.bobocode.dao.AuthorBookDao;
+import com.bobocode.dao.AuthorBookDaoImpl;
+import com.bobocode.model.Author;
+import com.bobocode.model.Book;
+import com.bobocode.util.EntityManagerUtil;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class AuthorBookDaoTest {
+    private static EntityManagerUtil emUtil;
+    private static EntityManagerFactory entityManagerFactory;
+    private static AuthorBookDao authorBookDao;
+
+    @BeforeAll
+    static void setup() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("BookAuthors",
+                Map.of("hibernate.generate_statistics", "true"));
+        emUtil = new EntityManagerUtil(entityManagerFactory);
+        authorBookDao = new AuthorBookDaoImpl(entityManagerFactory, 2);
+    }
+
+    @AfterAll
+    static void destroy() {
+        entityManagerFactory.close();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Link books to an author")
+    void linkBooks() {
+        Author author = saveRandomAuthor();
+        List<Book> books = saveRandomBooks(3);
+
+        authorBookDao.link(author.getId(), idsOf(books));
+
+        assertThat(findLinkedBookIds(author)).containsExactlyInAnyOrderElementsOf(books.stream().map(Book::getId).toList());
+        emUtil.performWithinTx(entityManager -> {
+            Author managedAuthor = entityManager.find(Author.class, author.getId());
+            assertThat(managedAuthor.getBooks()).containsExactlyInAnyOrderElementsOf(books);
+        });
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Link skips duplicate ids and books that are already linked")
+    void linkSkipsExistingLinks() {
+        Author author = saveRandomAuthor();
+        List<Book> books = saveRandomBooks(3);
+        authorBookDao.link(author.getId(), idsOf(books.subList(0, 2)));
+
+        authorBookDao.link(author.getId(), new long[]{books.get(1).getId(), books.get(2).getId(), books.get(2).getId()});
+
+        assertThat(findLinkedBookIds(author)).containsExactlyInAnyOrderElementsOf(books.stream().map(Book::getId).toList());
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Unlink removes only the links to the given books")
+    void unlinkBooks() {
+        Author author = saveRandomAuthor();
+        List<Book> books = saveRandomBooks(4);
+        authorBookDao.link(author.getId(), idsOf(books.subList(0, 3)));
+
+        authorBookDao.unlink(author.getId(), new long[]{books.get(0).getId(), books.get(3).getId()});
+
+        assertThat(findLinkedBookIds(author)).containsExactlyInAnyOrder(books.get(1).getId(), books.get(2).getId());
+        emUtil.performWithinTx(entityManager ->
+                assertThat(entityManager.find(Book.class, books.get(0).getId())).isNotNull());
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Link and unlink do not load authors, books or their collections")
+    void linkAndUnlinkDoNotLoadEntities() {
+        Author author = saveRandomAuthor();
+        List<Book> books = saveRandomBooks(5);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        authorBookDao.link(author.getId(), idsOf(books));
+        authorBookDao.unlink(author.getId(), idsOf(books.subList(0, 2)));
+
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+        assertThat(findLinkedBookIds(author)).hasSize(3);
+    }
+
+    private Author saveRandomAuthor() {
+        Author author = new Author();
+        author.setFirstName(RandomStringUtils.randomAlphabetic(20));
+        author.setLastName(RandomStringUtils.randomAlphabetic(20));
+        emUtil.performWithinTx(entityManager -> entityManager.persist(author));
+        return author;
+    }
+
+    private List<Book> saveRandomBooks(int count) {
+        List<Book> books = Stream.generate(() -> {
+            Book book = new Book();
+            book.setName(RandomStringUtils.randomAlphabetic(20));
+            book.setIsbn(RandomStringUtils.randomAlphabetic(30));
+            return book;
+        }).limit(count).toList();
+        emUtil.performWithinTx(entityManager -> books.forEach(entityManager::persist));
+        return books;
+    }
+
+    private long[] idsOf(List<Book> books) {
+        return books.stream().mapToLong(Book::getId).toArray();
+    }
+
+    private List<Long> findLinkedBookIds(Author author) {
+        return emUtil.performReturningWithinTx(entityManager -> entityManager
+                .createNativeQuery("SELECT book_id FROM author_book WHERE author_id = ?", Long.class)
+                .setParameter(1, author.getId())
+                .getResultList());
+    }
+}
@@ -1,6 +1,8 @@
 package com.bobocode.dao;
 
 import com.bobocode.model.Photo;
+import com.bobocode.model.PhotoComment;
+import com.bobocode.util.KeysetPage;
 
 import java.util.List;
 
@@ -31,6 +33,34 @@ public interface PhotoDao {
      */
     List<Photo> findAll();
 
+    /**
+     * Retrieves a photo with all its comments by photo id using a single query
+     *
+     * @param id photo id
+     * @return photo instance with initialized comments
+     */
+    Photo findByIdWithComments(long id);
+
+    /**
+     * Returns a list of all stored photos with their comments. Comments are fetched by the same query using
+     * an entity graph, so the number of queries does not depend on the number of photos.
+     *
+     * @return list of stored photos with initialized comments
+     */
+    List<Photo> findAllWithComments();
+
+    /**
+     * Returns a page of photos with their comments ordered by photo id. The first page is loaded by passing
+     * {@code null} token, the next ones are loaded by passing {@link KeysetPage#getNextPageToken()} of the previous
+     * page. The ids of a page are selected by a query with a limit, and the photos with their comments are fetched
+     * by a second query, so the page is never cut from all the fetched rows in memory. Every page costs two queries.
+     *
+     * @param pageToken continuation token of the previous page, or {@code null} for the first page
+     * @param pageSize  max number of photos on the page
+     * @return page of photos with initialized comments
+     */
+    KeysetPage<Photo> findAllWithComments(String pageToken, int pageSize);
+
     /**
      * Removes a photo from the database
      *
@@ -46,4 +76,29 @@ public interface PhotoDao {
      * @param comment
      */
     void addComment(long photoId, String comment);
+
+    /**
+     * Adds new comments to an existing photo in one transaction. Like {@link PhotoDao#addComment(long, String)}, it
+     * does not load {@link Photo}. Comments are inserted in batches, and the persistence context is flushed and
+     * cleared after each batch, so it does not grow with the number of comments. Inserts are sent in JDBC batches
+     * when comment ids are not generated by IDENTITY.
+     *
+     * @param photoId  id of an existing photo
+     * @param comments texts of new comments
+     */
+    void addComments(long photoId, List<String> comments);
+
+    /**
+     * Returns a slice of photo comments ordered by comment id, which is also the order they were added in. The first
+     * slice is loaded by passing {@code null} as {@code afterCommentId}, the next ones are loaded by passing the id
+     * of the last comment of the previous slice. Unlike {@link Photo#getComments()}, it never loads all the comments
+     * of a photo, and it does not load {@link Photo}. It seeks by the index on {@code photo_comment(photo_id, id)},
+     * so loading a slice costs the same no matter how far it is from the first one.
+     *
+     * @param photoId        id of an existing photo
+     * @param afterCommentId id of the last comment of the previous slice, or {@code null} for the first slice
+     * @param limit          max number of comments in the slice
+     * @return photo comments that go after the given comment
+     */
+    List<PhotoComment> findComments(long photoId, Long afterCommentId, int limit);
 }
@@ -1,7 +1,9 @@
 package com.bobocode.dao;
 
 import com.bobocode.model.Photo;
+import com.bobocode.model.PhotoComment;
 import com.bobocode.util.ExerciseNotCompletedException;
+import com.bobocode.util.KeysetPage;
 
 import jakarta.persistence.EntityManagerFactory;
 import java.util.List;
@@ -10,10 +12,18 @@ import java.util.List;
  * Please note that you should not use auto-commit mode for your implementation.
  */
 public class PhotoDaoImpl implements PhotoDao {
+    static final int DEFAULT_BATCH_SIZE = 50;
+
     private EntityManagerFactory entityManagerFactory;
+    private int batchSize;
 
     public PhotoDaoImpl(EntityManagerFactory entityManagerFactory) {
+        this(entityManagerFactory, DEFAULT_BATCH_SIZE);
+    }
+
+    public PhotoDaoImpl(EntityManagerFactory entityManagerFactory, int batchSize) {
         this.entityManagerFactory = entityManagerFactory;
+        this.batchSize = batchSize;
     }
 
     @Override
@@ -31,6 +41,21 @@ public class PhotoDaoImpl implements PhotoDao {
         throw new ExerciseNotCompletedException(); // todo
     }
 
+    @Override
+    public Photo findByIdWithComments(long id) {
+        throw new ExerciseNotCompletedException(); // todo: use an entity graph with "comments" as a fetch graph hint
+    }
+
+    @Override
+    public List<Photo> findAllWithComments() {
+        throw new ExerciseNotCompletedException(); // todo: use an entity graph with "comments" as a fetch graph hint
+    }
+
+    @Override
+    public KeysetPage<Photo> findAllWithComments(String pageToken, int pageSize) {
+        throw new ExerciseNotCompletedException(); // todo: select a page of ids first, then fetch photos by these ids
+    }
+
     @Override
     public void remove(Photo photo) {
         throw new ExerciseNotCompletedException(); // todo
@@ -40,4 +65,14 @@ public class PhotoDaoImpl implements PhotoDao {
     public void addComment(long photoId, String comment) {
         throw new ExerciseNotCompletedException(); // todo
     }
+
+    @Override
+    public void addComments(long photoId, List<String> comments) {
+        throw new ExerciseNotCompletedException(); // todo: get a new photo reference after every flush and clear
+    }
+
+    @Override
+    public List<PhotoComment> findComments(long photoId, Long afterCommentId, int limit) {
+        throw new ExerciseNotCompletedException(); // todo: seek by comment id greater than afterCommentId, order by id
+    }
 }
@@ -16,6 +16,7 @@ import java.time.LocalDateTime;
  *
  * - map relation between Photo and PhotoComment using foreign_key column: "photo_id"
  * - configure relation as mandatory (not optional)
+ * - add an index on columns "photo_id, id" to the table, so the comments of a photo can be read page by page
  */
 @Getter
 @Setter
@@ -17,6 +17,7 @@ import java.util.List;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -277,4 +278,14 @@ class PhotoCommentMappingTest {
             assertThat(managedPhotoComment).isNull();
         });
     }
+
+    @Test
+    @Order(18)
+    @DisplayName("Photo comment table has an index on photo id and comment id")
+    void photoCommentTableHasPhotoIdAndIdIndex() {
+        Table table = PhotoComment.class.getAnnotation(Table.class);
+
+        assertThat(table.indexes()).extracting(Index::columnList)
+                .anyMatch(columnList -> columnList.replace(" ", "").equalsIgnoreCase("photo_id,id"));
+    }
 }
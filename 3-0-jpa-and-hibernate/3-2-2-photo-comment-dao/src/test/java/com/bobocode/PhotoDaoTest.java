@@ -1,5 +1,6 @@
 package com.bobocode;
 
+import static com.bobocode.util.PhotoTestDataGenerator.createListOfRandomComments;
 import static com.bobocode.util.PhotoTestDataGenerator.createListOfRandomPhotos;
 import static com.bobocode.util.PhotoTestDataGenerator.createRandomPhoto;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
@@ -8,10 +9,19 @@ import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import com.bobocode.dao.PhotoDao;
 import com.bobocode.dao.PhotoDaoImpl;
 import com.bobocode.model.Photo;
+import com.bobocode.model.PhotoComment;
 import com.bobocode.util.EntityManagerUtil;
+import com.bobocode.util.KeysetPage;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -29,7 +39,8 @@ class PhotoDaoTest {
 
     @BeforeEach
     void setup() {
-        entityManagerFactory = Persistence.createEntityManagerFactory("PhotoComments");
+        entityManagerFactory = Persistence.createEntityManagerFactory("PhotoComments",
+                Map.of("hibernate.generate_statistics", "true"));
         emUtil = new EntityManagerUtil(entityManagerFactory);
         photoDao = new PhotoDaoImpl(entityManagerFactory);
     }
@@ -102,4 +113,145 @@ class PhotoDaoTest {
             assertThat(managedPhoto.getComments()).extracting("text").contains("Nice picture!");
         });
     }
+
+    @Test
+    @Order(6)
+    @DisplayName("Find a photo by id with comments in a single query")
+    void findPhotoByIdWithComments() {
+        Photo photo = saveRandomPhotosWithComments(1, 3).get(0);
+        Statistics statistics = getStatistics();
+
+        Photo foundPhoto = photoDao.findByIdWithComments(photo.getId());
+
+        assertThat(foundPhoto).isEqualTo(photo);
+        assertThat(Hibernate.isInitialized(foundPhoto.getComments())).isTrue();
+        assertThat(foundPhoto.getComments()).hasSize(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("Find all photos with comments in a single query")
+    void findAllPhotosWithComments() {
+        List<Photo> photos = saveRandomPhotosWithComments(5, 3);
+        Photo photoWithoutComments = createRandomPhoto();
+        emUtil.performWithinTx(entityManager -> entityManager.persist(photoWithoutComments));
+        photos.add(photoWithoutComments);
+        Statistics statistics = getStatistics();
+
+        List<Photo> foundPhotos = photoDao.findAllWithComments();
+
+        assertThat(foundPhotos).containsExactlyInAnyOrderElementsOf(photos);
+        assertThat(foundPhotos).allMatch(photo -> Hibernate.isInitialized(photo.getComments()));
+        assertThat(foundPhotos).extracting(photo -> photo.getComments().size())
+                .containsExactlyInAnyOrder(3, 3, 3, 3, 3, 0);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("Find a page of photos with comments in two queries per page")
+    void findPageOfPhotosWithComments() {
+        List<Photo> photos = saveRandomPhotosWithComments(7, 2);
+        photos.sort(Comparator.comparing(Photo::getId));
+        Statistics statistics = getStatistics();
+
+        KeysetPage<Photo> firstPage = photoDao.findAllWithComments(null, 3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        statistics.clear();
+        KeysetPage<Photo> secondPage = photoDao.findAllWithComments(firstPage.getNextPageToken(), 3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        statistics.clear();
+        KeysetPage<Photo> lastPage = photoDao.findAllWithComments(secondPage.getNextPageToken(), 3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        assertThat(firstPage.getContent()).containsExactlyElementsOf(photos.subList(0, 3));
+        assertThat(secondPage.getContent()).containsExactlyElementsOf(photos.subList(3, 6));
+        assertThat(lastPage.getContent()).containsExactlyElementsOf(photos.subList(6, 7));
+        assertThat(lastPage.hasNext()).isFalse();
+        assertThat(Stream.of(firstPage, secondPage, lastPage).flatMap(page -> page.getContent().stream()))
+                .allMatch(photo -> photo.getComments().size() == 2);
+    }
+
+    @Test
+    @Order(9)
+    @DisplayName("Add photo comments")
+    void addPhotoComments() {
+        Photo photo = createRandomPhoto();
+        emUtil.performWithinTx(entityManager -> entityManager.persist(photo));
+
+        photoDao.addComments(photo.getId(), List.of("Nice picture!", "Great shot!", "Wow"));
+
+        emUtil.performWithinTx(entityManager -> {
+            Photo managedPhoto = entityManager.find(Photo.class, photo.getId());
+            assertThat(managedPhoto.getComments()).extracting("text")
+                    .containsExactlyInAnyOrder("Nice picture!", "Great shot!", "Wow");
+        });
+    }
+
+    @Test
+    @Order(10)
+    @DisplayName("Add photo comments sends inserts in JDBC batches without loading the photo")
+    void addPhotoCommentsUsesJdbcBatching() {
+        EntityManagerFactory batchedEmf = Persistence.createEntityManagerFactory("PhotoCommentsBatched",
+                Map.of("hibernate.generate_statistics", "true"));
+        try {
+            Photo photo = createRandomPhoto();
+            new EntityManagerUtil(batchedEmf).performWithinTx(entityManager -> entityManager.persist(photo));
+            List<String> comments = Stream.generate(() -> "Nice picture!").limit(25).toList();
+            Statistics statistics = batchedEmf.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            new PhotoDaoImpl(batchedEmf, 10).addComments(photo.getId(), comments);
+
+            assertThat(statistics.getEntityInsertCount()).isEqualTo(25);
+            assertThat(statistics.getEntityLoadCount()).isZero();
+            // the pooled optimizer calls the sequence twice to get its first block of 50 ids, and every flushed chunk
+            // of 10 comments is sent as one JDBC batch: 2 sequence calls and 3 insert statements for 25 comments
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(2 + 3);
+        } finally {
+            batchedEmf.close();
+        }
+    }
+
+    @Test
+    @Order(11)
+    @DisplayName("Find photo comments slice by slice without loading all of them")
+    void findPhotoComments() {
+        List<Photo> photos = saveRandomPhotosWithComments(2, 7);
+        long photoId = photos.get(0).getId();
+        List<Long> commentIds = emUtil.performReturningWithinTx(entityManager -> entityManager
+                .createQuery("select c.id from PhotoComment c where c.photo.id = :photoId order by c.id", Long.class)
+                .setParameter("photoId", photoId)
+                .getResultList());
+        Statistics statistics = getStatistics();
+
+        List<PhotoComment> firstSlice = photoDao.findComments(photoId, null, 3);
+        List<PhotoComment> secondSlice = photoDao.findComments(photoId, firstSlice.get(2).getId(), 3);
+        List<PhotoComment> lastSlice = photoDao.findComments(photoId, secondSlice.get(2).getId(), 3);
+
+        assertThat(firstSlice).extracting(PhotoComment::getId).containsExactlyElementsOf(commentIds.subList(0, 3));
+        assertThat(secondSlice).extracting(PhotoComment::getId).containsExactlyElementsOf(commentIds.subList(3, 6));
+        assertThat(lastSlice).extracting(PhotoComment::getId).containsExactlyElementsOf(commentIds.subList(6, 7));
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(commentIds.size());
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    private List<Photo> saveRandomPhotosWithComments(int photoCount, int commentsPerPhoto) {
+        List<Photo> photos = new ArrayList<>(createListOfRandomPhotos(photoCount));
+        emUtil.performWithinTx(entityManager -> photos.forEach(photo -> {
+            entityManager.persist(photo);
+            for (PhotoComment comment : createListOfRandomComments(commentsPerPhoto)) {
+                comment.setPhoto(photo);
+                entityManager.persist(comment);
+            }
+        }));
+        return photos;
+    }
+
+    private Statistics getStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
 }
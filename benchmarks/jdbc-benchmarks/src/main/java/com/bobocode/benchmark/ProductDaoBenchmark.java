@@ -0,0 +1,144 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.ProductDao;
+import com.bobocode.dao.ProductDaoImpl;
+import com.bobocode.model.Product;
+import com.bobocode.util.JdbcUtil;
+import com.bobocode.util.SqlScriptReader;
+import org.openjdk.jmh.annotations.*;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures {@link ProductDaoImpl} against in-memory H2. The table is filled with {@code rowCount} products
+ * before each trial, so reads are measured on both small and large tables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductDaoBenchmark {
+    private static final int SAVE_ALL_SIZE = 100;
+
+    @Param({"100", "10000"})
+    private int rowCount;
+
+    private DataSource dataSource;
+    private ProductDao productDao;
+    private long[] productIds;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        dataSource = JdbcUtil.createDefaultInMemoryH2DataSource();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             SqlScriptReader scriptReader = SqlScriptReader.fromResources("db/products.sql")) {
+            String sql;
+            while ((sql = scriptReader.nextStatement()) != null) {
+                statement.execute(sql);
+            }
+            statement.execute("TRUNCATE TABLE products");
+        }
+        productIds = insertProducts(rowCount);
+        productDao = new ProductDaoImpl(dataSource);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE products");
+        }
+    }
+
+    @Benchmark
+    public Product save() {
+        Product product = newProduct();
+        productDao.save(product);
+        return product;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAVE_ALL_SIZE)
+    public List<Product> saveAll() {
+        List<Product> products = Stream.generate(ProductDaoBenchmark::newProduct).limit(SAVE_ALL_SIZE).toList();
+        productDao.saveAll(products);
+        return products;
+    }
+
+    @Benchmark
+    public Product findOne() {
+        return productDao.findOne(randomProductId());
+    }
+
+    @Benchmark
+    public List<Product> findAll() {
+        return productDao.findAll();
+    }
+
+    @Benchmark
+    public long streamAll() {
+        try (Stream<Product> products = productDao.streamAll()) {
+            return products.count();
+        }
+    }
+
+    @Benchmark
+    public void update() {
+        Product product = newProduct();
+        product.setId(randomProductId());
+        productDao.update(product);
+    }
+
+    private long randomProductId() {
+        return productIds[ThreadLocalRandom.current().nextInt(productIds.length)];
+    }
+
+    private long[] insertProducts(int count) throws SQLException {
+        long[] ids = new long[count];
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insertStatement = connection.prepareStatement(
+                     "INSERT INTO products(name, producer, price, expiration_date) VALUES (?, ?, ?, ?)",
+                     Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < count; i++) {
+                Product product = newProduct();
+                insertStatement.setString(1, product.getName());
+                insertStatement.setString(2, product.getProducer());
+                insertStatement.setBigDecimal(3, product.getPrice());
+                insertStatement.setDate(4, Date.valueOf(product.getExpirationDate()));
+                insertStatement.addBatch();
+            }
+            insertStatement.executeBatch();
+            try (ResultSet generatedKeys = insertStatement.getGeneratedKeys()) {
+                for (int i = 0; generatedKeys.next(); i++) {
+                    ids[i] = generatedKeys.getLong(1);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static Product newProduct() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Product.builder()
+                .name("Product " + random.nextInt(1_000_000))
+                .producer("Producer " + random.nextInt(1_000))
+                .price(BigDecimal.valueOf(random.nextInt(1, 10_000), 2))
+                .expirationDate(LocalDate.now().plusDays(random.nextInt(365)))
+                .build();
+    }
+}
@@ -0,0 +1,141 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.model.Product;
+import com.bobocode.util.CompiledRowMapper;
+import com.bobocode.util.JdbcUtil;
+import com.bobocode.util.RowMapper;
+import com.bobocode.util.SqlScriptReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of mapping {@code products} rows to {@link Product}. Every benchmark runs the same query, so
+ * {@link #readRowsOnly(Blackhole)} is a baseline of the query itself. {@link #mapByColumnNames(Blackhole)} maps rows
+ * the same way as the DAO tests do: it looks up columns by name, and strips trailing zeros of each price.
+ * {@link #mapByColumnIndexes(Blackhole)} is hand-written code that reads columns by index, so the difference between
+ * it and {@link #mapWithCompiledMapper(Blackhole)} is the overhead of the compiled mapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductRowMapperBenchmark {
+    private static final String SELECT_ALL_SQL = "SELECT * FROM products";
+
+    @Param({"1000"})
+    private int rowCount;
+
+    private DataSource dataSource;
+    private Connection connection;
+    private PreparedStatement selectStatement;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        dataSource = JdbcUtil.createDefaultInMemoryH2DataSource();
+        connection = dataSource.getConnection();
+        try (Statement statement = connection.createStatement();
+             SqlScriptReader scriptReader = SqlScriptReader.fromResources("db/products.sql")) {
+            String sql;
+            while ((sql = scriptReader.nextStatement()) != null) {
+                statement.execute(sql);
+            }
+            statement.execute("TRUNCATE TABLE products");
+        }
+        try (PreparedStatement insertStatement = connection.prepareStatement(
+                "INSERT INTO products(name, producer, price, expiration_date) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < rowCount; i++) {
+                insertStatement.setString(1, "Product " + i);
+                insertStatement.setString(2, "Producer " + i % 100);
+                insertStatement.setBigDecimal(3, BigDecimal.valueOf(i, 2));
+                insertStatement.setObject(4, LocalDate.now().plusDays(i % 365));
+                insertStatement.addBatch();
+            }
+            insertStatement.executeBatch();
+        }
+        selectStatement = connection.prepareStatement(SELECT_ALL_SQL);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        selectStatement.close();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE products");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void readRowsOnly(Blackhole blackhole) throws SQLException {
+        try (ResultSet resultSet = selectStatement.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet);
+            }
+        }
+    }
+
+    @Benchmark
+    public void mapByColumnNames(Blackhole blackhole) throws SQLException {
+        try (ResultSet resultSet = selectStatement.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(mapByColumnNames(resultSet));
+            }
+        }
+    }
+
+    @Benchmark
+    public void mapByColumnIndexes(Blackhole blackhole) throws SQLException {
+        try (ResultSet resultSet = selectStatement.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(mapByColumnIndexes(resultSet));
+            }
+        }
+    }
+
+    @Benchmark
+    public void mapWithCompiledMapper(Blackhole blackhole) throws SQLException {
+        RowMapper<Product> productMapper = CompiledRowMapper.of(Product.class);
+        try (ResultSet resultSet = selectStatement.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(productMapper.mapRow(resultSet));
+            }
+        }
+    }
+
+    private static Product mapByColumnNames(ResultSet resultSet) throws SQLException {
+        Product product = new Product();
+        product.setId(resultSet.getLong("id"));
+        product.setName(resultSet.getString("name"));
+        product.setProducer(resultSet.getString("producer"));
+        product.setPrice(resultSet.getBigDecimal("price").stripTrailingZeros());
+        product.setExpirationDate(resultSet.getDate("expiration_date").toLocalDate());
+        product.setCreationTime(resultSet.getTimestamp("creation_time").toLocalDateTime());
+        return product;
+    }
+
+    /**
+     * Hand-written mapping that reads the columns the same way as {@link CompiledRowMapper}
+     */
+    private static Product mapByColumnIndexes(ResultSet resultSet) throws SQLException {
+        Product product = new Product();
+        product.setId(resultSet.getLong(1));
+        product.setName(resultSet.getString(2));
+        product.setProducer(resultSet.getString(3));
+        product.setPrice(resultSet.getBigDecimal(4));
+        product.setExpirationDate(resultSet.getDate(5).toLocalDate());
+        product.setCreationTime(resultSet.getObject(6, LocalDateTime.class));
+        return product;
+    }
+}
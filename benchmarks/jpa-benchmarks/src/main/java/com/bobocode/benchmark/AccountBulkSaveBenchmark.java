@@ -0,0 +1,62 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.AccountDao;
+import com.bobocode.dao.AccountDaoImpl;
+import com.bobocode.model.Account;
+import org.openjdk.jmh.annotations.*;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares saving accounts one by one with {@link AccountDao#saveAll(java.util.Collection)}. The
+ * "SingleAccountEntityH2" unit generates ids with IDENTITY, which does not allow Hibernate to batch inserts, while
+ * "SingleAccountEntityH2Batched" uses a pooled sequence and JDBC batching.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountBulkSaveBenchmark {
+    @Param({"SingleAccountEntityH2", "SingleAccountEntityH2Batched"})
+    private String persistenceUnit;
+
+    @Param({"1000"})
+    private int accountCount;
+
+    private EntityManagerFactory emf;
+    private AccountDao accountDao;
+    private List<Account> accounts;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        emf = JpaBenchmarkUtil.createEntityManagerFactory(persistenceUnit);
+        accountDao = new AccountDaoImpl(emf);
+    }
+
+    @Setup(Level.Invocation)
+    public void generateAccounts() {
+        accounts = Stream.generate(JpaBenchmarkUtil::newAccount).limit(accountCount).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        emf.close();
+    }
+
+    @Benchmark
+    public List<Account> saveOneByOne() {
+        accounts.forEach(accountDao::save);
+        return accounts;
+    }
+
+    @Benchmark
+    public List<Account> saveAll() {
+        accountDao.saveAll(accounts);
+        return accounts;
+    }
+}
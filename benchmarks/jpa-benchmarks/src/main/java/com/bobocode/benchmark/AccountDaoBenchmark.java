@@ -0,0 +1,86 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.AccountDao;
+import com.bobocode.dao.AccountDaoImpl;
+import com.bobocode.model.Account;
+import com.bobocode.util.EntityManagerUtil;
+import com.bobocode.util.KeysetPage;
+import org.openjdk.jmh.annotations.*;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures {@link AccountDaoImpl} against in-memory H2 with {@code rowCount} stored accounts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountDaoBenchmark {
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"100", "10000"})
+    private int rowCount;
+
+    private EntityManagerFactory emf;
+    private AccountDao accountDao;
+    private List<Account> accounts;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        emf = JpaBenchmarkUtil.createEntityManagerFactory("SingleAccountEntityH2");
+        accounts = Stream.generate(JpaBenchmarkUtil::newAccount).limit(rowCount).toList();
+        new EntityManagerUtil(emf).performWithinTx(entityManager -> accounts.forEach(entityManager::persist));
+        accountDao = new AccountDaoImpl(emf);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        emf.close();
+    }
+
+    @Benchmark
+    public Account save() {
+        Account account = JpaBenchmarkUtil.newAccount();
+        accountDao.save(account);
+        return account;
+    }
+
+    @Benchmark
+    public Account findById() {
+        return accountDao.findById(randomAccount().getId());
+    }
+
+    @Benchmark
+    public Account findByEmail() {
+        return accountDao.findByEmail(randomAccount().getEmail());
+    }
+
+    @Benchmark
+    public List<Account> findAll() {
+        return accountDao.findAll();
+    }
+
+    @Benchmark
+    public KeysetPage<Account> findPage() {
+        return accountDao.findAll(KeysetPage.encodeToken(randomAccount().getId()), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public void update() {
+        Account account = randomAccount();
+        account.setBalance(account.getBalance().add(BigDecimal.ONE));
+        accountDao.update(account);
+    }
+
+    private Account randomAccount() {
+        return accounts.get(ThreadLocalRandom.current().nextInt(accounts.size()));
+    }
+}
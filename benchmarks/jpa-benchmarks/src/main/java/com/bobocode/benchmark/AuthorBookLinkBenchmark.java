@@ -0,0 +1,94 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.model.AssignedIdAuthor;
+import com.bobocode.model.Author;
+import com.bobocode.model.Book;
+import com.bobocode.model.IsbnBook;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link Author}, which has a constant hashCode(), with {@link AssignedIdAuthor}, which is hashed by its
+ * assigned id. It does not use a database: it measures linking and unlinking a book to an author with
+ * {@code bookCount} books, and looking up an author in a set of {@code bookCount} authors. Books are hashed by ISBN
+ * in both mappings, so linking costs the same, while a set of {@link Author} scans all its elements on lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorBookLinkBenchmark {
+    @Param({"50000"})
+    private int bookCount;
+
+    private Author author;
+    private Book book;
+    private Set<Author> authors;
+    private Author absentAuthor;
+
+    private AssignedIdAuthor assignedIdAuthor;
+    private IsbnBook isbnBook;
+    private Set<AssignedIdAuthor> assignedIdAuthors;
+    private AssignedIdAuthor absentAssignedIdAuthor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        author = newAuthor();
+        assignedIdAuthor = new AssignedIdAuthor("First", "Last");
+        authors = new HashSet<>();
+        assignedIdAuthors = new HashSet<>();
+        for (int i = 0; i < bookCount; i++) {
+            author.addBook(newBook("isbn-" + i));
+            assignedIdAuthor.addBook(new IsbnBook("isbn-" + i, "Book " + i));
+            authors.add(newAuthor());
+            assignedIdAuthors.add(new AssignedIdAuthor("First", "Last"));
+        }
+        book = newBook("linked-isbn");
+        isbnBook = new IsbnBook("linked-isbn", "Linked book");
+        absentAuthor = newAuthor();
+        absentAssignedIdAuthor = new AssignedIdAuthor("First", "Last");
+    }
+
+    @Benchmark
+    public int linkUnlinkBookOfConstantHashCodeAuthor() {
+        author.addBook(book);
+        author.removeBook(book);
+        return author.getBooks().size();
+    }
+
+    @Benchmark
+    public int linkUnlinkBookOfAssignedIdAuthor() {
+        assignedIdAuthor.addBook(isbnBook);
+        assignedIdAuthor.removeBook(isbnBook);
+        return assignedIdAuthor.getBooks().size();
+    }
+
+    @Benchmark
+    public boolean findConstantHashCodeAuthorInSet() {
+        return authors.contains(absentAuthor);
+    }
+
+    @Benchmark
+    public boolean findAssignedIdAuthorInSet() {
+        return assignedIdAuthors.contains(absentAssignedIdAuthor);
+    }
+
+    private static Author newAuthor() {
+        Author author = new Author();
+        author.setFirstName("First");
+        author.setLastName("Last");
+        return author;
+    }
+
+    private static Book newBook(String isbn) {
+        Book book = new Book();
+        book.setIsbn(isbn);
+        book.setName("Book " + isbn);
+        return book;
+    }
+}
@@ -0,0 +1,58 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.CompanyDao;
+import com.bobocode.dao.CompanyDaoImpl;
+import com.bobocode.model.Company;
+import com.bobocode.model.Product;
+import com.bobocode.util.EntityManagerUtil;
+import org.openjdk.jmh.annotations.*;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link CompanyDao#findByIdFetchProducts(Long)} for a company with {@code productCount} products.
+ * The products are accessed after the entity manager is closed, so the benchmark fails if they are not fetched.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompanyDaoBenchmark {
+    @Param({"10", "1000"})
+    private int productCount;
+
+    private EntityManagerFactory emf;
+    private CompanyDao companyDao;
+    private long companyId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        emf = JpaBenchmarkUtil.createEntityManagerFactory("CompanyProducts");
+        companyDao = new CompanyDaoImpl(emf);
+        Company company = new Company();
+        company.setName("Benchmark company");
+        new EntityManagerUtil(emf).performWithinTx(entityManager -> {
+            entityManager.persist(company);
+            for (int i = 0; i < productCount; i++) {
+                Product product = new Product();
+                product.setName("Product " + i);
+                product.setCompany(company);
+                entityManager.persist(product);
+            }
+        });
+        companyId = company.getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        emf.close();
+    }
+
+    @Benchmark
+    public int findByIdFetchProducts() {
+        return companyDao.findByIdFetchProducts(companyId).getProducts().size();
+    }
+}
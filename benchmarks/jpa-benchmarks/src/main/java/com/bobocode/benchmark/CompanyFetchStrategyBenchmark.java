@@ -0,0 +1,76 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.CompanyDao;
+import com.bobocode.dao.CompanyDao.FetchStrategy;
+import com.bobocode.dao.CompanyDaoImpl;
+import com.bobocode.model.Company;
+import com.bobocode.model.Product;
+import com.bobocode.util.EntityManagerUtil;
+import org.openjdk.jmh.annotations.*;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link CompanyDao#findAllByIdsFetchProducts(List, FetchStrategy)} for {@code companyCount} companies
+ * with {@code productsPerCompany} products each, using every {@link FetchStrategy}. The products are accessed after
+ * the entity manager is closed, so the benchmark fails if they are not fetched.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompanyFetchStrategyBenchmark {
+    @Param({"100"})
+    private int companyCount;
+
+    @Param({"10"})
+    private int productsPerCompany;
+
+    @Param
+    private FetchStrategy strategy;
+
+    private EntityManagerFactory emf;
+    private CompanyDao companyDao;
+    private List<Long> companyIds;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        emf = JpaBenchmarkUtil.createEntityManagerFactory("CompanyProducts");
+        companyDao = new CompanyDaoImpl(emf);
+        List<Company> companies = new ArrayList<>();
+        new EntityManagerUtil(emf).performWithinTx(entityManager -> {
+            for (int i = 0; i < companyCount; i++) {
+                Company company = new Company();
+                company.setName("Company " + i);
+                entityManager.persist(company);
+                companies.add(company);
+                for (int j = 0; j < productsPerCompany; j++) {
+                    Product product = new Product();
+                    product.setName("Product " + j);
+                    product.setCompany(company);
+                    entityManager.persist(product);
+                }
+            }
+        });
+        companyIds = companies.stream().map(Company::getId).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        emf.close();
+    }
+
+    @Benchmark
+    public int findAllByIdsFetchProducts() {
+        int productCount = 0;
+        for (Company company : companyDao.findAllByIdsFetchProducts(companyIds, strategy)) {
+            productCount += company.getProducts().size();
+        }
+        return productCount;
+    }
+}
@@ -0,0 +1,46 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.model.Account;
+import com.bobocode.model.Gender;
+import com.bobocode.util.JdbcUtil;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link JpaBenchmarkUtil} creates the persistence units of the exercises on top of
+ * {@link JdbcUtil#createDefaultInMemoryH2DataSource()}, so all benchmarks use the same in-memory database setup.
+ */
+public class JpaBenchmarkUtil {
+    private static final AtomicLong ACCOUNT_COUNTER = new AtomicLong();
+
+    public static EntityManagerFactory createEntityManagerFactory(String persistenceUnitName) {
+        return Persistence.createEntityManagerFactory(persistenceUnitName, Map.of(
+                "jakarta.persistence.nonJtaDataSource", JdbcUtil.createDefaultInMemoryH2DataSource(),
+                "hibernate.show_sql", "false",
+                "hibernate.format_sql", "false",
+                "hibernate.generate_statistics", "false"));
+    }
+
+    /**
+     * Creates a new account with a unique email. Unlike {@link com.bobocode.util.TestDataGenerator}, it does not
+     * generate random person data, which would take more time than the operations that are measured.
+     */
+    public static Account newAccount() {
+        long number = ACCOUNT_COUNTER.incrementAndGet();
+        Account account = new Account();
+        account.setFirstName("First" + number);
+        account.setLastName("Last" + number);
+        account.setEmail("account" + number + "@bobocode.com");
+        account.setBirthday(LocalDate.of(1990, 1, 1).plusDays(number % 10_000));
+        account.setGender(number % 2 == 0 ? Gender.MALE : Gender.FEMALE);
+        account.setCreationTime(LocalDateTime.now());
+        account.setBalance(BigDecimal.valueOf(number % 100_000, 2));
+        return account;
+    }
+}
@@ -0,0 +1,61 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.PhotoDao;
+import com.bobocode.dao.PhotoDaoImpl;
+import com.bobocode.model.Photo;
+import org.openjdk.jmh.annotations.*;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compares adding {@code commentCount} comments to a photo one by one with {@link PhotoDao#addComment(long, String)}
+ * and all together with {@link PhotoDao#addComments(long, List)}. The "PhotoCommentsBatched" unit generates comment
+ * ids with a pooled sequence, so the inserts of {@code addComments} are sent in JDBC batches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PhotoAddCommentsBenchmark {
+    @Param({"1", "100", "10000"})
+    private int commentCount;
+
+    private EntityManagerFactory emf;
+    private PhotoDao photoDao;
+    private long photoId;
+    private List<String> comments;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        emf = JpaBenchmarkUtil.createEntityManagerFactory("PhotoCommentsBatched");
+        photoDao = new PhotoDaoImpl(emf);
+        Photo photo = new Photo();
+        photo.setUrl("https://photos.bobocode.com/benchmark.jpg");
+        photo.setDescription("Benchmark photo");
+        photoDao.save(photo);
+        photoId = photo.getId();
+        comments = IntStream.range(0, commentCount).mapToObj(i -> "Comment " + i).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        emf.close();
+    }
+
+    @Benchmark
+    public void addCommentOneByOne() {
+        for (String comment : comments) {
+            photoDao.addComment(photoId, comment);
+        }
+    }
+
+    @Benchmark
+    public void addComments() {
+        photoDao.addComments(photoId, comments);
+    }
+}
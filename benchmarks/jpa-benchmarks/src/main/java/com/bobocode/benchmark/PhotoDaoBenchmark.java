@@ -0,0 +1,62 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.dao.PhotoDao;
+import com.bobocode.dao.PhotoDaoImpl;
+import com.bobocode.model.Photo;
+import com.bobocode.model.PhotoComment;
+import com.bobocode.util.EntityManagerUtil;
+import org.openjdk.jmh.annotations.*;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PhotoDao#addComment(long, String)} on a photo that already has {@code commentCount} comments.
+ * Adding a comment should not load the photo and its comments, so it should not depend on {@code commentCount}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PhotoDaoBenchmark {
+    @Param({"0", "10000"})
+    private int commentCount;
+
+    private EntityManagerFactory emf;
+    private PhotoDao photoDao;
+    private long photoId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        emf = JpaBenchmarkUtil.createEntityManagerFactory("PhotoComments");
+        photoDao = new PhotoDaoImpl(emf);
+        Photo photo = new Photo();
+        photo.setUrl("https://photos.bobocode.com/benchmark.jpg");
+        photo.setDescription("Benchmark photo");
+        photoDao.save(photo);
+        photoId = photo.getId();
+        new EntityManagerUtil(emf).performWithinTx(entityManager -> {
+            Photo photoReference = entityManager.getReference(Photo.class, photoId);
+            for (int i = 0; i < commentCount; i++) {
+                PhotoComment comment = new PhotoComment();
+                comment.setText("Comment " + i);
+                comment.setCreatedOn(LocalDateTime.now());
+                comment.setPhoto(photoReference);
+                entityManager.persist(comment);
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        emf.close();
+    }
+
+    @Benchmark
+    public void addComment() {
+        photoDao.addComment(photoId, "Nice photo!");
+    }
+}
@@ -0,0 +1,67 @@
+package com.bobocode.benchmark;
+
+import com.bobocode.QueryHelper;
+import com.bobocode.model.Account;
+import com.bobocode.util.EntityManagerUtil;
+import org.openjdk.jmh.annotations.*;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares loading {@code rowCount} accounts in a regular transaction with {@link QueryHelper#readWithinTx}, which
+ * does not keep entity snapshots and does not dirty check the loaded accounts. Run it with {@code -prof gc}
+ * to compare allocations as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryHelperBenchmark {
+    private static final String SELECT_ALL_ACCOUNTS = "select a from Account a";
+
+    @Param({"100000"})
+    private int rowCount;
+
+    private EntityManagerFactory emf;
+    private EntityManagerUtil emUtil;
+    private QueryHelper queryHelper;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        emf = JpaBenchmarkUtil.createEntityManagerFactory("Account");
+        emUtil = new EntityManagerUtil(emf);
+        queryHelper = new QueryHelper(emf);
+        List<Account> accounts = Stream.generate(JpaBenchmarkUtil::newAccount).limit(rowCount).toList();
+        emUtil.performWithinTx(entityManager -> {
+            for (int i = 0; i < accounts.size(); i++) {
+                entityManager.persist(accounts.get(i));
+                if ((i + 1) % 1000 == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        emf.close();
+    }
+
+    @Benchmark
+    public List<Account> readWithinRegularTx() {
+        return emUtil.performReturningWithinTx(entityManager ->
+                entityManager.createQuery(SELECT_ALL_ACCOUNTS, Account.class).getResultList());
+    }
+
+    @Benchmark
+    public List<Account> readWithinReadOnlyTx() {
+        return queryHelper.readWithinTx(entityManager ->
+                entityManager.createQuery(SELECT_ALL_ACCOUNTS, Account.class).getResultList());
+    }
+}
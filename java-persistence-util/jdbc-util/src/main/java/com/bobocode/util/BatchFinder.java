@@ -0,0 +1,152 @@
+package com.bobocode.util;
+
+import org.postgresql.PGConnection;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * {@link BatchFinder} loads rows by a large number of ids using as few statements as possible. Ids are passed
+ * as a primitive {@code long[]}, so they are never boxed. A copy of the ids is sorted and deduplicated, and the rows
+ * are returned ordered by id.
+ * <p>
+ * On PostgreSQL all ids are bound as a single {@code bigint[]} parameter of {@code id = ANY(?)}, so the statement has
+ * the same shape for any number of ids, and the server can reuse its plan. For other databases ids are split into
+ * chunks that fit into {@code IN (?, ?, ...)} clauses. The statement for a full chunk is prepared once and reused.
+ * <p>
+ * The finder does not manage transactions, it works on the connection provided by the caller.
+ *
+ * @param <T> row type
+ */
+public class BatchFinder<T> {
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private final String selectSql;
+    private final String idColumn;
+    private final RowMapper<T> rowMapper;
+    private final int chunkSize;
+
+    public BatchFinder(String selectSql, String idColumn, RowMapper<T> rowMapper) {
+        this(selectSql, idColumn, rowMapper, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param selectSql a query without a {@code WHERE} clause, e.g. {@code SELECT * FROM products}
+     * @param idColumn  a name of the identifier column
+     * @param rowMapper creates an object from a single row
+     * @param chunkSize max number of ids in an {@code IN} clause
+     */
+    public BatchFinder(String selectSql, String idColumn, RowMapper<T> rowMapper, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size should be positive");
+        }
+        this.selectSql = Objects.requireNonNull(selectSql);
+        this.idColumn = Objects.requireNonNull(idColumn);
+        this.rowMapper = Objects.requireNonNull(rowMapper);
+        this.chunkSize = Math.min(chunkSize, BatchInserter.MAX_PARAMETERS_PER_STATEMENT);
+    }
+
+    /**
+     * Finds the rows by ids. Duplicate ids are loaded once, and ids that are not found are skipped.
+     *
+     * @param connection a connection to use
+     * @param ids        ids of the rows, the array is not modified
+     * @return found rows ordered by id
+     * @throws SQLException in case of database errors
+     */
+    public List<T> findAllByIds(Connection connection, long[] ids) throws SQLException {
+        long[] distinctIds = sortedDistinct(ids);
+        if (distinctIds.length == 0) {
+            return new ArrayList<>();
+        }
+        if (supportsArrayParameter(connection)) {
+            return findUsingArrayParameter(connection, distinctIds);
+        }
+        return findUsingInClauses(connection, distinctIds);
+    }
+
+    private boolean supportsArrayParameter(Connection connection) throws SQLException {
+        return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())
+                && connection.isWrapperFor(PGConnection.class);
+    }
+
+    private List<T> findUsingArrayParameter(Connection connection, long[] ids) throws SQLException {
+        List<T> rows = new ArrayList<>(ids.length);
+        String sql = String.format("%s WHERE %s = ANY(?) ORDER BY %s", selectSql, idColumn, idColumn);
+        try (PreparedStatement selectStatement = connection.prepareStatement(sql)) {
+            // pgjdbc creates an array from long[] directly, without boxing every id
+            Array idArray = connection.unwrap(PGConnection.class).createArrayOf("int8", ids);
+            try {
+                selectStatement.setArray(1, idArray);
+                collectRows(selectStatement, rows);
+            } finally {
+                idArray.free();
+            }
+        }
+        return rows;
+    }
+
+    private List<T> findUsingInClauses(Connection connection, long[] ids) throws SQLException {
+        List<T> rows = new ArrayList<>(ids.length);
+        int fullChunks = ids.length / chunkSize;
+        if (fullChunks > 0) {
+            try (PreparedStatement fullChunkStatement = prepareInClauseStatement(connection, chunkSize)) {
+                for (int i = 0; i < fullChunks; i++) {
+                    findChunk(fullChunkStatement, ids, i * chunkSize, chunkSize, rows);
+                }
+            }
+        }
+        int remainingIds = ids.length % chunkSize;
+        if (remainingIds > 0) {
+            try (PreparedStatement remainderStatement = prepareInClauseStatement(connection, remainingIds)) {
+                findChunk(remainderStatement, ids, fullChunks * chunkSize, remainingIds, rows);
+            }
+        }
+        return rows;
+    }
+
+    private void findChunk(PreparedStatement selectStatement, long[] ids, int offset, int length,
+                           List<T> rows) throws SQLException {
+        for (int i = 0; i < length; i++) {
+            selectStatement.setLong(i + 1, ids[offset + i]);
+        }
+        collectRows(selectStatement, rows);
+    }
+
+    private void collectRows(PreparedStatement selectStatement, List<T> rows) throws SQLException {
+        try (ResultSet resultSet = selectStatement.executeQuery()) {
+            while (resultSet.next()) {
+                rows.add(rowMapper.mapRow(resultSet));
+            }
+        }
+    }
+
+    private PreparedStatement prepareInClauseStatement(Connection connection, int idCount) throws SQLException {
+        String parameters = String.join(", ", Collections.nCopies(idCount, "?"));
+        return connection.prepareStatement(String.format("%s WHERE %s IN (%s) ORDER BY %s",
+                selectSql, idColumn, parameters, idColumn));
+    }
+
+    /**
+     * Sorting makes chunks ordered by id, so the rows of all chunks are ordered too, and duplicates become adjacent
+     */
+    private static long[] sortedDistinct(long[] ids) {
+        long[] sortedIds = ids.clone();
+        Arrays.sort(sortedIds);
+        int distinctCount = 0;
+        for (int i = 0; i < sortedIds.length; i++) {
+            if (i == 0 || sortedIds[i] != sortedIds[distinctCount - 1]) {
+                sortedIds[distinctCount++] = sortedIds[i];
+            }
+        }
+        return Arrays.copyOf(sortedIds, distinctCount);
+    }
+}
@@ -0,0 +1,172 @@
+package com.bobocode.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.ObjLongConsumer;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * {@link BatchInserter} stores a collection of objects into a table using as few database round trips as possible,
+ * and passes a generated id of each row back to the caller.
+ * <p>
+ * On PostgreSQL and H2 it uses a multi-row insert, e.g. {@code INSERT INTO t(a, b) VALUES (?, ?), (?, ?), ...}, so
+ * the whole chunk of rows is sent and parsed as one statement. The statement for a full chunk is prepared once
+ * and reused. For other databases it falls back to regular JDBC batching.
+ * <p>
+ * The inserter does not manage transactions, it works on the connection provided by the caller.
+ *
+ * @param <T> row type
+ */
+public class BatchInserter<T> {
+    /**
+     * PostgreSQL protocol allows up to 65535 bind parameters per statement (the count is an unsigned Int16), but
+     * pgjdbc before 42.4 rejected more than 32767. It's a deliberate conservative cap that works with any driver
+     * version, while a statement of that size already amortizes the round trip.
+     */
+    static final int MAX_PARAMETERS_PER_STATEMENT = 32767;
+
+    private final String tableName;
+    private final List<String> columns;
+    private final String idColumn;
+    private final RowBinder<T> rowBinder;
+    private final int batchSize;
+
+    /**
+     * @param tableName a name of the table
+     * @param columns   inserted columns in the same order as they are bound by {@code rowBinder}
+     * @param idColumn  a name of the generated identifier column
+     * @param rowBinder binds a single row
+     * @param batchSize max number of rows sent to the database at once
+     */
+    public BatchInserter(String tableName, List<String> columns, String idColumn, RowBinder<T> rowBinder, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size should be positive");
+        }
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("At least one column should be inserted");
+        }
+        this.tableName = Objects.requireNonNull(tableName);
+        this.columns = List.copyOf(columns);
+        this.idColumn = Objects.requireNonNull(idColumn);
+        this.rowBinder = Objects.requireNonNull(rowBinder);
+        this.batchSize = Math.min(batchSize, MAX_PARAMETERS_PER_STATEMENT / this.columns.size());
+    }
+
+    /**
+     * Inserts all rows and passes the generated id of each row to the {@code idConsumer} in the same order as
+     * the rows are provided.
+     *
+     * @param connection a connection to use
+     * @param rows       rows to insert
+     * @param idConsumer receives a row and its generated id
+     * @throws SQLException in case of database errors
+     */
+    public void insertAll(Connection connection, Collection<T> rows, ObjLongConsumer<T> idConsumer) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        if (supportsMultiRowInsert(connection)) {
+            insertUsingMultiRowStatements(connection, rows, idConsumer);
+        } else {
+            insertUsingJdbcBatches(connection, rows, idConsumer);
+        }
+    }
+
+    private boolean supportsMultiRowInsert(Connection connection) throws SQLException {
+        String databaseProductName = connection.getMetaData().getDatabaseProductName();
+        return "PostgreSQL".equals(databaseProductName) || "H2".equals(databaseProductName);
+    }
+
+    private void insertUsingMultiRowStatements(Connection connection, Collection<T> rows,
+                                               ObjLongConsumer<T> idConsumer) throws SQLException {
+        Iterator<T> rowIterator = rows.iterator();
+        int fullChunks = rows.size() / batchSize;
+        if (fullChunks > 0) {
+            try (PreparedStatement fullChunkStatement = prepareInsertStatement(connection, batchSize)) {
+                for (int i = 0; i < fullChunks; i++) {
+                    insertChunk(fullChunkStatement, rowIterator, batchSize, idConsumer);
+                }
+            }
+        }
+        int remainingRows = rows.size() % batchSize;
+        if (remainingRows > 0) {
+            try (PreparedStatement remainderStatement = prepareInsertStatement(connection, remainingRows)) {
+                insertChunk(remainderStatement, rowIterator, remainingRows, idConsumer);
+            }
+        }
+    }
+
+    private void insertChunk(PreparedStatement insertStatement, Iterator<T> rowIterator, int chunkSize,
+                             ObjLongConsumer<T> idConsumer) throws SQLException {
+        List<T> chunk = new ArrayList<>(chunkSize);
+        for (int i = 0; i < chunkSize; i++) {
+            T row = rowIterator.next();
+            rowBinder.bind(insertStatement, i * columns.size(), row);
+            chunk.add(row);
+        }
+        insertStatement.executeUpdate();
+        passGeneratedIds(insertStatement, chunk, idConsumer);
+    }
+
+    private void insertUsingJdbcBatches(Connection connection, Collection<T> rows,
+                                        ObjLongConsumer<T> idConsumer) throws SQLException {
+        try (PreparedStatement insertStatement = prepareInsertStatement(connection, 1)) {
+            List<T> batch = new ArrayList<>(batchSize);
+            for (T row : rows) {
+                rowBinder.bind(insertStatement, 0, row);
+                insertStatement.addBatch();
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    executeBatch(insertStatement, batch, idConsumer);
+                }
+            }
+            if (!batch.isEmpty()) {
+                executeBatch(insertStatement, batch, idConsumer);
+            }
+        }
+    }
+
+    private void executeBatch(PreparedStatement insertStatement, List<T> batch,
+                              ObjLongConsumer<T> idConsumer) throws SQLException {
+        insertStatement.executeBatch();
+        passGeneratedIds(insertStatement, batch, idConsumer);
+        batch.clear();
+    }
+
+    private void passGeneratedIds(PreparedStatement insertStatement, List<T> insertedRows,
+                                  ObjLongConsumer<T> idConsumer) throws SQLException {
+        try (ResultSet generatedKeys = insertStatement.getGeneratedKeys()) {
+            for (T row : insertedRows) {
+                if (!generatedKeys.next()) {
+                    throw new SQLException(String.format("Cannot obtain generated %s for all inserted rows", idColumn));
+                }
+                idConsumer.accept(row, generatedKeys.getLong(1));
+            }
+        }
+    }
+
+    private PreparedStatement prepareInsertStatement(Connection connection, int rowCount) throws SQLException {
+        return connection.prepareStatement(buildInsertSql(rowCount), new String[]{idColumn});
+    }
+
+    private String buildInsertSql(int rowCount) {
+        String valuesRow = columns.stream().map(column -> "?").collect(joining(", ", "(", ")"));
+        StringBuilder sql = new StringBuilder("INSERT INTO ")
+                .append(tableName)
+                .append(columns.stream().collect(joining(", ", "(", ")")))
+                .append(" VALUES ")
+                .append(valuesRow);
+        for (int i = 1; i < rowCount; i++) {
+            sql.append(", ").append(valuesRow);
+        }
+        return sql.toString();
+    }
+}
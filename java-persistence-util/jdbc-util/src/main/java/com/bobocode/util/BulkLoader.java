@@ -0,0 +1,172 @@
+package com.bobocode.util;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * {@link BulkLoader} streams a large number of rows from an iterator into a table. Rows are never collected
+ * into memory, so the iterator can be backed by a file, a generator or another database.
+ * <p>
+ * On PostgreSQL it uses {@code COPY ... FROM STDIN} through the pgjdbc {@link org.postgresql.copy.CopyManager}, which
+ * skips statement parsing and planning per row and is much faster than batched inserts. Rows are sent either
+ * in the text format, or in the binary format that also skips parsing of values, but requires Java types to match
+ * column types exactly (see {@link Format#BINARY}). On other databases (e.g. H2) it falls back to JDBC batches
+ * of single-row inserts.
+ * <p>
+ * Unlike {@link BatchInserter}, it does not return generated ids. The loader does not manage transactions, it works
+ * on the connection provided by the caller.
+ *
+ * @param <T> row type
+ */
+public class BulkLoader<T> {
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * A format of the data sent to {@code COPY}
+     */
+    public enum Format {
+        /**
+         * Values are sent as text and parsed by the database, so any Java type that has a suitable
+         * {@code toString()} can be loaded into any column that accepts its text
+         */
+        TEXT,
+        /**
+         * Values are sent in the PostgreSQL binary representation. Each Java type is written as one column type:
+         * {@link Short} as {@code smallint}, {@link Integer} as {@code integer}, {@link Long} as {@code bigint},
+         * {@link Float} as {@code real}, {@link Double} as {@code double precision}, {@link Boolean} as
+         * {@code boolean}, {@link java.math.BigDecimal} as {@code numeric}, {@link String} and enums as
+         * {@code text}/{@code varchar}, {@code byte[]} as {@code bytea}, {@link java.util.UUID} as {@code uuid},
+         * {@link java.time.LocalDate} as {@code date}, {@link java.time.LocalDateTime} as {@code timestamp},
+         * {@link java.time.Instant} and {@link java.time.OffsetDateTime} as {@code timestamptz}
+         */
+        BINARY
+    }
+
+    private final String tableName;
+    private final List<String> columns;
+    private final Function<T, Object[]> rowValues;
+    private final Format format;
+    private final int batchSize;
+
+    public BulkLoader(String tableName, List<String> columns, Function<T, Object[]> rowValues) {
+        this(tableName, columns, rowValues, Format.TEXT, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param tableName a name of the table
+     * @param columns   loaded columns
+     * @param rowValues returns the values of a row in the same order as {@code columns}
+     * @param format    a format used for {@code COPY} on PostgreSQL
+     * @param batchSize number of rows in a JDBC batch when {@code COPY} is not supported
+     */
+    public BulkLoader(String tableName, List<String> columns, Function<T, Object[]> rowValues, Format format,
+                      int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size should be positive");
+        }
+        this.tableName = Objects.requireNonNull(tableName);
+        this.columns = List.copyOf(columns);
+        this.rowValues = Objects.requireNonNull(rowValues);
+        this.format = Objects.requireNonNull(format);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Loads all the rows provided by the iterator
+     *
+     * @param connection a connection to use
+     * @param rows       rows to load
+     * @return number of loaded rows
+     * @throws SQLException in case of database errors
+     */
+    public long load(Connection connection, Iterator<T> rows) throws SQLException {
+        if (supportsCopy(connection)) {
+            return loadUsingCopy(connection.unwrap(PGConnection.class), rows);
+        }
+        return loadUsingJdbcBatches(connection, rows);
+    }
+
+    private boolean supportsCopy(Connection connection) throws SQLException {
+        return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())
+                && connection.isWrapperFor(PGConnection.class);
+    }
+
+    private long loadUsingCopy(PGConnection connection, Iterator<T> rows) throws SQLException {
+        PGCopyOutputStream copyStream = new PGCopyOutputStream(connection, buildCopySql(), COPY_BUFFER_SIZE);
+        try {
+            DataOutputStream output = new DataOutputStream(copyStream);
+            CopyRowWriter rowWriter = format == Format.BINARY
+                    ? CopyRowWriter.binary(output, columns.size())
+                    : CopyRowWriter.text(output, columns.size());
+            rowWriter.writeHeader();
+            while (rows.hasNext()) {
+                rowWriter.writeRow(rowValues.apply(rows.next()));
+            }
+            rowWriter.writeTrailer();
+            output.flush();
+            return copyStream.endCopy();
+        } catch (IOException e) {
+            if (copyStream.isActive()) {
+                copyStream.cancelCopy();
+            }
+            // pgjdbc wraps database errors into IOException, since it's thrown from OutputStream methods
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new SQLException(String.format("Cannot copy rows into %s", tableName), e);
+        } catch (SQLException | RuntimeException e) {
+            if (copyStream.isActive()) {
+                copyStream.cancelCopy();
+            }
+            throw e;
+        }
+    }
+
+    private long loadUsingJdbcBatches(Connection connection, Iterator<T> rows) throws SQLException {
+        long rowCount = 0;
+        try (PreparedStatement insertStatement = connection.prepareStatement(buildInsertSql())) {
+            int batchRows = 0;
+            while (rows.hasNext()) {
+                Object[] values = rowValues.apply(rows.next());
+                for (int i = 0; i < columns.size(); i++) {
+                    insertStatement.setObject(i + 1, values[i]);
+                }
+                insertStatement.addBatch();
+                if (++batchRows == batchSize) {
+                    insertStatement.executeBatch();
+                    rowCount += batchRows;
+                    batchRows = 0;
+                }
+            }
+            if (batchRows > 0) {
+                insertStatement.executeBatch();
+                rowCount += batchRows;
+            }
+        }
+        return rowCount;
+    }
+
+    private String buildCopySql() {
+        return String.format("COPY %s%s FROM STDIN%s", tableName, columns.stream().collect(joining(", ", "(", ")")),
+                format == Format.BINARY ? " (FORMAT binary)" : "");
+    }
+
+    private String buildInsertSql() {
+        return String.format("INSERT INTO %s%s VALUES %s", tableName,
+                columns.stream().collect(joining(", ", "(", ")")),
+                columns.stream().map(column -> "?").collect(joining(", ", "(", ")")));
+    }
+}
@@ -0,0 +1,227 @@
+package com.bobocode.util;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * {@link CompiledRowMapper} maps rows to objects of a class with a no-arg constructor and setters, e.g.
+ * {@code expiration_date} column to {@code setExpirationDate(LocalDate)}. Column names are matched to properties
+ * ignoring case and underscores, columns without a property and properties without a column are skipped.
+ * <p>
+ * The constructor and the setters are compiled once per class into lambdas by {@link LambdaMetafactory}, so mapping
+ * a row does not use reflection, and the JIT compiler can inline the calls. Column indexes are resolved once per
+ * result set, so the columns are never looked up by name for each row.
+ * <pre>{@code
+ * RowMapper<Product> productMapper = CompiledRowMapper.of(Product.class);
+ * while (resultSet.next()) {
+ *     products.add(productMapper.mapRow(resultSet));
+ * }
+ * }</pre>
+ * A mapper is cheap to create, since the compiled class is cached. It always maps rows correctly, but it caches column
+ * indexes of one result set at a time. If threads share a mapper and read different result sets, they overwrite each
+ * other's cached indexes and resolve them again and again, so concurrent queries should use their own mappers.
+ *
+ * @param <T> row type
+ */
+public class CompiledRowMapper<T> implements RowMapper<T> {
+    private static final ClassValue<CompiledClass<?>> COMPILED_CLASSES = new ClassValue<>() {
+        @Override
+        protected CompiledClass<?> computeValue(Class<?> type) {
+            return compile(type);
+        }
+    };
+
+    private final CompiledClass<T> compiledClass;
+    private volatile ColumnIndexes columnIndexes;
+
+    private CompiledRowMapper(CompiledClass<T> compiledClass) {
+        this.compiledClass = compiledClass;
+    }
+
+    /**
+     * Creates a mapper of the class. The class is compiled on the first call.
+     *
+     * @param type a class with a no-arg constructor and setters
+     * @param <T>  row type
+     * @return a new mapper
+     * @throws IllegalArgumentException if the class cannot be compiled, e.g. it has no no-arg constructor
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CompiledRowMapper<T> of(Class<T> type) {
+        return new CompiledRowMapper<>((CompiledClass<T>) COMPILED_CLASSES.get(type));
+    }
+
+    @Override
+    public T mapRow(ResultSet resultSet) throws SQLException {
+        int[] indexes = resolveColumnIndexes(resultSet);
+        Property<T>[] properties = compiledClass.properties();
+        T row = compiledClass.constructor().get();
+        for (int i = 0; i < properties.length; i++) {
+            if (indexes[i] > 0) {
+                properties[i].setter().accept(row, properties[i].reader().read(resultSet, indexes[i]));
+            }
+        }
+        return row;
+    }
+
+    /**
+     * The result set is referenced weakly, so the mapper does not keep the rows of the last query in memory
+     */
+    private int[] resolveColumnIndexes(ResultSet resultSet) throws SQLException {
+        ColumnIndexes current = columnIndexes;
+        if (current != null && current.resultSet().get() == resultSet) {
+            return current.indexes();
+        }
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        Map<String, Integer> indexesByName = new HashMap<>();
+        for (int i = metaData.getColumnCount(); i > 0; i--) {
+            indexesByName.put(normalizeName(metaData.getColumnLabel(i)), i);
+        }
+        Property<T>[] properties = compiledClass.properties();
+        int[] indexes = new int[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            indexes[i] = indexesByName.getOrDefault(properties[i].name(), 0);
+        }
+        columnIndexes = new ColumnIndexes(new WeakReference<>(resultSet), indexes);
+        return indexes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> CompiledClass<T> compile(Class<T> type) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            MethodHandle constructorHandle = lookup.findConstructor(type, methodType(void.class));
+            Supplier<T> constructor = (Supplier<T>) LambdaMetafactory.metafactory(lookup, "get",
+                    methodType(Supplier.class), methodType(Object.class), constructorHandle, methodType(type)
+            ).getTarget().invoke();
+            Map<String, Property<T>> properties = new LinkedHashMap<>();
+            for (Method method : type.getMethods()) {
+                if (isSetter(method) && !properties.containsKey(propertyName(method))) {
+                    properties.put(propertyName(method), compileSetter(lookup, type, method));
+                }
+            }
+            return new CompiledClass<>(constructor, properties.values().toArray(Property[]::new));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(String.format("Class %s has no no-arg constructor", type.getName()), e);
+        } catch (Throwable e) {
+            throw new IllegalArgumentException(String.format("Cannot compile row mapper of %s", type.getName()), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Property<T> compileSetter(MethodHandles.Lookup lookup, Class<T> type, Method setter)
+            throws Throwable {
+        Class<?> valueType = setter.getParameterTypes()[0];
+        MethodHandle setterHandle = lookup.unreflect(setter);
+        BiConsumer<T, Object> setterLambda = (BiConsumer<T, Object>) LambdaMetafactory.metafactory(lookup, "accept",
+                methodType(BiConsumer.class), methodType(void.class, Object.class, Object.class), setterHandle,
+                methodType(void.class, type, methodType(valueType).wrap().returnType())
+        ).getTarget().invoke();
+        return new Property<>(propertyName(setter), setterLambda, readerOf(valueType));
+    }
+
+    private static boolean isSetter(Method method) {
+        return method.getName().length() > 3
+                && method.getName().startsWith("set")
+                && method.getParameterCount() == 1
+                && !Modifier.isStatic(method.getModifiers())
+                && !method.isBridge();
+    }
+
+    private static String propertyName(Method setter) {
+        return normalizeName(setter.getName().substring(3));
+    }
+
+    private static String normalizeName(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Primitive properties receive default values for SQL {@code NULL}, like {@link ResultSet#getLong(int)} returns
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ColumnReader readerOf(Class<?> type) {
+        if (type == String.class) {
+            return ResultSet::getString;
+        } else if (type == long.class) {
+            return ResultSet::getLong;
+        } else if (type == Long.class) {
+            return (resultSet, index) -> {
+                long value = resultSet.getLong(index);
+                return resultSet.wasNull() ? null : value;
+            };
+        } else if (type == int.class) {
+            return ResultSet::getInt;
+        } else if (type == Integer.class) {
+            return (resultSet, index) -> {
+                int value = resultSet.getInt(index);
+                return resultSet.wasNull() ? null : value;
+            };
+        } else if (type == double.class) {
+            return ResultSet::getDouble;
+        } else if (type == Double.class) {
+            return (resultSet, index) -> {
+                double value = resultSet.getDouble(index);
+                return resultSet.wasNull() ? null : value;
+            };
+        } else if (type == boolean.class) {
+            return ResultSet::getBoolean;
+        } else if (type == Boolean.class) {
+            return (resultSet, index) -> {
+                boolean value = resultSet.getBoolean(index);
+                return resultSet.wasNull() ? null : value;
+            };
+        } else if (type == BigDecimal.class) {
+            return ResultSet::getBigDecimal;
+        } else if (type == byte[].class) {
+            return ResultSet::getBytes;
+        } else if (type == LocalDate.class) {
+            return (resultSet, index) -> {
+                Date date = resultSet.getDate(index);
+                return date == null ? null : date.toLocalDate();
+            };
+        } else if (type == LocalDateTime.class) {
+            return (resultSet, index) -> resultSet.getObject(index, LocalDateTime.class);
+        } else if (type.isEnum()) {
+            return (resultSet, index) -> {
+                String name = resultSet.getString(index);
+                return name == null ? null : Enum.valueOf((Class<? extends Enum>) type, name);
+            };
+        }
+        Class<?> wrapperType = methodType(type).wrap().returnType();
+        return (resultSet, index) -> resultSet.getObject(index, wrapperType);
+    }
+
+    @FunctionalInterface
+    private interface ColumnReader {
+        Object read(ResultSet resultSet, int index) throws SQLException;
+    }
+
+    private record Property<T>(String name, BiConsumer<T, Object> setter, ColumnReader reader) {
+    }
+
+    private record CompiledClass<T>(Supplier<T> constructor, Property<T>[] properties) {
+    }
+
+    private record ColumnIndexes(WeakReference<ResultSet> resultSet, int[] indexes) {
+    }
+}
@@ -0,0 +1,209 @@
+package com.bobocode.util;
+
+import org.postgresql.util.ByteConverter;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * {@link CopyRowWriter} writes rows in one of the formats of PostgreSQL {@code COPY ... FROM STDIN}
+ *
+ * @see <a href="https://www.postgresql.org/docs/current/sql-copy.html#id-1.9.3.55.9">COPY file formats</a>
+ */
+abstract class CopyRowWriter {
+    protected final DataOutputStream output;
+    protected final int columnCount;
+
+    private CopyRowWriter(DataOutputStream output, int columnCount) {
+        this.output = output;
+        this.columnCount = columnCount;
+    }
+
+    static CopyRowWriter text(DataOutputStream output, int columnCount) {
+        return new TextRowWriter(output, columnCount);
+    }
+
+    static CopyRowWriter binary(DataOutputStream output, int columnCount) {
+        return new BinaryRowWriter(output, columnCount);
+    }
+
+    void writeHeader() throws IOException {
+    }
+
+    abstract void writeRow(Object[] values) throws IOException;
+
+    void writeTrailer() throws IOException {
+    }
+
+    void checkColumnCount(Object[] values) {
+        if (values.length != columnCount) {
+            throw new IllegalArgumentException(String.format("Expected %d values of a row, but got %d",
+                    columnCount, values.length));
+        }
+    }
+
+    /**
+     * Writes tab-separated values, one row per line. {@code null} is written as {@code \N}, and backslashes, tabs and
+     * line breaks inside values are escaped with a backslash.
+     */
+    private static class TextRowWriter extends CopyRowWriter {
+        private final StringBuilder line = new StringBuilder();
+
+        TextRowWriter(DataOutputStream output, int columnCount) {
+            super(output, columnCount);
+        }
+
+        @Override
+        void writeRow(Object[] values) throws IOException {
+            checkColumnCount(values);
+            line.setLength(0);
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    line.append('\t');
+                }
+                appendValue(values[i]);
+            }
+            line.append('\n');
+            output.write(line.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void appendValue(Object value) {
+            if (value == null) {
+                line.append("\\N");
+            } else if (value instanceof BigDecimal decimal) {
+                line.append(decimal.toPlainString());
+            } else if (value instanceof Boolean bool) {
+                line.append(bool ? 't' : 'f');
+            } else if (value instanceof byte[] bytes) {
+                line.append("\\\\x").append(HexFormat.of().formatHex(bytes));
+            } else {
+                appendEscaped(value.toString());
+            }
+        }
+
+        private void appendEscaped(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '\\' -> line.append("\\\\");
+                    case '\t' -> line.append("\\t");
+                    case '\n' -> line.append("\\n");
+                    case '\r' -> line.append("\\r");
+                    default -> line.append(c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes every value as its length followed by its binary representation. The length of {@code null} is
+     * {@code -1}. Dates and timestamps are counted from the PostgreSQL epoch {@code 2000-01-01}.
+     */
+    private static class BinaryRowWriter extends CopyRowWriter {
+        private static final byte[] SIGNATURE = "PGCOPY\n\377\r\n\0".getBytes(StandardCharsets.ISO_8859_1);
+        private static final LocalDate EPOCH_DATE = LocalDate.of(2000, 1, 1);
+        private static final LocalDateTime EPOCH_DATE_TIME = EPOCH_DATE.atStartOfDay();
+        private static final Instant EPOCH_INSTANT = EPOCH_DATE_TIME.toInstant(ZoneOffset.UTC);
+
+        BinaryRowWriter(DataOutputStream output, int columnCount) {
+            super(output, columnCount);
+        }
+
+        @Override
+        void writeHeader() throws IOException {
+            output.write(SIGNATURE);
+            output.writeInt(0); // flags
+            output.writeInt(0); // header extension length
+        }
+
+        @Override
+        void writeRow(Object[] values) throws IOException {
+            checkColumnCount(values);
+            output.writeShort(values.length);
+            for (Object value : values) {
+                writeValue(value);
+            }
+        }
+
+        @Override
+        void writeTrailer() throws IOException {
+            output.writeShort(-1);
+        }
+
+        private void writeValue(Object value) throws IOException {
+            switch (value) {
+                case null -> output.writeInt(-1);
+                case Short number -> {
+                    output.writeInt(Short.BYTES);
+                    output.writeShort(number);
+                }
+                case Integer number -> {
+                    output.writeInt(Integer.BYTES);
+                    output.writeInt(number);
+                }
+                case Long number -> {
+                    output.writeInt(Long.BYTES);
+                    output.writeLong(number);
+                }
+                case Float number -> {
+                    output.writeInt(Float.BYTES);
+                    output.writeFloat(number);
+                }
+                case Double number -> {
+                    output.writeInt(Double.BYTES);
+                    output.writeDouble(number);
+                }
+                case Boolean bool -> {
+                    output.writeInt(1);
+                    output.writeBoolean(bool);
+                }
+                case BigDecimal decimal -> writeBytes(ByteConverter.numeric(decimal));
+                case BigInteger integer -> writeBytes(ByteConverter.numeric(new BigDecimal(integer)));
+                case String text -> writeBytes(text.getBytes(StandardCharsets.UTF_8));
+                case Enum<?> constant -> writeBytes(constant.name().getBytes(StandardCharsets.UTF_8));
+                case byte[] bytes -> writeBytes(bytes);
+                case UUID uuid -> {
+                    output.writeInt(16);
+                    output.writeLong(uuid.getMostSignificantBits());
+                    output.writeLong(uuid.getLeastSignificantBits());
+                }
+                case LocalDate date -> writeDate(date);
+                case java.sql.Date date -> writeDate(date.toLocalDate());
+                case LocalDateTime dateTime -> writeTimestamp(ChronoUnit.MICROS.between(EPOCH_DATE_TIME, dateTime));
+                case java.sql.Timestamp timestamp ->
+                        writeTimestamp(ChronoUnit.MICROS.between(EPOCH_DATE_TIME, timestamp.toLocalDateTime()));
+                case Instant instant -> writeTimestamp(ChronoUnit.MICROS.between(EPOCH_INSTANT, instant));
+                case OffsetDateTime dateTime ->
+                        writeTimestamp(ChronoUnit.MICROS.between(EPOCH_INSTANT, dateTime.toInstant()));
+                default -> throw new IllegalArgumentException(String.format(
+                        "Type %s is not supported by binary COPY", value.getClass().getName()));
+            }
+        }
+
+        private void writeBytes(byte[] bytes) throws IOException {
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+
+        private void writeDate(LocalDate date) throws IOException {
+            output.writeInt(Integer.BYTES);
+            output.writeInt((int) ChronoUnit.DAYS.between(EPOCH_DATE, date));
+        }
+
+        private void writeTimestamp(long micros) throws IOException {
+            output.writeInt(Long.BYTES);
+            output.writeLong(micros);
+        }
+    }
+}
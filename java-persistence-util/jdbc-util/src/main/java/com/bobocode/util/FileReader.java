@@ -1,49 +1,42 @@
 package com.bobocode.util;
 
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.net.URISyntaxException;
-import java.net.URL;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
-import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.joining;
 
 /**
- * {@link FileReader} provides an API that allow to read whole file into a {@link String} by file name.
+ * {@link FileReader} provides an API that allow to read whole file into a {@link String} by file name. It is meant
+ * for small files, large SQL scripts should be read statement by statement with {@link SqlScriptReader}.
  */
 public class FileReader {
 
     /**
-     * Returns a {@link String} that contains whole text from the file specified by name.
+     * Returns a {@link String} that contains whole text from the file specified by name. The file can be located
+     * either in a directory or in a jar on the classpath.
      *
      * @param fileName a name of a text file
      * @return string that holds whole file content
      */
     public static String readWholeFileFromResources(String fileName) {
-        Path filePath = createPathFromFileName(fileName);
-        try (Stream<String> fileLinesStream = openFileLinesStream(filePath)) {
-            return fileLinesStream.collect(joining("\n"));
+        try (BufferedReader fileReader = openFileReader(fileName)) {
+            return fileReader.lines().collect(joining("\n"));
+        } catch (IOException | UncheckedIOException e) {
+            throw new FileReaderException("Cannot read file lines!", e);
         }
     }
 
-    private static Stream<String> openFileLinesStream(Path filePath) {
-        try {
-            return Files.lines(filePath);
-        } catch (IOException e) {
-            throw new FileReaderException("Cannot create stream of file lines!", e);
-        }
-    }
-
-    private static Path createPathFromFileName(String fileName) {
+    private static BufferedReader openFileReader(String fileName) {
         Objects.requireNonNull(fileName);
-        URL fileUrl = FileReader.class.getClassLoader().getResource(fileName);
-        try {
-            return Paths.get(fileUrl.toURI());
-        } catch (URISyntaxException e) {
-            throw new FileReaderException("Invalid file URL",e);
+        InputStream fileStream = FileReader.class.getClassLoader().getResourceAsStream(fileName);
+        if (fileStream == null) {
+            throw new FileReaderException(String.format("Cannot find file %s in resources", fileName));
         }
+        return new BufferedReader(new InputStreamReader(fileStream, StandardCharsets.UTF_8));
     }
 }
@@ -42,6 +42,22 @@ public class JdbcUtil {
         return dataSource;
     }
 
+    public static PooledDataSource createDefaultPooledInMemoryH2DataSource() {
+        return createPooledDataSource(createDefaultInMemoryH2DataSource());
+    }
+
+    public static PooledDataSource createDefaultPooledPostgresDataSource() {
+        return createPooledDataSource(createDefaultPostgresDataSource());
+    }
+
+    public static PooledDataSource createPooledDataSource(DataSource dataSource) {
+        return createPooledDataSource(dataSource, PoolConfig.builder().build());
+    }
+
+    public static PooledDataSource createPooledDataSource(DataSource dataSource, PoolConfig poolConfig) {
+        return new PooledDataSource(dataSource, poolConfig);
+    }
+
     private static String formatPostgresDbUrl(String databaseName) {
         return String.format("jdbc:postgresql://localhost:5432/%s", databaseName);
     }
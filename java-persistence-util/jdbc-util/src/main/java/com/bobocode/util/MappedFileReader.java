@@ -0,0 +1,114 @@
+package com.bobocode.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * {@link MappedFileReader} is a UTF-8 {@link Reader} of a file that is mapped into memory region by region. File bytes
+ * are decoded straight from the page cache, so reading a large file does not copy it into the heap.
+ */
+class MappedFileReader extends Reader {
+    static final long DEFAULT_REGION_SIZE = 64L * 1024 * 1024;
+    /**
+     * Max length of a UTF-8 encoded character. A region should fit at least one character, otherwise the decoder
+     * cannot make progress
+     */
+    static final int MIN_REGION_SIZE = 4;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final long regionSize;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+    private final char[] surrogatePair = new char[2];
+    private MappedByteBuffer region;
+    private long regionStart;
+    private boolean flushed;
+    private int pendingChar = -1;
+
+    MappedFileReader(Path path) throws IOException {
+        this(path, DEFAULT_REGION_SIZE);
+    }
+
+    MappedFileReader(Path path, long regionSize) throws IOException {
+        if (regionSize < MIN_REGION_SIZE) {
+            throw new IllegalArgumentException("Region size should be at least " + MIN_REGION_SIZE + " bytes");
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.regionSize = regionSize;
+        mapRegion(0);
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (pendingChar != -1) {
+            buffer[offset] = (char) pendingChar;
+            pendingChar = -1;
+            return 1;
+        }
+        if (length == 1) {
+            return readSingleChar(buffer, offset);
+        }
+        CharBuffer target = CharBuffer.wrap(buffer, offset, length);
+        while (target.position() == offset) {
+            if (flushed) {
+                return -1;
+            }
+            boolean lastRegion = regionStart + region.limit() == fileSize;
+            CoderResult result = decoder.decode(region, target, lastRegion);
+            if (result.isError()) {
+                result.throwException();
+            }
+            if (target.position() > offset) {
+                break;
+            }
+            if (!lastRegion) {
+                // a multibyte character can be split between two regions, so the next region starts at the first
+                // byte that was not decoded
+                mapRegion(regionStart + region.position());
+            } else {
+                decoder.flush(target);
+                flushed = true;
+            }
+        }
+        return target.position() - offset;
+    }
+
+    /**
+     * A character outside the BMP is decoded into a surrogate pair, which does not fit into a single-char buffer.
+     * The decoder would report an overflow without any progress, so up to two chars are decoded into a separate
+     * buffer, and the second one is returned by the next read.
+     */
+    private int readSingleChar(char[] buffer, int offset) throws IOException {
+        int read = read(surrogatePair, 0, 2);
+        if (read == -1) {
+            return -1;
+        }
+        buffer[offset] = surrogatePair[0];
+        if (read == 2) {
+            pendingChar = surrogatePair[1];
+        }
+        return 1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void mapRegion(long start) throws IOException {
+        regionStart = start;
+        region = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(regionSize, fileSize - start));
+    }
+}
@@ -0,0 +1,11 @@
+package com.bobocode.util;
+
+/**
+ * {@link MigrationException} is thrown by {@link MigrationRunner} when the applied migrations do not match the scripts,
+ * e.g. a script was changed after it had been applied.
+ */
+public class MigrationException extends RuntimeException {
+    public MigrationException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,242 @@
+package com.bobocode.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * {@link MigrationRunner} applies SQL scripts (migrations) to a database only once. Every applied script is recorded
+ * in a history table together with a checksum of its statements, and is skipped the next time. If a script was
+ * changed after it had been applied, {@link MigrationException} is thrown instead of applying it again.
+ * <p>
+ * Scripts are applied in the given order, each of them in one transaction together with its history record, so
+ * on databases with transactional DDL (e.g. PostgreSQL) a failed script is neither applied nor recorded. While pending
+ * scripts are applied, the runner holds a PostgreSQL advisory lock, so several nodes that start at the same time
+ * do not apply the same script twice. Other databases (e.g. in-memory H2 used in tests) are locked within the JVM.
+ * If all the scripts are already applied, the runner only reads the history table.
+ * <pre>{@code
+ * new MigrationRunner(dataSource).migrate("db/migration/V1__init.sql", "db/migration/V2__add_index.sql");
+ * }</pre>
+ */
+@Slf4j
+public class MigrationRunner {
+    public static final String DEFAULT_HISTORY_TABLE = "schema_history";
+    private static final Pattern TABLE_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+    private static final Map<String, ReentrantLock> LOCAL_LOCKS = new ConcurrentHashMap<>();
+
+    private final DataSource dataSource;
+    private final String historyTable;
+    private final SqlScriptRunner scriptRunner;
+
+    public MigrationRunner(DataSource dataSource) {
+        this(dataSource, DEFAULT_HISTORY_TABLE);
+    }
+
+    public MigrationRunner(DataSource dataSource, String historyTable) {
+        if (!TABLE_NAME.matcher(historyTable).matches()) {
+            throw new IllegalArgumentException(String.format("Invalid history table name: %s", historyTable));
+        }
+        this.dataSource = dataSource;
+        this.historyTable = historyTable;
+        this.scriptRunner = new SqlScriptRunner(dataSource);
+    }
+
+    /**
+     * Applies the scripts that are not applied yet
+     *
+     * @param fileNames names of scripts on the classpath in the order they should be applied
+     * @return number of applied scripts, zero if the database is up to date
+     * @throws SqlScriptException if a statement of a script fails
+     * @throws MigrationException if an applied script was changed
+     */
+    public int migrate(String... fileNames) throws SQLException {
+        long startNanos = System.nanoTime();
+        Map<String, Long> checksums = new LinkedHashMap<>();
+        for (String fileName : fileNames) {
+            checksums.put(fileName, checksum(fileName));
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            Map<String, Long> appliedChecksums = findAppliedChecksums(connection);
+            if (appliedChecksums != null && countPending(checksums, appliedChecksums) == 0) {
+                log.info("Database is up to date, {} scripts are already applied", checksums.size());
+                return 0;
+            }
+            try (MigrationLock ignored = lock(connection)) {
+                createHistoryTableIfNotExists(connection);
+                // another node could apply the scripts while this one was waiting for the lock
+                appliedChecksums = findAppliedChecksums(connection);
+                countPending(checksums, appliedChecksums);
+                int appliedCount = 0;
+                for (Map.Entry<String, Long> script : checksums.entrySet()) {
+                    if (!appliedChecksums.containsKey(script.getKey())) {
+                        apply(connection, script.getKey(), script.getValue());
+                        appliedCount++;
+                    }
+                }
+                log.info("Applied {} of {} scripts in {} ms", appliedCount, checksums.size(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+                return appliedCount;
+            }
+        }
+    }
+
+    /**
+     * @return number of scripts that are not applied yet
+     * @throws MigrationException if an applied script was changed
+     */
+    private static int countPending(Map<String, Long> checksums, Map<String, Long> appliedChecksums) {
+        int pendingCount = 0;
+        for (Map.Entry<String, Long> script : checksums.entrySet()) {
+            Long appliedChecksum = appliedChecksums.get(script.getKey());
+            if (appliedChecksum == null) {
+                pendingCount++;
+            } else if (!appliedChecksum.equals(script.getValue())) {
+                throw new MigrationException(String.format(
+                        "Script %s was changed after it had been applied (checksum %d, applied %d)",
+                        script.getKey(), script.getValue(), appliedChecksum));
+            }
+        }
+        return pendingCount;
+    }
+
+    private void apply(Connection connection, String fileName, long checksum) throws SQLException {
+        long startNanos = System.nanoTime();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (SqlScriptReader scriptReader = SqlScriptReader.fromResources(fileName)) {
+            int statementCount = scriptRunner.executeStatements(connection, fileName, scriptReader.scriptStatements());
+            long executionMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            try (PreparedStatement insertStatement = connection.prepareStatement(String.format(
+                    "INSERT INTO %s(script, checksum, execution_time_ms) VALUES (?, ?, ?)", historyTable))) {
+                insertStatement.setString(1, fileName);
+                insertStatement.setLong(2, checksum);
+                insertStatement.setLong(3, executionMillis);
+                insertStatement.executeUpdate();
+            }
+            connection.commit();
+            log.info("Applied {} ({} statements) in {} ms", fileName, statementCount, executionMillis);
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * @return checksums of applied scripts by script name, or {@code null} if the history table does not exist yet
+     */
+    private Map<String, Long> findAppliedChecksums(Connection connection) throws SQLException {
+        if (!historyTableExists(connection)) {
+            return null;
+        }
+        Map<String, Long> appliedChecksums = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     String.format("SELECT script, checksum FROM %s", historyTable))) {
+            while (resultSet.next()) {
+                appliedChecksums.put(resultSet.getString(1), resultSet.getLong(2));
+            }
+            return appliedChecksums;
+        }
+    }
+
+    /**
+     * Looks the history table up in the database metadata of the current schema. Querying a missing table instead
+     * would abort the transaction of the connection on PostgreSQL if auto-commit is off.
+     */
+    private boolean historyTableExists(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String tableName = historyTable;
+        if (metaData.storesUpperCaseIdentifiers()) {
+            tableName = tableName.toUpperCase(Locale.ROOT);
+        } else if (metaData.storesLowerCaseIdentifiers()) {
+            tableName = tableName.toLowerCase(Locale.ROOT);
+        }
+        String escape = metaData.getSearchStringEscape();
+        String tableNamePattern = tableName.replace("_", escape + "_");
+        try (ResultSet tables = metaData.getTables(connection.getCatalog(), connection.getSchema(), tableNamePattern,
+                new String[]{"TABLE"})) {
+            return tables.next();
+        }
+    }
+
+    private void createHistoryTableIfNotExists(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(String.format("""
+                    CREATE TABLE IF NOT EXISTS %s (
+                        script VARCHAR(255) PRIMARY KEY,
+                        checksum BIGINT NOT NULL,
+                        applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                        execution_time_ms BIGINT NOT NULL
+                    )""", historyTable));
+        }
+    }
+
+    /**
+     * Takes a session-level advisory lock on PostgreSQL. It survives the commits of applied scripts, and is released
+     * explicitly, or by the database if the connection is lost. Other databases are locked within the JVM only.
+     */
+    private MigrationLock lock(Connection connection) throws SQLException {
+        if ("PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+            long lockKey = checksumOf(historyTable);
+            try (PreparedStatement lockStatement = connection.prepareStatement("SELECT pg_advisory_lock(?)")) {
+                lockStatement.setLong(1, lockKey);
+                lockStatement.execute();
+            }
+            return () -> {
+                try (PreparedStatement unlockStatement = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+                    unlockStatement.setLong(1, lockKey);
+                    unlockStatement.execute();
+                }
+            };
+        }
+        ReentrantLock localLock = LOCAL_LOCKS.computeIfAbsent(
+                connection.getMetaData().getURL() + "/" + historyTable, key -> new ReentrantLock());
+        localLock.lock();
+        return localLock::unlock;
+    }
+
+    /**
+     * Computes a checksum of the script statements, so changes of comments and whitespace between statements
+     * do not make an applied script look changed
+     */
+    private static long checksum(String fileName) {
+        CRC32 crc32 = new CRC32();
+        try (SqlScriptReader scriptReader = SqlScriptReader.fromResources(fileName)) {
+            String sql;
+            while ((sql = scriptReader.nextStatement()) != null) {
+                crc32.update(sql.getBytes(StandardCharsets.UTF_8));
+                crc32.update(';');
+            }
+        }
+        return crc32.getValue();
+    }
+
+    private static long checksumOf(String value) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(value.getBytes(StandardCharsets.UTF_8));
+        return crc32.getValue();
+    }
+
+    private interface MigrationLock extends AutoCloseable {
+        @Override
+        void close() throws SQLException;
+    }
+}
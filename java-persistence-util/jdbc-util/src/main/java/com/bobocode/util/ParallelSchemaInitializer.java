@@ -0,0 +1,330 @@
+package com.bobocode.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.regex.Pattern.CASE_INSENSITIVE;
+
+/**
+ * {@link ParallelSchemaInitializer} executes a DDL script on several connections at the same time. It is an opt-in
+ * alternative to {@link SqlScriptRunner}, which stays the default way to run a script.
+ * <p>
+ * Table definitions are grouped by the table they create or change: {@code CREATE TABLE}, {@code ALTER TABLE} and
+ * {@code CREATE INDEX ... ON}. A table depends on the tables it {@code REFERENCES} by foreign keys, and on the tables
+ * its definition reads {@code FROM}. Independent tables (e.g. {@code broker} and {@code sales_group}) are initialized
+ * in parallel on a {@link ForkJoinPool}, while a table is initialized only after all the tables it depends on
+ * (e.g. {@code broker_sales_group}). Statements of one table are executed in the script order by
+ * {@link SqlScriptRunner}, in their own transaction.
+ * <p>
+ * Any other statement is a barrier: it is executed after all the statements above it, and before all the statements
+ * below it. It includes every {@code INSERT}, {@code UPDATE}, {@code DELETE} and {@code MERGE}, because the result
+ * of data statements depends on the script order across tables, e.g. a {@code DELETE FROM} a parent table should not
+ * run before the inserts into its child table. Consecutive barrier statements are streamed to
+ * {@link SqlScriptRunner} with batching, and only the table definitions between two barriers are kept in memory.
+ * If the tables depend on each other in a cycle, their definitions are executed sequentially.
+ * <p>
+ * Unlike {@link SqlScriptRunner}, the script is not executed in one transaction, so if a statement fails, the tables
+ * that are already initialized stay committed, and the tables that depend on the failed one are not initialized.
+ * It is meant for a fresh database, e.g. the one created for tests.
+ */
+@Slf4j
+public class ParallelSchemaInitializer {
+    private static final String IDENTIFIER = "(?:\"[^\"]+\"|[\\w$]+)";
+    private static final String TABLE_NAME = "(" + IDENTIFIER + "(?:\\s*\\.\\s*" + IDENTIFIER + ")*)";
+    private static final Pattern OWNER_TABLE = Pattern.compile("^(?:"
+            + "CREATE\\s+(?:(?:GLOBAL|LOCAL)\\s+)?(?:TEMP(?:ORARY)?\\s+|UNLOGGED\\s+)?TABLE\\s+"
+            + "(?:IF\\s+NOT\\s+EXISTS\\s+)?"
+            + "|ALTER\\s+TABLE\\s+(?:IF\\s+EXISTS\\s+)?(?:ONLY\\s+)?"
+            + "|CREATE\\s+(?:UNIQUE\\s+)?INDEX\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?(?:" + IDENTIFIER + "\\s+)?"
+            + "ON\\s+(?:ONLY\\s+)?"
+            + ")" + TABLE_NAME, CASE_INSENSITIVE);
+    private static final Pattern REFERENCED_TABLE = Pattern.compile(
+            "\\b(?:REFERENCES|FROM|JOIN|USING)\\s+(?:ONLY\\s+)?" + TABLE_NAME, CASE_INSENSITIVE);
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    private final SqlScriptRunner scriptRunner;
+    private final int parallelism;
+
+    public ParallelSchemaInitializer(DataSource dataSource) {
+        this(dataSource, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param dataSource  a data source of the database
+     * @param parallelism max number of tables that are initialized at the same time. Each of them holds a connection,
+     *                    so it should not exceed the size of the connection pool
+     */
+    public ParallelSchemaInitializer(DataSource dataSource, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism should be positive");
+        }
+        this.scriptRunner = new SqlScriptRunner(dataSource);
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Executes the SQL script specified by its resource name
+     *
+     * @param fileName a name of a script on the classpath
+     * @return number of executed statements
+     * @throws SqlScriptException if one of the statements fails
+     */
+    public int run(String fileName) throws SQLException {
+        try (SqlScriptReader scriptReader = SqlScriptReader.fromResources(fileName)) {
+            return run(fileName, scriptReader);
+        }
+    }
+
+    /**
+     * Executes all statements of the script reader
+     *
+     * @param scriptName   a name of the script that is used in logs and error messages
+     * @param scriptReader a reader of the script
+     * @return number of executed statements
+     * @throws SqlScriptException if one of the statements fails
+     */
+    public int run(String scriptName, SqlScriptReader scriptReader) throws SQLException {
+        long startNanos = System.nanoTime();
+        PhaseReader phaseReader = new PhaseReader(scriptReader.scriptStatements());
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            int statementCount = 0;
+            int phaseCount = 0;
+            while (phaseReader.hasNextPhase()) {
+                statementCount += phaseReader.isNextPhaseBarrier()
+                        ? scriptRunner.runStatements(scriptName, phaseReader.barrierStatements())
+                        : runTablePhase(scriptName, phaseReader.readTablePhase(), pool);
+                phaseCount++;
+            }
+            log.info("Initialized {} in {} phases in {} ms", scriptName, phaseCount,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            return statementCount;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private int runTablePhase(String scriptName, TablePhase phase, ForkJoinPool pool) throws SQLException {
+        if (phase.tables.size() == 1) {
+            return scriptRunner.runStatements(scriptName, phase.statements.iterator());
+        }
+        if (hasCycle(phase)) {
+            log.warn("Tables {} of {} depend on each other in a cycle, so they are initialized sequentially",
+                    phase.tables.keySet(), scriptName);
+            return scriptRunner.runStatements(scriptName, phase.statements.iterator());
+        }
+        Map<String, CompletableFuture<Integer>> futures = new HashMap<>();
+        for (TableNode node : phase.tables.values()) {
+            schedule(scriptName, node, phase, futures, pool);
+        }
+        // waits for all the tables, so nothing is running when the failure is reported
+        CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+        int statementCount = 0;
+        for (TableNode node : phase.tables.values()) {
+            try {
+                statementCount += futures.get(node.table).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof SQLException sqlException) {
+                    throw sqlException;
+                }
+                throw e;
+            }
+        }
+        return statementCount;
+    }
+
+    /**
+     * Schedules the table after the tables it depends on. If one of them fails, the table is not initialized,
+     * and its future completes with the same failure.
+     */
+    private CompletableFuture<Integer> schedule(String scriptName, TableNode node, TablePhase phase,
+                                                Map<String, CompletableFuture<Integer>> futures, ForkJoinPool pool) {
+        CompletableFuture<Integer> future = futures.get(node.table);
+        if (future != null) {
+            return future;
+        }
+        CompletableFuture<?>[] dependencies = node.dependencies.stream()
+                .map(phase.tables::get)
+                .map(dependency -> schedule(scriptName, dependency, phase, futures, pool))
+                .toArray(CompletableFuture[]::new);
+        future = CompletableFuture.allOf(dependencies)
+                .thenApplyAsync(ignored -> runTable(scriptName, node), pool);
+        futures.put(node.table, future);
+        return future;
+    }
+
+    private int runTable(String scriptName, TableNode node) {
+        try {
+            return scriptRunner.runStatements(scriptName, node.statements.iterator());
+        } catch (SQLException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private static boolean hasCycle(TablePhase phase) {
+        Set<String> visited = new LinkedHashSet<>();
+        Set<String> inProgress = new LinkedHashSet<>();
+        for (String table : phase.tables.keySet()) {
+            if (hasCycle(table, phase, visited, inProgress)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasCycle(String table, TablePhase phase, Set<String> visited, Set<String> inProgress) {
+        if (inProgress.contains(table)) {
+            return true;
+        }
+        if (!visited.add(table)) {
+            return false;
+        }
+        inProgress.add(table);
+        for (String dependency : phase.tables.get(table).dependencies) {
+            if (hasCycle(dependency, phase, visited, inProgress)) {
+                return true;
+            }
+        }
+        inProgress.remove(table);
+        return false;
+    }
+
+    private static String findOwnerTable(String sql) {
+        Matcher matcher = OWNER_TABLE.matcher(sql);
+        return matcher.find() ? normalizeTableName(matcher.group(1)) : null;
+    }
+
+    private static Set<String> findReferencedTables(String sql) {
+        Set<String> tables = new LinkedHashSet<>();
+        Matcher matcher = REFERENCED_TABLE.matcher(STRING_LITERAL.matcher(sql).replaceAll("''"));
+        while (matcher.find()) {
+            tables.add(normalizeTableName(matcher.group(1)));
+        }
+        return tables;
+    }
+
+    /**
+     * Removes quotes and a schema name. Names that differ only in case or schema end up in the same group, which
+     * is safe, because statements of one group are executed sequentially.
+     */
+    private static String normalizeTableName(String name) {
+        String tableName = name.substring(name.lastIndexOf('.') + 1).trim();
+        return tableName.replace("\"", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Reads the script phase by phase. A statement is read ahead to find out where the current phase ends.
+     */
+    private static class PhaseReader {
+        private final Iterator<ScriptStatement> statements;
+        private ScriptStatement nextStatement;
+        private String nextTable;
+
+        PhaseReader(Iterator<ScriptStatement> statements) {
+            this.statements = statements;
+            readNextStatement();
+        }
+
+        boolean hasNextPhase() {
+            return nextStatement != null;
+        }
+
+        boolean isNextPhaseBarrier() {
+            return nextTable == null;
+        }
+
+        /**
+         * Returns the consecutive barrier statements, they are read from the script while they are iterated
+         */
+        Iterator<ScriptStatement> barrierStatements() {
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return nextStatement != null && nextTable == null;
+                }
+
+                @Override
+                public ScriptStatement next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    ScriptStatement statement = nextStatement;
+                    readNextStatement();
+                    return statement;
+                }
+            };
+        }
+
+        /**
+         * Reads the consecutive table definitions
+         */
+        TablePhase readTablePhase() {
+            TablePhase phase = new TablePhase();
+            while (nextStatement != null && nextTable != null) {
+                phase.add(nextTable, nextStatement, findReferencedTables(nextStatement.sql()));
+                readNextStatement();
+            }
+            return phase;
+        }
+
+        private void readNextStatement() {
+            if (statements.hasNext()) {
+                nextStatement = statements.next();
+                nextTable = findOwnerTable(nextStatement.sql());
+            } else {
+                nextStatement = null;
+                nextTable = null;
+            }
+        }
+    }
+
+    /**
+     * Table definitions between two barriers
+     */
+    private static class TablePhase {
+        private final List<ScriptStatement> statements = new ArrayList<>();
+        private final Map<String, TableNode> tables = new LinkedHashMap<>();
+
+        /**
+         * Adds the statement to its table. Dependencies on tables that are not initialized in this phase are ignored,
+         * because the previous phases are already done.
+         */
+        void add(String table, ScriptStatement statement, Set<String> referencedTables) {
+            statements.add(statement);
+            TableNode node = tables.computeIfAbsent(table, TableNode::new);
+            node.statements.add(statement);
+            referencedTables.stream()
+                    .filter(referencedTable -> !referencedTable.equals(table))
+                    .filter(tables::containsKey)
+                    .forEach(node.dependencies::add);
+        }
+    }
+
+    private static class TableNode {
+        private final String table;
+        private final List<ScriptStatement> statements = new ArrayList<>();
+        private final Set<String> dependencies = new LinkedHashSet<>();
+
+        TableNode(String table) {
+            this.table = table;
+        }
+    }
+}
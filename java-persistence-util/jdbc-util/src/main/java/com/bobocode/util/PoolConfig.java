@@ -0,0 +1,61 @@
+package com.bobocode.util;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * {@link PoolConfig} holds the settings of {@link PooledDataSource}. All values have reasonable defaults, so
+ * {@code PoolConfig.builder().build()} can be used as is.
+ */
+@Getter
+@Builder
+public class PoolConfig {
+    /**
+     * Max number of physical connections that pool can hold (both idle and borrowed)
+     */
+    @Builder.Default
+    private int maxPoolSize = 10;
+    /**
+     * Min number of idle connections that are never evicted
+     */
+    @Builder.Default
+    private int minIdle = 0;
+    /**
+     * Max time that {@link PooledDataSource#getConnection()} waits for a free connection
+     */
+    @Builder.Default
+    private Duration connectionTimeout = Duration.ofSeconds(30);
+    /**
+     * Max time that connection can stay idle in the pool before it gets evicted
+     */
+    @Builder.Default
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    /**
+     * Max time to wait for {@link java.sql.Connection#isValid(int)} when a connection is validated on borrow
+     */
+    @Builder.Default
+    private Duration validationTimeout = Duration.ofSeconds(5);
+    /**
+     * Connections that were used more recently than this window are not validated on borrow
+     */
+    @Builder.Default
+    private Duration validationBypassWindow = Duration.ofMillis(500);
+    /**
+     * Time after which a borrowed connection that was not returned is reported as a potential leak.
+     * {@link Duration#ZERO} disables leak detection
+     */
+    @Builder.Default
+    private Duration leakDetectionThreshold = Duration.ZERO;
+    /**
+     * How often the pool checks for idle connections to evict and borrowed connections that leaked
+     */
+    @Builder.Default
+    private Duration housekeepingPeriod = Duration.ofSeconds(30);
+    /**
+     * Max number of prepared statements cached per connection. Zero disables statement caching
+     */
+    @Builder.Default
+    private int statementCacheSize = 0;
+}
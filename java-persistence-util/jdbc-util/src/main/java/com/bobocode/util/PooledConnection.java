@@ -0,0 +1,294 @@
+package com.bobocode.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link PooledConnection} is an entry of {@link PooledDataSource}. It holds a physical connection and its pool state.
+ * Every time the connection is borrowed, the pool hands out a new {@link Connection} proxy. Calling
+ * {@link Connection#close()} on that proxy returns the physical connection back to the pool instead of closing it.
+ */
+class PooledConnection {
+    static final int IDLE = 0;
+    static final int IN_USE = 1;
+    static final int REMOVED = -1;
+
+    private static final Set<String> STATE_CHANGING_METHODS = Set.of(
+            "setAutoCommit", "setReadOnly", "setTransactionIsolation", "setCatalog", "setSchema");
+    private static final int STATEMENTS_PRUNE_THRESHOLD = 64;
+
+    private final Connection physicalConnection;
+    private final boolean defaultAutoCommit;
+    private final boolean defaultReadOnly;
+    private final int defaultTransactionIsolation;
+    private final AtomicInteger state = new AtomicInteger(IN_USE);
+    private final List<Statement> openStatements = new ArrayList<>();
+    private final StatementCache statementCache;
+
+    private volatile long lastAccessNanos = System.nanoTime();
+    private volatile long borrowedAtNanos = System.nanoTime();
+    private volatile Exception borrowSite;
+    private volatile boolean leakReported;
+    private boolean dirty;
+
+    /**
+     * @param physicalConnection a connection opened by the target data source
+     * @param statementCache     a cache of prepared statements of this connection, or {@code null} if it's disabled
+     */
+    PooledConnection(Connection physicalConnection, StatementCache statementCache) throws SQLException {
+        this.physicalConnection = physicalConnection;
+        this.statementCache = statementCache;
+        this.defaultAutoCommit = physicalConnection.getAutoCommit();
+        this.defaultReadOnly = physicalConnection.isReadOnly();
+        this.defaultTransactionIsolation = physicalConnection.getTransactionIsolation();
+    }
+
+    Connection getPhysicalConnection() {
+        return physicalConnection;
+    }
+
+    /**
+     * Moves an idle connection to the {@link #IN_USE} state. It fails if the connection was concurrently borrowed
+     * or evicted.
+     */
+    boolean tryReserve() {
+        return state.compareAndSet(IDLE, IN_USE);
+    }
+
+    /**
+     * Moves an idle connection to the {@link #REMOVED} state. It fails if the connection was concurrently borrowed.
+     */
+    boolean tryEvict() {
+        return state.compareAndSet(IDLE, REMOVED);
+    }
+
+    void markIdle() {
+        lastAccessNanos = System.nanoTime();
+        borrowSite = null;
+        state.set(IDLE);
+    }
+
+    void markRemoved() {
+        state.set(REMOVED);
+    }
+
+    boolean isInUse() {
+        return state.get() == IN_USE;
+    }
+
+    long getLastAccessNanos() {
+        return lastAccessNanos;
+    }
+
+    long getBorrowedAtNanos() {
+        return borrowedAtNanos;
+    }
+
+    Exception getBorrowSite() {
+        return borrowSite;
+    }
+
+    /**
+     * Marks the connection as reported leak. Returns {@code false} if it was already reported during the current borrow
+     */
+    boolean markLeakReported() {
+        if (leakReported) {
+            return false;
+        }
+        leakReported = true;
+        return true;
+    }
+
+    /**
+     * Creates a new logical connection that is handed out to the pool client.
+     *
+     * @param pool              a pool that the connection should be returned to
+     * @param trackBorrowSite   whether a stack trace of the borrowing code should be captured for leak detection
+     * @return connection proxy
+     */
+    Connection borrow(PooledDataSource pool, boolean trackBorrowSite) {
+        borrowedAtNanos = System.nanoTime();
+        borrowSite = trackBorrowSite ? new Exception("Connection was borrowed here") : null;
+        leakReported = false;
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new LogicalConnectionHandler(pool));
+    }
+
+    /**
+     * Closes all statements that the client left open, rolls back uncommitted work and restores the connection
+     * defaults, so the next client gets the connection in the same state as a freshly opened one.
+     *
+     * @return {@code true} if the connection can be reused, {@code false} if it is broken
+     */
+    boolean reset() {
+        try {
+            closeOpenStatements();
+            // the default can be auto-commit off, then the client could run statements without changing any state
+            if (!physicalConnection.getAutoCommit()) {
+                physicalConnection.rollback();
+            }
+            if (dirty) {
+                physicalConnection.setAutoCommit(defaultAutoCommit);
+                physicalConnection.setReadOnly(defaultReadOnly);
+                physicalConnection.setTransactionIsolation(defaultTransactionIsolation);
+                dirty = false;
+            }
+            physicalConnection.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    void closePhysicalConnection() {
+        try {
+            physicalConnection.close();
+        } catch (SQLException ignored) {
+            // the connection is dropped anyway
+        }
+    }
+
+    private void trackStatement(Statement statement) throws SQLException {
+        if (openStatements.size() >= STATEMENTS_PRUNE_THRESHOLD) {
+            pruneClosedStatements();
+        }
+        openStatements.add(statement);
+    }
+
+    private void pruneClosedStatements() throws SQLException {
+        var iterator = openStatements.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isClosed()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void closeOpenStatements() throws SQLException {
+        for (Statement statement : openStatements) {
+            statement.close();
+        }
+        openStatements.clear();
+    }
+
+    /**
+     * A handler of a single borrow. Once it is closed, it cannot be used anymore, even if the same physical connection
+     * was handed out to another client.
+     */
+    private class LogicalConnectionHandler implements InvocationHandler {
+        private final PooledDataSource pool;
+        private boolean closed;
+
+        LogicalConnectionHandler(PooledDataSource pool) {
+            this.pool = pool;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        pool.release(PooledConnection.this);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "isValid":
+                    if (closed) {
+                        return false;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + physicalConnection;
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection is closed");
+            }
+            if (isCacheable(method)) {
+                Statement statement = statementCache.prepare(physicalConnection, (Connection) proxy, method, args);
+                trackStatement(statement);
+                return statement;
+            }
+            Object result = invokePhysical(method, args);
+            if (result instanceof Statement statement) {
+                trackStatement(statement);
+                return wrapStatement(statement, method.getReturnType(), (Connection) proxy);
+            } else if (STATE_CHANGING_METHODS.contains(method.getName())) {
+                dirty = true;
+            }
+            return result;
+        }
+
+        private boolean isCacheable(Method method) {
+            return statementCache != null && method.getName().equals("prepareStatement");
+        }
+
+        /**
+         * Wraps a physical statement, so {@link Statement#getConnection()} returns the connection proxy. Otherwise,
+         * a client could reach the physical connection and close it behind the pool's back.
+         */
+        private Object wrapStatement(Statement statement, Class<?> statementType, Connection logicalConnection) {
+            return Proxy.newProxyInstance(statementType.getClassLoader(), new Class<?>[]{statementType},
+                    new LogicalStatementHandler(statement, logicalConnection));
+        }
+
+        private Object invokePhysical(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(physicalConnection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * A handler of a statement that was created by a connection proxy. It delegates all calls to the physical
+     * statement, except {@link Statement#getConnection()} that returns the connection proxy.
+     */
+    private static class LogicalStatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final Connection logicalConnection;
+
+        LogicalStatementHandler(Statement statement, Connection logicalConnection) {
+            this.statement = statement;
+            this.logicalConnection = logicalConnection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getConnection":
+                    return logicalConnection;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + statement;
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
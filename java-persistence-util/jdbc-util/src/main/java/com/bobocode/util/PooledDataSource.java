@@ -0,0 +1,330 @@
+package com.bobocode.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * {@link PooledDataSource} is a {@link DataSource} that reuses physical connections of the target {@link DataSource}.
+ * Since it is a regular {@link DataSource}, it can be passed to any DAO that calls {@link DataSource#getConnection()}
+ * and closes the connection when it's done.
+ * <p>
+ * The pool is bounded by {@link PoolConfig#getMaxPoolSize()}. Idle connections are kept in a lock-free LIFO deque,
+ * so the most recently used connections are borrowed first, while the rarely used ones get old and are evicted
+ * after {@link PoolConfig#getIdleTimeout()}. A connection that stayed idle longer than
+ * {@link PoolConfig#getValidationBypassWindow()} is validated before it is handed out. A background housekeeper
+ * evicts idle connections and reports borrowed connections that are not returned
+ * within {@link PoolConfig#getLeakDetectionThreshold()}.
+ * <p>
+ * If {@link PoolConfig#getStatementCacheSize()} is positive, every physical connection keeps an LRU
+ * {@link StatementCache}, so the DAOs that prepare the same SQL on every call reuse already prepared statements
+ * without any changes in their code.
+ */
+@Slf4j
+public class PooledDataSource implements DataSource, AutoCloseable {
+    private final DataSource targetDataSource;
+    private final PoolConfig config;
+    private final Deque<PooledConnection> idleConnections = new ConcurrentLinkedDeque<>();
+    private final Set<PooledConnection> allConnections = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+    private final LongAdder reportedLeaks = new LongAdder();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    public PooledDataSource(DataSource targetDataSource, PoolConfig config) {
+        if (config.getMaxPoolSize() <= 0) {
+            throw new IllegalArgumentException("Max pool size should be positive");
+        }
+        this.targetDataSource = targetDataSource;
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxPoolSize());
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pooled-data-source-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodMillis = config.getHousekeepingPeriod().toMillis();
+        housekeeper.scheduleWithFixedDelay(this::doHousekeeping, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool. If there is no idle connection, and the pool is not full, it opens
+     * a new physical connection. If the pool is full, it waits for {@link PoolConfig#getConnectionTimeout()}.
+     *
+     * @return a pooled connection that is returned to the pool on {@link Connection#close()}
+     * @throws SQLTransientConnectionException if no connection became available within the timeout
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        checkNotClosed();
+        acquirePermit();
+        try {
+            PooledConnection pooledConnection = pollIdleConnection();
+            if (pooledConnection == null) {
+                pooledConnection = openConnection();
+            }
+            return pooledConnection.borrow(this, isLeakDetectionEnabled());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Pooled connections always use the credentials of the target data source");
+    }
+
+    /**
+     * @return number of connections that are currently borrowed
+     */
+    public int getActiveConnections() {
+        return getTotalConnections() - getIdleConnections();
+    }
+
+    /**
+     * @return number of connections that are currently available in the pool
+     */
+    public int getIdleConnections() {
+        return idleConnections.size();
+    }
+
+    /**
+     * @return number of physical connections opened by the pool
+     */
+    public int getTotalConnections() {
+        return allConnections.size();
+    }
+
+    /**
+     * @return number of prepared statements that were taken from the statement cache
+     */
+    public long getStatementCacheHits() {
+        return statementCacheHits.sum();
+    }
+
+    /**
+     * @return number of prepared statements that were not found in the statement cache, and were prepared
+     */
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.sum();
+    }
+
+    /**
+     * @return number of borrowed connections that were reported as potentially leaked
+     */
+    public long getReportedLeaks() {
+        return reportedLeaks.sum();
+    }
+
+    /**
+     * Closes all idle connections and stops the housekeeper. Borrowed connections are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooledConnection;
+        while ((pooledConnection = idleConnections.pollFirst()) != null) {
+            if (pooledConnection.tryEvict()) {
+                discard(pooledConnection);
+            }
+        }
+    }
+
+    void release(PooledConnection pooledConnection) {
+        try {
+            if (!closed && pooledConnection.reset()) {
+                pooledConnection.markIdle();
+                idleConnections.offerFirst(pooledConnection);
+                if (closed && pooledConnection.tryEvict()) {
+                    // the pool was closed concurrently and might have drained the deque before the offer
+                    idleConnections.remove(pooledConnection);
+                    discard(pooledConnection);
+                }
+            } else {
+                discard(pooledConnection);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void checkNotClosed() throws SQLException {
+        if (closed) {
+            throw new SQLException("Data source is closed");
+        }
+    }
+
+    private void acquirePermit() throws SQLException {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        try {
+            if (!permits.tryAcquire(config.getConnectionTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException(String.format(
+                        "Connection is not available, request timed out after %d ms (max pool size: %d)",
+                        config.getConnectionTimeout().toMillis(), config.getMaxPoolSize()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+    }
+
+    private PooledConnection pollIdleConnection() {
+        PooledConnection pooledConnection;
+        while ((pooledConnection = idleConnections.pollFirst()) != null) {
+            if (pooledConnection.tryReserve()) {
+                if (isAlive(pooledConnection)) {
+                    return pooledConnection;
+                }
+                discard(pooledConnection);
+            }
+        }
+        return null;
+    }
+
+    private PooledConnection openConnection() throws SQLException {
+        Connection physicalConnection = targetDataSource.getConnection();
+        try {
+            PooledConnection pooledConnection = new PooledConnection(physicalConnection, createStatementCache());
+            allConnections.add(pooledConnection);
+            return pooledConnection;
+        } catch (SQLException | RuntimeException e) {
+            physicalConnection.close();
+            throw e;
+        }
+    }
+
+    private StatementCache createStatementCache() {
+        if (config.getStatementCacheSize() <= 0) {
+            return null;
+        }
+        return new StatementCache(config.getStatementCacheSize(), statementCacheHits, statementCacheMisses);
+    }
+
+    private boolean isAlive(PooledConnection pooledConnection) {
+        long idleNanos = System.nanoTime() - pooledConnection.getLastAccessNanos();
+        if (idleNanos < config.getValidationBypassWindow().toNanos()) {
+            return true;
+        }
+        try {
+            int timeoutSeconds = (int) Math.max(1, config.getValidationTimeout().toSeconds());
+            return pooledConnection.getPhysicalConnection().isValid(timeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void discard(PooledConnection pooledConnection) {
+        pooledConnection.markRemoved();
+        allConnections.remove(pooledConnection);
+        pooledConnection.closePhysicalConnection();
+    }
+
+    private boolean isLeakDetectionEnabled() {
+        return !config.getLeakDetectionThreshold().isZero();
+    }
+
+    private void doHousekeeping() {
+        try {
+            evictIdleConnections();
+            if (isLeakDetectionEnabled()) {
+                reportLeakedConnections();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Pool housekeeping failed", e);
+        }
+    }
+
+    /**
+     * Evicts connections that stayed idle longer than {@link PoolConfig#getIdleTimeout()}. The oldest connections
+     * are at the tail of the deque, so it walks it backwards and stops as soon as the pool shrinks to
+     * {@link PoolConfig#getMinIdle()}.
+     */
+    private void evictIdleConnections() {
+        long idleTimeoutNanos = config.getIdleTimeout().toNanos();
+        int idleCount = idleConnections.size();
+        Iterator<PooledConnection> oldestFirst = idleConnections.descendingIterator();
+        while (oldestFirst.hasNext() && idleCount > config.getMinIdle()) {
+            PooledConnection pooledConnection = oldestFirst.next();
+            boolean expired = System.nanoTime() - pooledConnection.getLastAccessNanos() > idleTimeoutNanos;
+            if (expired && pooledConnection.tryEvict()) {
+                idleConnections.remove(pooledConnection);
+                discard(pooledConnection);
+                idleCount--;
+            }
+        }
+    }
+
+    private void reportLeakedConnections() {
+        long thresholdNanos = config.getLeakDetectionThreshold().toNanos();
+        for (PooledConnection pooledConnection : allConnections) {
+            boolean leaked = pooledConnection.isInUse()
+                    && System.nanoTime() - pooledConnection.getBorrowedAtNanos() > thresholdNanos;
+            if (leaked && pooledConnection.markLeakReported()) {
+                reportedLeaks.increment();
+                log.warn("Connection {} was not returned to the pool within {} ms, it might be leaked",
+                        pooledConnection.getPhysicalConnection(), config.getLeakDetectionThreshold().toMillis(),
+                        pooledConnection.getBorrowSite());
+            }
+        }
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return targetDataSource.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        targetDataSource.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        targetDataSource.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return targetDataSource.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return targetDataSource.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return targetDataSource.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || targetDataSource.isWrapperFor(iface);
+    }
+}
@@ -0,0 +1,7 @@
+package com.bobocode.util;
+
+public class ResultSetStreamException extends RuntimeException {
+    public ResultSetStreamException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
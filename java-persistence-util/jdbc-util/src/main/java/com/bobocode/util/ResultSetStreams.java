@@ -0,0 +1,183 @@
+package com.bobocode.util;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link ResultSetStreams} provides an API that allows to process a query result as a lazy {@link Stream}, so
+ * the rows are fetched from the database while the stream is consumed, and only one chunk of rows is kept in memory.
+ * <p>
+ * The query is executed on a forward-only, read-only result set with a fetch size. PostgreSQL only uses a server-side
+ * cursor when auto-commit is off, so the stream disables it for the connection that it holds. H2 is switched to
+ * lazy query execution, otherwise it materializes the whole result before returning the first row.
+ * <p>
+ * A returned stream holds an open connection until it is closed, so it should always be used within
+ * try-with-resources. The resources are also released as soon as the last row is read.
+ */
+public class ResultSetStreams {
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
+    /**
+     * Executes a query and returns its rows as a lazy {@link Stream} using {@link #DEFAULT_FETCH_SIZE}
+     *
+     * @see #openStream(DataSource, String, int, RowMapper)
+     */
+    public static <T> Stream<T> openStream(DataSource dataSource, String sql, RowMapper<T> rowMapper) throws SQLException {
+        return openStream(dataSource, sql, DEFAULT_FETCH_SIZE, rowMapper);
+    }
+
+    /**
+     * Executes a query and returns its rows as a lazy {@link Stream}. The rows are fetched in chunks of
+     * {@code fetchSize} rows. Errors that happen while the stream is consumed are wrapped
+     * with {@link ResultSetStreamException}.
+     *
+     * @param dataSource a data source to get a connection from
+     * @param sql        a query
+     * @param fetchSize  number of rows fetched per database round trip
+     * @param rowMapper  creates an object from a single row
+     * @param <T>        row type
+     * @return a lazy stream of rows that should be closed after use
+     * @throws SQLException if the query cannot be executed
+     */
+    public static <T> Stream<T> openStream(DataSource dataSource, String sql, int fetchSize,
+                                           RowMapper<T> rowMapper) throws SQLException {
+        Cursor<T> cursor = new Cursor<>(dataSource.getConnection(), rowMapper);
+        try {
+            cursor.open(sql, fetchSize);
+        } catch (SQLException | RuntimeException e) {
+            cursor.closeSuppressing(e);
+            throw e;
+        }
+        return StreamSupport.stream(cursor, false).onClose(cursor::close);
+    }
+
+    private static class Cursor<T> extends Spliterators.AbstractSpliterator<T> {
+        private final Connection connection;
+        private final RowMapper<T> rowMapper;
+        private boolean autoCommitDisabled;
+        private boolean lazyExecutionEnabled;
+        private PreparedStatement statement;
+        private ResultSet resultSet;
+        private boolean closed;
+
+        Cursor(Connection connection, RowMapper<T> rowMapper) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.connection = connection;
+            this.rowMapper = rowMapper;
+        }
+
+        void open(String sql, int fetchSize) throws SQLException {
+            if (connection.getAutoCommit()) {
+                connection.setAutoCommit(false);
+                autoCommitDisabled = true;
+            }
+            if (isH2()) {
+                executeUpdate("SET LAZY_QUERY_EXECUTION TRUE");
+                lazyExecutionEnabled = true;
+            }
+            statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            resultSet = statement.executeQuery();
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (closed) {
+                return false;
+            }
+            try {
+                if (!resultSet.next()) {
+                    close();
+                    return false;
+                }
+                action.accept(rowMapper.mapRow(resultSet));
+                return true;
+            } catch (SQLException e) {
+                throw new ResultSetStreamException("Cannot fetch the next row", e);
+            }
+        }
+
+        void close() {
+            try {
+                release();
+            } catch (SQLException e) {
+                throw new ResultSetStreamException("Cannot close the result set stream", e);
+            }
+        }
+
+        void closeSuppressing(Exception cause) {
+            try {
+                release();
+            } catch (SQLException e) {
+                cause.addSuppressed(e);
+            }
+        }
+
+        /**
+         * Closes the cursor and restores the connection settings. Every step runs even if the previous one fails,
+         * so a failing {@link ResultSet#close()} does not leave the connection with lazy execution or auto-commit
+         * off. The first failure is thrown, and the following ones are added to it as suppressed.
+         */
+        private void release() throws SQLException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            SQLException failure = null;
+            if (resultSet != null) {
+                failure = runSuppressing(failure, resultSet::close);
+            }
+            if (statement != null) {
+                failure = runSuppressing(failure, statement::close);
+            }
+            if (lazyExecutionEnabled) {
+                failure = runSuppressing(failure, () -> executeUpdate("SET LAZY_QUERY_EXECUTION FALSE"));
+            }
+            if (autoCommitDisabled) {
+                failure = runSuppressing(failure, connection::rollback);
+                failure = runSuppressing(failure, () -> connection.setAutoCommit(true));
+            }
+            failure = runSuppressing(failure, connection::close);
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        private static SQLException runSuppressing(SQLException failure, SqlAction action) {
+            try {
+                action.run();
+                return failure;
+            } catch (SQLException e) {
+                if (failure == null) {
+                    return e;
+                }
+                failure.addSuppressed(e);
+                return failure;
+            }
+        }
+
+        private boolean isH2() throws SQLException {
+            return "H2".equals(connection.getMetaData().getDatabaseProductName());
+        }
+
+        private void executeUpdate(String sql) throws SQLException {
+            try (Statement settingStatement = connection.createStatement()) {
+                settingStatement.executeUpdate(sql);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlAction {
+        void run() throws SQLException;
+    }
+}
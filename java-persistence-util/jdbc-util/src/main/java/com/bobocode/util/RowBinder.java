@@ -0,0 +1,16 @@
+package com.bobocode.util;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * {@link RowBinder} sets the fields of a single object as {@link PreparedStatement} parameters. Since one statement
+ * can hold several rows, a binder receives a parameter offset, and should set its parameters starting
+ * from index {@code parameterOffset + 1}.
+ *
+ * @param <T> row type
+ */
+@FunctionalInterface
+public interface RowBinder<T> {
+    void bind(PreparedStatement statement, int parameterOffset, T row) throws SQLException;
+}
@@ -0,0 +1,14 @@
+package com.bobocode.util;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * {@link RowMapper} creates an object from the current row of a {@link ResultSet}. It should not move the cursor.
+ *
+ * @param <T> row type
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+    T mapRow(ResultSet resultSet) throws SQLException;
+}
@@ -0,0 +1,7 @@
+package com.bobocode.util;
+
+/**
+ * A statement of an SQL script together with the number of the line where it starts
+ */
+record ScriptStatement(String sql, int line) {
+}
@@ -0,0 +1,30 @@
+package com.bobocode.util;
+
+import lombok.Getter;
+
+import java.sql.SQLException;
+
+/**
+ * {@link SqlScriptException} is thrown by {@link SqlScriptRunner} when a statement of the script fails. It keeps
+ * the failed statement and the script line where it starts.
+ */
+@Getter
+public class SqlScriptException extends SQLException {
+    private static final int MAX_STATEMENT_LENGTH_IN_MESSAGE = 500;
+
+    private final String statement;
+    private final int lineNumber;
+
+    public SqlScriptException(String scriptName, String statement, int lineNumber, SQLException cause) {
+        super(String.format("Failed to execute statement at %s:%d: %s", scriptName, lineNumber, abbreviate(statement)),
+                cause.getSQLState(), cause.getErrorCode(), cause);
+        this.statement = statement;
+        this.lineNumber = lineNumber;
+    }
+
+    private static String abbreviate(String statement) {
+        return statement.length() <= MAX_STATEMENT_LENGTH_IN_MESSAGE
+                ? statement
+                : statement.substring(0, MAX_STATEMENT_LENGTH_IN_MESSAGE) + "...";
+    }
+}
@@ -0,0 +1,331 @@
+package com.bobocode.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link SqlScriptReader} reads an SQL script one statement at a time, so only the current statement is kept
+ * in memory no matter how large the script is. Scripts on the file system are memory-mapped, scripts packed into
+ * a jar are read as a stream.
+ * <p>
+ * Statements are separated by {@code ;}. A separator inside a string literal ({@code 'It''s'}, {@code E'\''}),
+ * a quoted identifier, a comment or a dollar-quoted string ({@code $$...$$}, {@code $body$...$body$}) does not end
+ * a statement. Comments are removed, and the trailing {@code ;} is not included into a statement.
+ * <pre>{@code
+ * try (Stream<String> statements = SqlScriptReader.fromResources("db/init.sql").statements()) {
+ *     statements.forEach(sql -> execute(sql));
+ * }
+ * }</pre>
+ */
+public class SqlScriptReader implements Closeable {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder statement = new StringBuilder();
+    private int bufferPosition;
+    private int bufferLimit;
+    private int line = 1;
+    private int statementLine;
+
+    public SqlScriptReader(Reader reader) {
+        this.reader = Objects.requireNonNull(reader);
+    }
+
+    /**
+     * Opens a reader of the SQL script specified by its resource name
+     *
+     * @param fileName a name of a script on the classpath
+     * @return a reader that should be closed after use
+     */
+    public static SqlScriptReader fromResources(String fileName) {
+        Objects.requireNonNull(fileName);
+        URL fileUrl = SqlScriptReader.class.getClassLoader().getResource(fileName);
+        if (fileUrl == null) {
+            throw new FileReaderException(String.format("Cannot find file %s in resources", fileName));
+        }
+        return fromUrl(fileUrl);
+    }
+
+    static SqlScriptReader fromUrl(URL fileUrl) {
+        try {
+            if ("file".equals(fileUrl.getProtocol())) {
+                return new SqlScriptReader(new MappedFileReader(Path.of(fileUrl.toURI())));
+            }
+            return new SqlScriptReader(new InputStreamReader(fileUrl.openStream(), StandardCharsets.UTF_8));
+        } catch (IOException | URISyntaxException e) {
+            throw new FileReaderException(String.format("Cannot open file %s", fileUrl), e);
+        }
+    }
+
+    /**
+     * Reads the next statement of the script
+     *
+     * @return SQL statement without comments and trailing {@code ;}, or {@code null} if there are no more statements
+     */
+    public String nextStatement() {
+        try {
+            return readStatement();
+        } catch (IOException e) {
+            throw new FileReaderException("Cannot read SQL script", e);
+        }
+    }
+
+    /**
+     * @return number of the line where the statement returned by the last {@link #nextStatement()} starts
+     */
+    public int getStatementLine() {
+        return statementLine;
+    }
+
+    /**
+     * Returns a lazy stream of the remaining statements. Closing the stream closes the reader.
+     */
+    public Stream<String> statements() {
+        Iterator<String> iterator = new Iterator<>() {
+            private String next = nextStatement();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public String next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                String current = next;
+                next = nextStatement();
+                return current;
+            }
+        };
+        Spliterator<String> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    /**
+     * Returns an iterator of the remaining statements together with their line numbers
+     */
+    Iterator<ScriptStatement> scriptStatements() {
+        return new Iterator<>() {
+            private String next = nextStatement();
+            private int nextLine = statementLine;
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public ScriptStatement next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                ScriptStatement current = new ScriptStatement(next, nextLine);
+                next = nextStatement();
+                nextLine = statementLine;
+                return current;
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new FileReaderException("Cannot close SQL script", e);
+        }
+    }
+
+    private String readStatement() throws IOException {
+        statement.setLength(0);
+        int c;
+        while ((c = read()) != -1) {
+            if (statement.isEmpty() && Character.isWhitespace(c)) {
+                continue;
+            }
+            if (statement.isEmpty()) {
+                statementLine = line;
+            }
+            switch (c) {
+                case ';' -> {
+                    String sql = statement.toString().trim();
+                    statement.setLength(0);
+                    if (!sql.isEmpty()) {
+                        return sql;
+                    }
+                }
+                case '\'' -> readQuoted('\'', isEscapeStringPrefix());
+                case '"' -> readQuoted('"', false);
+                case '$' -> readDollarQuoted();
+                case '-' -> {
+                    if (peek() == '-') {
+                        skipLineComment();
+                    } else {
+                        statement.append('-');
+                    }
+                }
+                case '/' -> {
+                    if (peek() == '*') {
+                        read();
+                        skipBlockComment();
+                    } else {
+                        statement.append('/');
+                    }
+                }
+                default -> statement.append((char) c);
+            }
+        }
+        String sql = statement.toString().trim();
+        statement.setLength(0);
+        return sql.isEmpty() ? null : sql;
+    }
+
+    /**
+     * Appends a quoted literal or identifier. A doubled quote is read as a closing quote followed by an opening one,
+     * which gives the same result. Backslash escapes are only supported in PostgreSQL escape strings {@code E'...'}.
+     */
+    private void readQuoted(char quote, boolean backslashEscapes) throws IOException {
+        statement.append(quote);
+        int c;
+        while ((c = read()) != -1) {
+            statement.append((char) c);
+            if (c == quote) {
+                return;
+            }
+            if (c == '\\' && backslashEscapes && (c = read()) != -1) {
+                statement.append((char) c);
+            }
+        }
+    }
+
+    private boolean isEscapeStringPrefix() {
+        int length = statement.length();
+        if (length == 0 || Character.toUpperCase(statement.charAt(length - 1)) != 'E') {
+            return false;
+        }
+        return length == 1 || !isIdentifierPart(statement.charAt(length - 2));
+    }
+
+    /**
+     * Appends a dollar-quoted string, e.g. a function body. A {@code $} that does not start a tag (e.g. a positional
+     * parameter {@code $1}) is appended as is.
+     */
+    private void readDollarQuoted() throws IOException {
+        int tagStart = statement.length();
+        statement.append('$');
+        if (tagStart > 0 && isIdentifierPart(statement.charAt(tagStart - 1))) {
+            return;
+        }
+        if (peek() != '$' && !isIdentifierStart(peek())) {
+            return;
+        }
+        while (isIdentifierPart(peek())) {
+            statement.append((char) read());
+        }
+        if (peek() != '$') {
+            return;
+        }
+        statement.append((char) read());
+        String tag = statement.substring(tagStart);
+        int bodyStart = statement.length();
+        int c;
+        while ((c = read()) != -1) {
+            statement.append((char) c);
+            if (c == '$' && statement.length() - bodyStart >= tag.length() && endsWith(statement, tag)) {
+                return;
+            }
+        }
+    }
+
+    private void skipLineComment() throws IOException {
+        int c;
+        while ((c = read()) != -1 && c != '\n') {
+            // skip comment
+        }
+        if (!statement.isEmpty()) {
+            statement.append('\n');
+        }
+    }
+
+    /**
+     * Skips a block comment. Block comments can be nested, as in PostgreSQL.
+     */
+    private void skipBlockComment() throws IOException {
+        int depth = 1;
+        int c;
+        while (depth > 0 && (c = read()) != -1) {
+            if (c == '*' && peek() == '/') {
+                read();
+                depth--;
+            } else if (c == '/' && peek() == '*') {
+                read();
+                depth++;
+            }
+        }
+        if (!statement.isEmpty()) {
+            statement.append(' ');
+        }
+    }
+
+    private static boolean endsWith(StringBuilder builder, String suffix) {
+        int offset = builder.length() - suffix.length();
+        for (int i = 0; i < suffix.length(); i++) {
+            if (builder.charAt(offset + i) != suffix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isIdentifierStart(int c) {
+        return c != -1 && (Character.isLetter(c) || c == '_');
+    }
+
+    private static boolean isIdentifierPart(int c) {
+        return c != -1 && (Character.isLetterOrDigit(c) || c == '_');
+    }
+
+    private int read() throws IOException {
+        if (!fillBuffer()) {
+            return -1;
+        }
+        char c = buffer[bufferPosition++];
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        return fillBuffer() ? buffer[bufferPosition] : -1;
+    }
+
+    private boolean fillBuffer() throws IOException {
+        if (bufferPosition < bufferLimit) {
+            return true;
+        }
+        int read = reader.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        bufferPosition = 0;
+        bufferLimit = read;
+        return true;
+    }
+}
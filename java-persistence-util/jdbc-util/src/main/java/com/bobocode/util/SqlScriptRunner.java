@@ -0,0 +1,231 @@
+package com.bobocode.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link SqlScriptRunner} executes an SQL script statement by statement in one transaction. The script is read with
+ * {@link SqlScriptReader}, so it is never loaded into memory as a whole.
+ * <p>
+ * Consecutive data statements ({@code INSERT}, {@code UPDATE}, {@code DELETE}, {@code MERGE}) are sent to the database
+ * in JDBC batches, so a large seed does not cost a round trip per row. Other statements (e.g. DDL) are executed one
+ * by one. Execution time of every statement and batch is logged at debug level. If a statement fails, the transaction
+ * is rolled back and {@link SqlScriptException} reports the statement and the script line where it starts.
+ * <p>
+ * Statements that PostgreSQL does not allow inside a transaction block ({@code CREATE INDEX CONCURRENTLY},
+ * {@code VACUUM}, {@code CREATE DATABASE}, etc.) are rejected with {@link SqlScriptException} of SQLState
+ * {@value #ACTIVE_SQL_TRANSACTION}, and nothing of the script is committed. Running them in the middle of the script
+ * would break its atomicity, so they should be executed separately with auto-commit.
+ */
+@Slf4j
+public class SqlScriptRunner {
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    /**
+     * SQLState that PostgreSQL reports when a statement cannot run inside a transaction block
+     */
+    public static final String ACTIVE_SQL_TRANSACTION = "25001";
+    private static final Set<String> BATCHABLE_COMMANDS = Set.of("INSERT", "UPDATE", "DELETE", "MERGE");
+    private static final Pattern NON_TRANSACTIONAL_COMMAND = Pattern.compile("^(VACUUM"
+            + "|(CREATE|DROP)\\s+(DATABASE|TABLESPACE)"
+            + "|ALTER\\s+SYSTEM"
+            + "|CREATE\\s+(UNIQUE\\s+)?INDEX\\s+CONCURRENTLY"
+            + "|DROP\\s+INDEX\\s+CONCURRENTLY"
+            + "|REINDEX\\s+(\\([^)]*\\)\\s*)?\\w+\\s+CONCURRENTLY)\\b", Pattern.CASE_INSENSITIVE);
+
+    private final DataSource dataSource;
+    private final int batchSize;
+
+    public SqlScriptRunner(DataSource dataSource) {
+        this(dataSource, DEFAULT_BATCH_SIZE);
+    }
+
+    public SqlScriptRunner(DataSource dataSource, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size should be positive");
+        }
+        this.dataSource = dataSource;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Executes the SQL script specified by its resource name
+     *
+     * @param fileName a name of a script on the classpath
+     * @return number of executed statements
+     * @throws SqlScriptException if one of the statements fails
+     */
+    public int runScript(String fileName) throws SQLException {
+        try (SqlScriptReader scriptReader = SqlScriptReader.fromResources(fileName)) {
+            return runScript(fileName, scriptReader);
+        }
+    }
+
+    /**
+     * Executes all statements of the script reader
+     *
+     * @param scriptName   a name of the script that is used in logs and error messages
+     * @param scriptReader a reader of the script
+     * @return number of executed statements
+     * @throws SqlScriptException if one of the statements fails
+     */
+    public int runScript(String scriptName, SqlScriptReader scriptReader) throws SQLException {
+        return runStatements(scriptName, scriptReader.scriptStatements());
+    }
+
+    /**
+     * Executes the statements that were already read from a script, e.g. a group of statements of one table
+     *
+     * @param scriptName a name of the script that is used in logs and error messages
+     * @param statements statements in the order of execution
+     * @return number of executed statements
+     * @throws SqlScriptException if one of the statements fails
+     */
+    int runStatements(String scriptName, Iterator<ScriptStatement> statements) throws SQLException {
+        long startNanos = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                int statementCount = executeStatements(connection, scriptName, statements);
+                connection.commit();
+                log.info("Executed {} statements of {} in {} ms", statementCount, scriptName,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+                return statementCount;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * Executes the statements within the current transaction of the connection. The transaction is neither committed
+     * nor rolled back, so the caller can add its own statements to it.
+     *
+     * @return number of executed statements
+     * @throws SqlScriptException if one of the statements fails
+     */
+    int executeStatements(Connection connection, String scriptName, Iterator<ScriptStatement> statements)
+            throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            ScriptExecution execution = new ScriptExecution(scriptName, statement);
+            while (statements.hasNext()) {
+                ScriptStatement scriptStatement = statements.next();
+                execution.execute(scriptStatement.sql(), scriptStatement.line());
+            }
+            execution.executeBatch();
+            return execution.statementCount;
+        }
+    }
+
+    /**
+     * @return a command that cannot run inside a transaction block, e.g. {@code CREATE INDEX CONCURRENTLY}, or
+     * {@code null} if the statement can run in a transaction
+     */
+    static String findNonTransactionalCommand(String sql) {
+        Matcher matcher = NON_TRANSACTIONAL_COMMAND.matcher(sql);
+        return matcher.find() ? matcher.group(1).replaceAll("\\s+", " ").toUpperCase(Locale.ROOT) : null;
+    }
+
+    private static boolean isBatchable(String sql) {
+        int commandEnd = 0;
+        while (commandEnd < sql.length() && Character.isLetter(sql.charAt(commandEnd))) {
+            commandEnd++;
+        }
+        return BATCHABLE_COMMANDS.contains(sql.substring(0, commandEnd).toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Keeps the statements of the current batch, so the one that failed can be reported
+     */
+    private class ScriptExecution {
+        private final String scriptName;
+        private final Statement statement;
+        private final List<String> batchStatements = new ArrayList<>();
+        private final List<Integer> batchLines = new ArrayList<>();
+        private int statementCount;
+
+        ScriptExecution(String scriptName, Statement statement) {
+            this.scriptName = scriptName;
+            this.statement = statement;
+        }
+
+        void execute(String sql, int line) throws SQLException {
+            String nonTransactionalCommand = findNonTransactionalCommand(sql);
+            if (nonTransactionalCommand != null) {
+                throw new SqlScriptException(scriptName, sql, line, new SQLException(nonTransactionalCommand
+                        + " cannot run inside a transaction, execute it separately with auto-commit",
+                        ACTIVE_SQL_TRANSACTION));
+            }
+            if (isBatchable(sql)) {
+                statement.addBatch(sql);
+                batchStatements.add(sql);
+                batchLines.add(line);
+                if (batchStatements.size() >= batchSize) {
+                    executeBatch();
+                }
+            } else {
+                executeBatch();
+                long startNanos = System.nanoTime();
+                try {
+                    statement.execute(sql);
+                } catch (SQLException e) {
+                    throw new SqlScriptException(scriptName, sql, line, e);
+                }
+                statementCount++;
+                log.debug("{}:{} executed in {} ms", scriptName, line, elapsedMillis(startNanos));
+            }
+        }
+
+        void executeBatch() throws SQLException {
+            if (batchStatements.isEmpty()) {
+                return;
+            }
+            long startNanos = System.nanoTime();
+            try {
+                statement.executeBatch();
+            } catch (BatchUpdateException e) {
+                int failedIndex = findFailedIndex(e.getUpdateCounts());
+                throw new SqlScriptException(scriptName, batchStatements.get(failedIndex), batchLines.get(failedIndex),
+                        e);
+            }
+            statementCount += batchStatements.size();
+            log.debug("{}:{}-{} batch of {} statements executed in {} ms", scriptName, batchLines.get(0),
+                    batchLines.get(batchLines.size() - 1), batchStatements.size(), elapsedMillis(startNanos));
+            batchStatements.clear();
+            batchLines.clear();
+        }
+
+        /**
+         * Some drivers stop at the first failed statement and return the counts of the statements that succeeded,
+         * others execute the whole batch and mark the failed statements with {@link Statement#EXECUTE_FAILED}
+         */
+        private int findFailedIndex(int[] updateCounts) {
+            for (int i = 0; i < updateCounts.length; i++) {
+                if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+                    return i;
+                }
+            }
+            return Math.min(updateCounts.length, batchStatements.size() - 1);
+        }
+
+        private long elapsedMillis(long startNanos) {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.bobocode.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link StatementCache} is an LRU cache of {@link PreparedStatement}s that belongs to a single physical connection
+ * of {@link PooledDataSource}. When a client prepares a statement with the same SQL and options as it did before,
+ * the cache returns a previously prepared statement, so the database does not parse and plan the same query again.
+ * <p>
+ * Cached statements are handed out as proxies. Closing a proxy clears statement parameters and puts the physical
+ * statement back to the cache. A statement is checked out of the cache while it's in use, so two clients never share
+ * it. Statements with modified settings (e.g. fetch size or max rows) are not cached, they are closed instead.
+ */
+class StatementCache {
+    private static final Set<String> SETTING_METHODS = Set.of("setFetchSize", "setFetchDirection", "setMaxRows",
+            "setLargeMaxRows", "setMaxFieldSize", "setQueryTimeout", "setEscapeProcessing", "setPoolable",
+            "setCursorName", "closeOnCompletion");
+
+    private final int maxSize;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final Map<StatementKey, PreparedStatement> idleStatements;
+
+    StatementCache(int maxSize, LongAdder hits, LongAdder misses) {
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.idleStatements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<StatementKey, PreparedStatement> eldest) {
+                if (size() > StatementCache.this.maxSize) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns a cached statement for the given {@link Connection#prepareStatement} call, or prepares a new one.
+     *
+     * @param physicalConnection a connection that owns the cache
+     * @param logicalConnection  a connection proxy that is returned by {@link PreparedStatement#getConnection()}
+     * @param prepareMethod      one of {@link Connection#prepareStatement} methods
+     * @param args               arguments of the prepare method, the first one is SQL
+     * @return a statement proxy that returns the statement to the cache on close
+     */
+    PreparedStatement prepare(Connection physicalConnection, Connection logicalConnection,
+                              Method prepareMethod, Object[] args) throws Throwable {
+        StatementKey key = new StatementKey((String) args[0], Arrays.deepToString(Arrays.copyOfRange(args, 1, args.length)));
+        PreparedStatement statement = idleStatements.remove(key);
+        if (statement != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            try {
+                statement = (PreparedStatement) prepareMethod.invoke(physicalConnection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, new CachedStatementHandler(key, statement, logicalConnection));
+    }
+
+    private void release(StatementKey key, PreparedStatement statement) {
+        try {
+            ResultSet openResultSet = statement.getResultSet();
+            if (openResultSet != null) {
+                openResultSet.close();
+            }
+            statement.clearParameters();
+            statement.clearBatch();
+            statement.clearWarnings();
+        } catch (SQLException e) {
+            closeQuietly(statement);
+            return;
+        }
+        PreparedStatement sameStatement = idleStatements.put(key, statement);
+        if (sameStatement != null) {
+            closeQuietly(sameStatement);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+            // the statement is not used anymore
+        }
+    }
+
+    private record StatementKey(String sql, String options) {
+    }
+
+    private class CachedStatementHandler implements InvocationHandler {
+        private final StatementKey key;
+        private final PreparedStatement statement;
+        private final Connection logicalConnection;
+        private boolean modified;
+        private boolean closed;
+
+        CachedStatementHandler(StatementKey key, PreparedStatement statement, Connection logicalConnection) {
+            this.key = key;
+            this.statement = statement;
+            this.logicalConnection = logicalConnection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        if (modified) {
+                            statement.close();
+                        } else {
+                            release(key, statement);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getConnection":
+                    return logicalConnection;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached" + statement;
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+            if (SETTING_METHODS.contains(method.getName())) {
+                modified = true;
+            }
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
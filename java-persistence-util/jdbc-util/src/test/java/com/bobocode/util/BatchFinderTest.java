@@ -0,0 +1,148 @@
+package com.bobocode.util;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@TestMethodOrder(OrderAnnotation.class)
+class BatchFinderTest {
+    private static final DataSource DATA_SOURCE = JdbcUtil.createInMemoryH2DataSource(
+            "jdbc:h2:mem:batch_finder_test;DB_CLOSE_DELAY=-1", "sa", "");
+    private static final RowMapper<Person> PERSON_MAPPER =
+            resultSet -> new Person(resultSet.getLong("id"), resultSet.getString("name"));
+
+    private final List<String> preparedSql = new ArrayList<>();
+    private final List<PreparedStatement> statements = new ArrayList<>();
+
+    @BeforeAll
+    @SneakyThrows
+    static void createTable() {
+        try (Connection connection = DATA_SOURCE.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE person(id BIGINT PRIMARY KEY, name VARCHAR(255))");
+            statement.execute("INSERT INTO person SELECT x, 'Person ' || x FROM system_range(1, 20)");
+        }
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Rows are returned ordered by id for unsorted ids, duplicates are loaded once")
+    void unsortedAndDuplicateIds() throws SQLException {
+        List<Person> persons = findAllByIds(createFinder(10), 7, 3, 7, 1, 3);
+
+        assertThat(persons).extracting(Person::id).containsExactly(1L, 3L, 7L);
+        assertThat(persons).extracting(Person::name).containsExactly("Person 1", "Person 3", "Person 7");
+        assertThat(preparedSql).containsExactly("SELECT * FROM person WHERE id IN (?, ?, ?) ORDER BY id");
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Ids that are not found are skipped")
+    void missingIdsAreSkipped() throws SQLException {
+        List<Person> persons = findAllByIds(createFinder(10), 100, 2, -1, 20, 21);
+
+        assertThat(persons).extracting(Person::id).containsExactly(2L, 20L);
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Exactly one full chunk is loaded with a single statement")
+    void exactlyOneFullChunk() throws SQLException {
+        List<Person> persons = findAllByIds(createFinder(3), 3, 2, 1);
+
+        assertThat(persons).extracting(Person::id).containsExactly(1L, 2L, 3L);
+        assertThat(preparedSql).containsExactly("SELECT * FROM person WHERE id IN (?, ?, ?) ORDER BY id");
+        verify(statements.get(0), times(1)).executeQuery();
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Full chunks reuse one statement, and the remainder is loaded with a separate statement")
+    void fullChunksAndRemainder() throws SQLException {
+        List<Person> persons = findAllByIds(createFinder(3), 8, 7, 6, 5, 4, 3, 2, 1);
+
+        assertThat(persons).extracting(Person::id).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L);
+        assertThat(preparedSql).containsExactly(
+                "SELECT * FROM person WHERE id IN (?, ?, ?) ORDER BY id",
+                "SELECT * FROM person WHERE id IN (?, ?) ORDER BY id");
+        verify(statements.get(0), times(2)).executeQuery();
+        verify(statements.get(0)).close();
+        verify(statements.get(1), times(1)).executeQuery();
+        verify(statements.get(1)).close();
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Empty array makes no database calls")
+    void emptyArray() throws SQLException {
+        Connection connection = mock(Connection.class);
+
+        assertThat(createFinder(3).findAllByIds(connection, new long[0])).isEmpty();
+
+        verifyNoInteractions(connection);
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Caller's array is not modified")
+    void idsAreNotModified() throws SQLException {
+        long[] ids = {5, 1, 5, 3};
+
+        try (Connection connection = DATA_SOURCE.getConnection()) {
+            assertThat(createFinder(2).findAllByIds(connection, ids)).hasSize(3);
+        }
+
+        assertThat(ids).containsExactly(5, 1, 5, 3);
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("Chunk size should be positive")
+    void chunkSizeShouldBePositive() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> createFinder(0))
+                .withMessage("Chunk size should be positive");
+    }
+
+    private static BatchFinder<Person> createFinder(int chunkSize) {
+        return new BatchFinder<>("SELECT * FROM person", "id", PERSON_MAPPER, chunkSize);
+    }
+
+    private List<Person> findAllByIds(BatchFinder<Person> finder, long... ids) throws SQLException {
+        try (Connection connection = spy(DATA_SOURCE.getConnection())) {
+            doAnswer(prepareStatement -> {
+                preparedSql.add(prepareStatement.getArgument(0));
+                PreparedStatement statement = spy((PreparedStatement) prepareStatement.callRealMethod());
+                statements.add(statement);
+                return statement;
+            }).when(connection).prepareStatement(anyString());
+            return finder.findAllByIds(connection, ids);
+        }
+    }
+
+    private record Person(long id, String name) {
+    }
+}
@@ -0,0 +1,161 @@
+package com.bobocode.util;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@TestMethodOrder(OrderAnnotation.class)
+class BatchInserterTest {
+    private static final DataSource DATA_SOURCE = JdbcUtil.createInMemoryH2DataSource(
+            "jdbc:h2:mem:batch_inserter_test;DB_CLOSE_DELAY=-1", "sa", "");
+    private static final RowBinder<String> NAME_BINDER =
+            (statement, parameterOffset, name) -> statement.setString(parameterOffset + 1, name);
+
+    private final List<String> preparedSql = new ArrayList<>();
+
+    @BeforeEach
+    @SneakyThrows
+    void createTable() {
+        try (Connection connection = DATA_SOURCE.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS person");
+            statement.execute("CREATE TABLE person(id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255))");
+            // ids that do not match the input positions, so the test notices if they are assigned out of order
+            statement.execute("ALTER TABLE person ALTER COLUMN id RESTART WITH 100");
+        }
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Generated ids are passed back in the input order, the last partial chunk is inserted too")
+    void generatedIdsAreAssignedInInputOrder() throws SQLException {
+        List<String> names = createNames(7);
+        Map<String, Long> ids = new LinkedHashMap<>();
+
+        insertAll(new BatchInserter<>("person", List.of("name"), "id", NAME_BINDER, 3), names, ids);
+
+        assertThat(ids.keySet()).containsExactlyElementsOf(names);
+        assertThat(List.copyOf(ids.values())).startsWith(100L).isSorted();
+        assertThat(ids).isEqualTo(findIdsByName());
+        assertThat(preparedSql).containsExactly(
+                "INSERT INTO person(name) VALUES (?), (?), (?)",
+                "INSERT INTO person(name) VALUES (?)");
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Exact multiple of the batch size is inserted with the full chunk statement only")
+    void exactMultipleOfBatchSize() throws SQLException {
+        List<String> names = createNames(6);
+        Map<String, Long> ids = new LinkedHashMap<>();
+
+        insertAll(new BatchInserter<>("person", List.of("name"), "id", NAME_BINDER, 3), names, ids);
+
+        assertThat(ids).hasSize(6).isEqualTo(findIdsByName());
+        assertThat(preparedSql).containsExactly("INSERT INTO person(name) VALUES (?), (?), (?)");
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Batch size is capped by the max number of parameters per statement")
+    void batchSizeIsCappedByParameterLimit() throws SQLException {
+        int maxRows = BatchInserter.MAX_PARAMETERS_PER_STATEMENT / 2;
+        RowBinder<String> binder = (statement, parameterOffset, name) -> {
+            statement.setString(parameterOffset + 1, name);
+            statement.setString(parameterOffset + 2, name);
+        };
+        try (Connection connection = DATA_SOURCE.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE person ADD COLUMN nickname VARCHAR(255)");
+        }
+        List<String> names = createNames(maxRows + 1);
+        Map<String, Long> ids = new LinkedHashMap<>();
+
+        insertAll(new BatchInserter<>("person", List.of("name", "nickname"), "id", binder, 100_000), names, ids);
+
+        assertThat(ids).hasSize(maxRows + 1);
+        assertThat(preparedSql).hasSize(2);
+        assertThat(preparedSql.get(0).split("\\?", -1)).hasSize(maxRows * 2 + 1);
+        assertThat(preparedSql.get(1)).isEqualTo("INSERT INTO person(name, nickname) VALUES (?, ?)");
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Empty input makes no database calls")
+    void emptyInput() throws SQLException {
+        Connection connection = mock(Connection.class);
+
+        new BatchInserter<>("person", List.of("name"), "id", NAME_BINDER, 3)
+                .insertAll(connection, Collections.emptyList(), (name, id) -> {
+                    throw new AssertionError("No ids are expected");
+                });
+
+        verifyNoInteractions(connection);
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Batch size should be positive and at least one column should be inserted")
+    void invalidArguments() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> new BatchInserter<>("person", List.of("name"), "id", NAME_BINDER, 0))
+                .withMessage("Batch size should be positive");
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> new BatchInserter<>("person", List.of(), "id", NAME_BINDER, 3))
+                .withMessage("At least one column should be inserted");
+    }
+
+    private void insertAll(BatchInserter<String> inserter, List<String> names, Map<String, Long> ids)
+            throws SQLException {
+        try (Connection connection = spy(DATA_SOURCE.getConnection())) {
+            doAnswer(prepareStatement -> {
+                preparedSql.add(prepareStatement.getArgument(0));
+                return prepareStatement.callRealMethod();
+            }).when(connection).prepareStatement(anyString(), any(String[].class));
+            inserter.insertAll(connection, names, ids::put);
+        }
+    }
+
+    private static List<String> createNames(int count) {
+        return IntStream.rangeClosed(1, count).mapToObj(i -> "Person " + i).toList();
+    }
+
+    @SneakyThrows
+    private static Map<String, Long> findIdsByName() {
+        try (Connection connection = DATA_SOURCE.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT name, id FROM person ORDER BY id")) {
+            Map<String, Long> ids = new LinkedHashMap<>();
+            while (resultSet.next()) {
+                ids.put(resultSet.getString(1), resultSet.getLong(2));
+            }
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.bobocode.util;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@TestMethodOrder(OrderAnnotation.class)
+class BulkLoaderTest {
+    private static final DataSource DATA_SOURCE = JdbcUtil.createInMemoryH2DataSource(
+            "jdbc:h2:mem:bulk_loader_test;DB_CLOSE_DELAY=-1", "sa", "");
+    private static final List<String> COLUMNS = List.of("id", "name", "birthday", "score");
+
+    @BeforeEach
+    @SneakyThrows
+    void createTable() {
+        try (Connection connection = DATA_SOURCE.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS person");
+            statement.execute("CREATE TABLE person(id BIGINT PRIMARY KEY, name VARCHAR(255), birthday DATE, "
+                    + "score DECIMAL(10, 2))");
+        }
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Rows are inserted with JDBC batches on H2, including null values")
+    void rowsAreInsertedOnH2() throws SQLException {
+        List<Person> persons = List.of(
+                new Person(1L, "Andrii", LocalDate.of(1990, 5, 17), new BigDecimal("99.50")),
+                new Person(2L, null, null, null),
+                new Person(3L, "Тарас\tШевченко", LocalDate.of(1814, 3, 9), new BigDecimal("-0.01")));
+
+        long rowCount = load(createLoader(2), persons);
+
+        assertThat(rowCount).isEqualTo(3);
+        assertThat(findPersons()).containsExactlyElementsOf(persons);
+    }
+
+    @ParameterizedTest(name = "{0} rows, batch size {1}")
+    @Order(2)
+    @DisplayName("Rows are sent in full batches, and the rest in the last one")
+    @CsvSource({"7, 3, 3", "6, 3, 2", "1, 3, 1", "3, 1, 3", "0, 3, 0"})
+    void rowsAreSentInBatches(int rowCount, int batchSize, int batchCount) throws SQLException {
+        List<Person> persons = IntStream.rangeClosed(1, rowCount)
+                .mapToObj(id -> new Person((long) id, "Person " + id, null, null))
+                .toList();
+        List<PreparedStatement> statements = new ArrayList<>();
+
+        try (Connection connection = spy(DATA_SOURCE.getConnection())) {
+            doAnswer(prepareStatement -> {
+                PreparedStatement statement = spy((PreparedStatement) prepareStatement.callRealMethod());
+                statements.add(statement);
+                return statement;
+            }).when(connection).prepareStatement(anyString());
+
+            assertThat(createLoader(batchSize).load(connection, persons.iterator())).isEqualTo(rowCount);
+        }
+
+        assertThat(statements).hasSize(1);
+        verify(statements.get(0), times(rowCount)).addBatch();
+        verify(statements.get(0), times(batchCount)).executeBatch();
+        verify(statements.get(0)).close();
+        assertThat(findPersons()).containsExactlyElementsOf(persons);
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Failed batch is reported with SQLException, the rows of the previous batches stay inserted")
+    void failedBatchIsReported() throws SQLException {
+        List<Person> persons = List.of(
+                new Person(1L, "Andrii", null, null),
+                new Person(2L, "Taras", null, null),
+                new Person(1L, "Ivan", null, null));
+
+        try (Connection connection = DATA_SOURCE.getConnection()) {
+            assertThatExceptionOfType(SQLException.class)
+                    .isThrownBy(() -> createLoader(2).load(connection, persons.iterator()));
+        }
+
+        assertThat(findPersons()).extracting(Person::name).containsExactly("Andrii", "Taras");
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Batch size should be positive")
+    void batchSizeShouldBePositive() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> new BulkLoader<Person>("person", COLUMNS, Person::values,
+                        BulkLoader.Format.TEXT, 0))
+                .withMessage("Batch size should be positive");
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Empty iterator loads nothing")
+    void emptyIterator() throws SQLException {
+        assertThat(load(createLoader(3), Collections.emptyList())).isZero();
+        assertThat(findPersons()).isEmpty();
+    }
+
+    private static BulkLoader<Person> createLoader(int batchSize) {
+        return new BulkLoader<>("person", COLUMNS, Person::values, BulkLoader.Format.BINARY, batchSize);
+    }
+
+    private static long load(BulkLoader<Person> loader, List<Person> persons) throws SQLException {
+        try (Connection connection = DATA_SOURCE.getConnection()) {
+            return loader.load(connection, persons.iterator());
+        }
+    }
+
+    @SneakyThrows
+    private static List<Person> findPersons() {
+        try (Connection connection = DATA_SOURCE.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT * FROM person ORDER BY id")) {
+            List<Person> persons = new ArrayList<>();
+            while (resultSet.next()) {
+                persons.add(new Person(resultSet.getLong("id"), resultSet.getString("name"),
+                        resultSet.getObject("birthday", LocalDate.class), resultSet.getBigDecimal("score")));
+            }
+            return persons;
+        }
+    }
+
+    private record Person(Long id, String name, LocalDate birthday, BigDecimal score) {
+        Object[] values() {
+            return new Object[]{id, name, birthday, score};
+        }
+    }
+}
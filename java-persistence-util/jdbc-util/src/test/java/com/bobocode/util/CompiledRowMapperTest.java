@@ -0,0 +1,261 @@
+package com.bobocode.util;
+
+import lombok.Data;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@TestMethodOrder(OrderAnnotation.class)
+class CompiledRowMapperTest {
+    private static final DataSource DATA_SOURCE = JdbcUtil.createInMemoryH2DataSource(
+            "jdbc:h2:mem:compiled_row_mapper_test;DB_CLOSE_DELAY=-1", "sa", "");
+
+    @BeforeAll
+    @SneakyThrows
+    static void createTable() {
+        try (Connection connection = DATA_SOURCE.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE product(
+                        id              BIGINT PRIMARY KEY,
+                        name            VARCHAR(255),
+                        quantity        INT,
+                        rating          DOUBLE PRECISION,
+                        active          BOOLEAN,
+                        price           DECIMAL(10, 2),
+                        expiration_date DATE,
+                        created_at      TIMESTAMP,
+                        category        VARCHAR(255),
+                        photo           VARBINARY(255),
+                        comment         VARCHAR(255)
+                    )""");
+            statement.execute("""
+                    INSERT INTO product VALUES
+                        (1, 'Banana', 12, 4.5, TRUE, 19.99, DATE '2024-02-29', TIMESTAMP '2024-02-01 10:15:30.5',
+                            'FRUIT', X'0aff', 'ripe'),
+                        (2, NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL, NULL)""");
+            statement.execute("CREATE TABLE row_number(id BIGINT PRIMARY KEY, name VARCHAR(255))");
+            statement.execute("INSERT INTO row_number SELECT x, 'Row ' || x FROM system_range(1, 1000)");
+        }
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Columns are mapped to primitive setters")
+    void primitiveSetters() {
+        Product product = queryFirst(CompiledRowMapper.of(Product.class), "SELECT * FROM product WHERE id = 1");
+
+        assertThat(product.getId()).isEqualTo(1L);
+        assertThat(product.getQuantity()).isEqualTo(12);
+        assertThat(product.getRating()).isEqualTo(4.5);
+        assertThat(product.isActive()).isTrue();
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Columns are mapped to boxed setters")
+    void boxedSetters() {
+        ProductView product = queryFirst(CompiledRowMapper.of(ProductView.class), "SELECT * FROM product WHERE id = 1");
+
+        assertThat(product.getId()).isEqualTo(1L);
+        assertThat(product.getQuantity()).isEqualTo(12);
+        assertThat(product.getRating()).isEqualTo(4.5);
+        assertThat(product.getActive()).isTrue();
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Dates, timestamps, decimals, enums, byte arrays and strings are mapped to their types")
+    void objectSetters() {
+        Product product = queryFirst(CompiledRowMapper.of(Product.class), "SELECT * FROM product WHERE id = 1");
+
+        assertThat(product.getName()).isEqualTo("Banana");
+        assertThat(product.getPrice()).isEqualTo(new BigDecimal("19.99"));
+        assertThat(product.getExpirationDate()).isEqualTo(LocalDate.of(2024, 2, 29));
+        assertThat(product.getCreatedAt()).isEqualTo(LocalDateTime.of(2024, 2, 1, 10, 15, 30, 500_000_000));
+        assertThat(product.getCategory()).isEqualTo(Category.FRUIT);
+        assertThat(product.getPhoto()).containsExactly(0x0a, 0xff);
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Null columns leave primitives with default values and set other properties to null")
+    void nullColumns() {
+        Product product = queryFirst(CompiledRowMapper.of(Product.class), "SELECT * FROM product WHERE id = 2");
+        ProductView view = queryFirst(CompiledRowMapper.of(ProductView.class), "SELECT * FROM product WHERE id = 2");
+
+        assertThat(product.getQuantity()).isZero();
+        assertThat(product.getRating()).isZero();
+        assertThat(product.isActive()).isFalse();
+        assertThat(product.getName()).isNull();
+        assertThat(product.getPrice()).isNull();
+        assertThat(product.getExpirationDate()).isNull();
+        assertThat(product.getCreatedAt()).isNull();
+        assertThat(product.getCategory()).isNull();
+        assertThat(product.getPhoto()).isNull();
+        assertThat(view.getQuantity()).isNull();
+        assertThat(view.getRating()).isNull();
+        assertThat(view.getActive()).isNull();
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Columns are matched by label ignoring case and underscores, unmatched ones are skipped")
+    void unmatchedColumnsAndSetters() {
+        ProductView product = queryFirst(CompiledRowMapper.of(ProductView.class),
+                "SELECT id, comment, expiration_date AS \"Expiration_Date\", 'x' AS extra FROM product WHERE id = 1");
+
+        assertThat(product.getId()).isEqualTo(1L);
+        assertThat(product.getExpirationDate()).isEqualTo(LocalDate.of(2024, 2, 29));
+        assertThat(product.getQuantity()).isNull();
+        assertThat(product.getRating()).isNull();
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Mapper resolves column indexes once per result set, and again for another result set")
+    void mapperIsReusedAcrossResultSets() throws SQLException {
+        CompiledRowMapper<ProductView> mapper = CompiledRowMapper.of(ProductView.class);
+
+        try (Connection connection = DATA_SOURCE.getConnection();
+             Statement firstStatement = connection.createStatement();
+             Statement secondStatement = connection.createStatement();
+             ResultSet first = spy(firstStatement.executeQuery("SELECT id, quantity FROM product ORDER BY id"));
+             ResultSet second = spy(secondStatement.executeQuery(
+                     "SELECT id AS quantity, quantity AS id FROM product WHERE id = 1"))) {
+            first.next();
+            second.next();
+            assertThat(mapper.mapRow(first).getQuantity()).isEqualTo(12);
+            assertThat(mapper.mapRow(second).getQuantity()).isEqualTo(1);
+            assertThat(mapper.mapRow(second).getId()).isEqualTo(12L);
+            first.next();
+            assertThat(mapper.mapRow(first).getId()).isEqualTo(2L);
+
+            verify(first, times(2)).getMetaData();
+            verify(second, times(1)).getMetaData();
+        }
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("Mapper shared by threads that read different result sets maps every row correctly")
+    void sharedMapperMapsRowsCorrectly() throws Exception {
+        CompiledRowMapper<RowNumber> mapper = CompiledRowMapper.of(RowNumber.class);
+        CountDownLatch start = new CountDownLatch(1);
+        Callable<List<RowNumber>> query = () -> {
+            start.await();
+            return queryAll(mapper, "SELECT name, id FROM row_number ORDER BY id");
+        };
+        Callable<List<RowNumber>> reversedQuery = () -> {
+            start.await();
+            return queryAll(mapper, "SELECT id, name FROM row_number ORDER BY id DESC");
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<RowNumber>> rows = executor.submit(query);
+            Future<List<RowNumber>> reversedRows = executor.submit(reversedQuery);
+            start.countDown();
+
+            assertThat(rows.get(10, TimeUnit.SECONDS))
+                    .hasSize(1000)
+                    .allMatch(row -> row.getName().equals("Row " + row.getId()));
+            assertThat(reversedRows.get(10, TimeUnit.SECONDS))
+                    .hasSize(1000)
+                    .allMatch(row -> row.getName().equals("Row " + row.getId()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("Class without a no-arg constructor is rejected")
+    void classWithoutNoArgConstructor() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> CompiledRowMapper.of(Immutable.class))
+                .withMessage("Class %s has no no-arg constructor", Immutable.class.getName());
+    }
+
+    @SneakyThrows
+    private static <T> T queryFirst(RowMapper<T> mapper, String sql) {
+        List<T> rows = queryAll(mapper, sql);
+        assertThat(rows).isNotEmpty();
+        return rows.get(0);
+    }
+
+    private static <T> List<T> queryAll(RowMapper<T> mapper, String sql) throws SQLException {
+        try (Connection connection = DATA_SOURCE.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            List<T> rows = new ArrayList<>();
+            while (resultSet.next()) {
+                rows.add(mapper.mapRow(resultSet));
+            }
+            return rows;
+        }
+    }
+
+    enum Category {
+        FRUIT, VEGETABLE
+    }
+
+    @Data
+    public static class Product {
+        private long id;
+        private String name;
+        private int quantity;
+        private double rating;
+        private boolean active;
+        private BigDecimal price;
+        private LocalDate expirationDate;
+        private LocalDateTime createdAt;
+        private Category category;
+        private byte[] photo;
+    }
+
+    @Data
+    public static class ProductView {
+        private Long id;
+        private Integer quantity;
+        private Double rating;
+        private Boolean active;
+        private LocalDate expirationDate;
+    }
+
+    @Data
+    public static class RowNumber {
+        private long id;
+        private String name;
+    }
+
+    public record Immutable(long id) {
+    }
+}
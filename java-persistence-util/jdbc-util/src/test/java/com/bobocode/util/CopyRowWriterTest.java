@@ -0,0 +1,164 @@
+package com.bobocode.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+import static org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+
+@TestMethodOrder(OrderAnnotation.class)
+class CopyRowWriterTest {
+    private static final String BINARY_HEADER = "5047434f50590aff0d0a00" + "00000000" + "00000000";
+    private static final String BINARY_TRAILER = "ffff";
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final DataOutputStream output = new DataOutputStream(bytes);
+
+    @Test
+    @Order(1)
+    @DisplayName("Text values are separated by tabs, and tabs, line breaks and backslashes inside them are escaped")
+    void textValuesAreEscaped() throws IOException {
+        CopyRowWriter writer = CopyRowWriter.text(output, 6);
+
+        writer.writeHeader();
+        writer.writeRow(new Object[]{"a\tb", "line1\nline2", "cr\r", "C:\\dir", "Київ", 42});
+        writer.writeTrailer();
+
+        assertThat(writtenText()).isEqualTo("a\\tb\tline1\\nline2\tcr\\r\tC:\\\\dir\tКиїв\t42\n");
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Null is written as \\N, and the text \\N is escaped, so they differ")
+    void nullDiffersFromBackslashN() throws IOException {
+        CopyRowWriter writer = CopyRowWriter.text(output, 2);
+
+        writer.writeRow(new Object[]{null, "\\N"});
+        writer.writeRow(new Object[]{"", null});
+
+        assertThat(writtenText()).isEqualTo("\\N\t\\\\N\n\t\\N\n");
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Decimals, booleans and byte arrays are written in the text representation of PostgreSQL")
+    void textRepresentationOfValues() throws IOException {
+        CopyRowWriter writer = CopyRowWriter.text(output, 5);
+
+        writer.writeRow(new Object[]{new BigDecimal("1E+3"), true, false, new byte[]{0x0a, (byte) 0xff},
+                LocalDate.of(2024, 2, 29)});
+
+        assertThat(writtenText()).isEqualTo("1000\tt\tf\t\\\\x0aff\t2024-02-29\n");
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Binary row is written between the header and the trailer")
+    void binaryRowMatchesGoldenBytes() throws IOException {
+        CopyRowWriter writer = CopyRowWriter.binary(output, 3);
+
+        writer.writeHeader();
+        writer.writeRow(new Object[]{1, null, "ї"});
+        writer.writeTrailer();
+
+        assertThat(bytes.toByteArray()).isEqualTo(HexFormat.of().parseHex(BINARY_HEADER
+                + "0003"
+                + "00000004" + "00000001"
+                + "ffffffff"
+                + "00000002" + "d197"
+                + BINARY_TRAILER));
+    }
+
+    static Stream<Arguments> binaryValues() {
+        return Stream.of(
+                Arguments.of((short) 1, "00000002" + "0001"),
+                Arguments.of(-2, "00000004" + "fffffffe"),
+                Arguments.of(3L, "00000008" + "0000000000000003"),
+                Arguments.of(1.5f, "00000004" + "3fc00000"),
+                Arguments.of(1.0, "00000008" + "3ff0000000000000"),
+                Arguments.of(true, "00000001" + "01"),
+                Arguments.of(false, "00000001" + "00"),
+                // ndigits 2, weight 0, positive sign, dscale 1, base 10000 digits 12 and 5000
+                Arguments.of(new BigDecimal("12.5"), "0000000c" + "0002" + "0000" + "0000" + "0001" + "000c" + "1388"),
+                Arguments.of(new BigDecimal("-10000"), "0000000a" + "0001" + "0001" + "4000" + "0000" + "0001"),
+                // zero has no digits, pgjdbc sends weight -1 for it, which the server ignores
+                Arguments.of(BigInteger.ZERO, "00000008" + "0000" + "ffff" + "0000" + "0000"),
+                Arguments.of("", "00000000"),
+                Arguments.of(Format.BINARY, "00000006" + "42494e415259"),
+                Arguments.of(new byte[]{0x0a, (byte) 0xff}, "00000002" + "0aff"),
+                Arguments.of(new UUID(1, 2), "00000010" + "0000000000000001" + "0000000000000002"),
+                Arguments.of(LocalDate.of(2000, 1, 2), "00000004" + "00000001"),
+                Arguments.of(LocalDate.of(1999, 12, 31), "00000004" + "ffffffff"),
+                Arguments.of(Date.valueOf("2000-01-02"), "00000004" + "00000001"),
+                Arguments.of(LocalDateTime.of(2000, 1, 1, 0, 0, 1), "00000008" + "00000000000f4240"),
+                Arguments.of(Timestamp.valueOf("1999-12-31 23:59:59"), "00000008" + "fffffffffff0bdc0"),
+                Arguments.of(Instant.parse("2000-01-01T00:00:00.000001Z"), "00000008" + "0000000000000001"),
+                Arguments.of(OffsetDateTime.of(2000, 1, 1, 2, 0, 0, 0, ZoneOffset.ofHours(2)),
+                        "00000008" + "0000000000000000"));
+    }
+
+    @ParameterizedTest(name = "[{index}] {0}")
+    @Order(5)
+    @DisplayName("Binary values are written as their length and the PostgreSQL binary representation")
+    @MethodSource("binaryValues")
+    void binaryValueMatchesGoldenBytes(Object value, String expectedHex) throws IOException {
+        CopyRowWriter writer = CopyRowWriter.binary(output, 1);
+
+        writer.writeRow(new Object[]{value});
+
+        assertThat(HexFormat.of().formatHex(bytes.toByteArray())).isEqualTo("0001" + expectedHex);
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Type without a binary representation is rejected")
+    void unsupportedBinaryType() {
+        CopyRowWriter writer = CopyRowWriter.binary(output, 1);
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> writer.writeRow(new Object[]{new StringBuilder("text")}))
+                .withMessage("Type java.lang.StringBuilder is not supported by binary COPY");
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("Row with a wrong number of values is rejected")
+    void wrongNumberOfValues() {
+        CopyRowWriter writer = CopyRowWriter.text(output, 2);
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> writer.writeRow(new Object[]{1, 2, 3}))
+                .withMessage("Expected 2 values of a row, but got 3");
+    }
+
+    private String writtenText() {
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    private enum Format {
+        BINARY
+    }
+}
@@ -0,0 +1,62 @@
+package com.bobocode.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+import static org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+
+@TestMethodOrder(OrderAnnotation.class)
+class FileReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @Order(1)
+    @DisplayName("Resource packed into a jar on the classpath is read as a whole")
+    void readsResourceFromJar() throws Exception {
+        Path jar = SqlScriptReaderTest.createJar(tempDir.resolve("resources.jar"), "db/init.sql",
+                "CREATE TABLE міста(id INT);\r\nINSERT INTO міста VALUES (1);\n");
+
+        assertThat(readWholeFileWithClasspath(jar, "db/init.sql"))
+                .isEqualTo("CREATE TABLE міста(id INT);\nINSERT INTO міста VALUES (1);");
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Missing resource is reported with FileReaderException")
+    void missingResource() {
+        assertThatExceptionOfType(FileReaderException.class)
+                .isThrownBy(() -> FileReader.readWholeFileFromResources("db/missing.sql"))
+                .withMessage("Cannot find file db/missing.sql in resources");
+    }
+
+    /**
+     * Loads {@link FileReader} with a class loader that has only the compiled jdbc-util classes and the given jar
+     * on its classpath, so the resource can only be found in the jar.
+     */
+    private static String readWholeFileWithClasspath(Path jar, String fileName) throws Exception {
+        URL classesUrl = FileReader.class.getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classesUrl, jar.toUri().toURL()}, null)) {
+            Class<?> isolatedFileReader = classLoader.loadClass(FileReader.class.getName());
+            assertThat(isolatedFileReader).isNotSameAs(FileReader.class);
+            Method readMethod = isolatedFileReader.getMethod("readWholeFileFromResources", String.class);
+            try {
+                return (String) readMethod.invoke(null, fileName);
+            } catch (InvocationTargetException e) {
+                throw (Exception) e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.bobocode.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+import static org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+
+@TestMethodOrder(OrderAnnotation.class)
+class MappedFileReaderTest {
+    /**
+     * 1-byte ASCII, 2-byte Cyrillic, 3-byte CJK and 4-byte emoji characters, the emoji is a surrogate pair in Java
+     */
+    private static final String MIXED_TEXT = "SELECT 'Київ 東京 🚀 ok';\n".repeat(20);
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest(name = "region size {0}, read buffer {1}")
+    @Order(1)
+    @DisplayName("Multibyte characters split between regions are decoded correctly")
+    @CsvSource({"4, 1", "4, 2", "5, 3", "6, 1", "7, 16", "13, 8192", "64, 5"})
+    void multibyteCharactersAcrossRegions(long regionSize, int bufferSize) throws IOException {
+        Path file = writeFile(MIXED_TEXT);
+
+        try (MappedFileReader reader = new MappedFileReader(file, regionSize)) {
+            assertThat(readAll(reader, bufferSize)).isEqualTo(MIXED_TEXT);
+        }
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Surrogate pair is returned by two single-character reads")
+    void surrogatePairBySingleCharacterReads() throws IOException {
+        Path file = writeFile("🚀");
+
+        try (MappedFileReader reader = new MappedFileReader(file, 4)) {
+            assertThat(reader.read()).isEqualTo(0xD83D);
+            assertThat(reader.read()).isEqualTo(0xDE80);
+            assertThat(reader.read()).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Empty file has no characters")
+    void emptyFile() throws IOException {
+        Path file = writeFile("");
+
+        try (MappedFileReader reader = new MappedFileReader(file, 4)) {
+            assertThat(reader.read(new char[8], 0, 8)).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Region smaller than the longest UTF-8 character is rejected")
+    void tooSmallRegion() throws IOException {
+        Path file = writeFile("abc");
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> new MappedFileReader(file, 3));
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Malformed UTF-8 input is reported")
+    void malformedInput() throws IOException {
+        Path file = tempDir.resolve("malformed.sql");
+        Files.write(file, new byte[]{'a', (byte) 0xC3});
+
+        try (MappedFileReader reader = new MappedFileReader(file, 4)) {
+            assertThatExceptionOfType(MalformedInputException.class)
+                    .isThrownBy(() -> readAll(reader, 8));
+        }
+    }
+
+    private Path writeFile(String content) throws IOException {
+        return Files.writeString(tempDir.resolve("script.sql"), content, StandardCharsets.UTF_8);
+    }
+
+    private static String readAll(Reader reader, int bufferSize) throws IOException {
+        StringBuilder text = new StringBuilder();
+        char[] buffer = new char[bufferSize];
+        int read;
+        while ((read = reader.read(buffer, 0, bufferSize)) != -1) {
+            assertThat(read).isPositive();
+            text.append(buffer, 0, read);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,206 @@
+package com.bobocode.util;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+@TestMethodOrder(OrderAnnotation.class)
+class MigrationRunnerTest {
+    private static final DataSource DATA_SOURCE = JdbcUtil.createInMemoryH2DataSource(
+            "jdbc:h2:mem:migration_runner_test;DB_CLOSE_DELAY=-1", "sa", "");
+    private static final String CREATE_ACCOUNT = "db/migration/V1__create_account.sql";
+    private static final String INSERT_ACCOUNTS = "db/migration/V2__insert_accounts.sql";
+    private static final String BROKEN = "db/migration/V3__broken.sql";
+
+    @BeforeEach
+    @SneakyThrows
+    void dropAllObjects() {
+        try (Connection connection = DATA_SOURCE.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Scripts are applied in the given order and recorded with their checksums")
+    void scriptsAreAppliedAndRecorded() throws SQLException {
+        int appliedCount = new MigrationRunner(DATA_SOURCE).migrate(CREATE_ACCOUNT, INSERT_ACCOUNTS);
+
+        assertThat(appliedCount).isEqualTo(2);
+        assertThat(queryStrings("SELECT email FROM account ORDER BY id"))
+                .containsExactly("andrii@bobocode.com", "taras@bobocode.com");
+        assertThat(queryStrings("SELECT script FROM schema_history ORDER BY applied_at, script"))
+                .containsExactly(CREATE_ACCOUNT, INSERT_ACCOUNTS);
+        assertThat(queryStrings("SELECT checksum FROM schema_history WHERE checksum <= 0")).isEmpty();
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Applied scripts are skipped, a second migrate returns 0")
+    void appliedScriptsAreSkipped() throws SQLException {
+        MigrationRunner migrationRunner = new MigrationRunner(DATA_SOURCE);
+        migrationRunner.migrate(CREATE_ACCOUNT);
+
+        assertThat(migrationRunner.migrate(CREATE_ACCOUNT, INSERT_ACCOUNTS)).isEqualTo(1);
+        assertThat(migrationRunner.migrate(CREATE_ACCOUNT, INSERT_ACCOUNTS)).isZero();
+        assertThat(queryStrings("SELECT email FROM account ORDER BY id")).hasSize(2);
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Script that was changed after it had been applied is reported with MigrationException")
+    void changedScriptIsReported() throws SQLException {
+        MigrationRunner migrationRunner = new MigrationRunner(DATA_SOURCE);
+        migrationRunner.migrate(CREATE_ACCOUNT);
+        long checksum = Long.parseLong(queryStrings("SELECT checksum FROM schema_history").get(0));
+        execute("UPDATE schema_history SET checksum = 42");
+
+        assertThatExceptionOfType(MigrationException.class)
+                .isThrownBy(() -> migrationRunner.migrate(CREATE_ACCOUNT, INSERT_ACCOUNTS))
+                .withMessage("Script %s was changed after it had been applied (checksum %d, applied 42)",
+                        CREATE_ACCOUNT, checksum);
+        assertThat(queryStrings("SELECT email FROM account")).isEmpty();
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Failed script is rolled back and not recorded, the scripts before it stay applied")
+    void failedScriptIsNotRecorded() throws SQLException {
+        MigrationRunner migrationRunner = new MigrationRunner(DATA_SOURCE);
+
+        assertThatExceptionOfType(SqlScriptException.class)
+                .isThrownBy(() -> migrationRunner.migrate(CREATE_ACCOUNT, INSERT_ACCOUNTS, BROKEN))
+                .satisfies(e -> assertThat(e.getLineNumber()).isEqualTo(3));
+        assertThat(queryStrings("SELECT email FROM account ORDER BY id"))
+                .containsExactly("andrii@bobocode.com", "taras@bobocode.com");
+        assertThat(queryStrings("SELECT script FROM schema_history"))
+                .containsExactlyInAnyOrder(CREATE_ACCOUNT, INSERT_ACCOUNTS);
+        assertThat(migrationRunner.migrate(CREATE_ACCOUNT, INSERT_ACCOUNTS)).isZero();
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Missing history table is detected by the metadata, not by a failed query")
+    void missingHistoryTableIsDetectedByMetadata() throws SQLException {
+        List<String> executedSql = new CopyOnWriteArrayList<>();
+
+        new MigrationRunner(createSpiedDataSource(executedSql), "migration_history").migrate(CREATE_ACCOUNT);
+
+        assertThat(executedSql.get(0)).startsWith("CREATE TABLE IF NOT EXISTS migration_history");
+        assertThat(queryStrings("SELECT script FROM migration_history")).containsExactly(CREATE_ACCOUNT);
+        assertThat(queryStrings("SELECT count(*) FROM information_schema.tables WHERE table_name = 'SCHEMA_HISTORY'"))
+                .containsExactly("0");
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Nodes that start at the same time apply every script once")
+    void concurrentMigrationsApplyScriptsOnce() throws Exception {
+        int nodeCount = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(nodeCount);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < nodeCount; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return new MigrationRunner(DATA_SOURCE).migrate(CREATE_ACCOUNT, INSERT_ACCOUNTS);
+                }));
+            }
+            start.countDown();
+
+            int appliedCount = 0;
+            for (Future<Integer> result : results) {
+                appliedCount += result.get(10, TimeUnit.SECONDS);
+            }
+            assertThat(appliedCount).isEqualTo(2);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(queryStrings("SELECT email FROM account")).hasSize(2);
+        assertThat(queryStrings("SELECT script FROM schema_history")).hasSize(2);
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("History table name is validated")
+    void historyTableNameIsValidated() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> new MigrationRunner(DATA_SOURCE, "history; DROP TABLE account"))
+                .withMessage("Invalid history table name: history; DROP TABLE account");
+    }
+
+    /**
+     * Creates a data source that records the SQL of plain statements, i.e. of all queries except the parameterized
+     * ones
+     */
+    private static DataSource createSpiedDataSource(List<String> executedSql) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenAnswer(invocation -> {
+            Connection connection = spy(DATA_SOURCE.getConnection());
+            doAnswer(createStatement -> {
+                Statement statement = spy((Statement) createStatement.callRealMethod());
+                doAnswer(execute -> {
+                    executedSql.add(execute.getArgument(0));
+                    return execute.callRealMethod();
+                }).when(statement).execute(anyString());
+                doAnswer(executeQuery -> {
+                    executedSql.add(executeQuery.getArgument(0));
+                    return executeQuery.callRealMethod();
+                }).when(statement).executeQuery(anyString());
+                return statement;
+            }).when(connection).createStatement();
+            return connection;
+        });
+        return dataSource;
+    }
+
+    @SneakyThrows
+    private static void execute(String sql) {
+        try (Connection connection = DATA_SOURCE.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    @SneakyThrows
+    private static List<String> queryStrings(String sql) {
+        try (Connection connection = DATA_SOURCE.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            List<String> values = new ArrayList<>();
+            while (resultSet.next()) {
+                values.add(resultSet.getString(1));
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.bobocode.util;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import javax.sql.DataSource;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+@TestMethodOrder(OrderAnnotation.class)
+class ParallelSchemaInitializerTest {
+    private static final DataSource DATA_SOURCE = JdbcUtil.createInMemoryH2DataSource(
+            "jdbc:h2:mem:parallel_schema_initializer_test;DB_CLOSE_DELAY=-1", "sa", "");
+
+    private final List<Execution> executions = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    @SneakyThrows
+    void dropAllObjects() {
+        try (Connection connection = DATA_SOURCE.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Independent tables are initialized at the same time, a dependent table after them")
+    void independentTablesAreInitializedInParallel() throws SQLException {
+        String script = """
+                CREATE TABLE broker(id BIGINT PRIMARY KEY);
+                CREATE TABLE sales_group(id BIGINT PRIMARY KEY);
+                CREATE TABLE broker_sales_group(
+                    broker_id BIGINT REFERENCES broker(id),
+                    sales_group_id BIGINT REFERENCES sales_group(id)
+                );
+                """;
+        CyclicBarrier bothTablesAreCreated = new CyclicBarrier(2);
+        DataSource dataSource = createSpiedDataSource(sql -> {
+            if (sql.startsWith("CREATE TABLE broker(") || sql.startsWith("CREATE TABLE sales_group(")) {
+                awaitQuietly(bothTablesAreCreated);
+            }
+        });
+
+        int statementCount = runScript(new ParallelSchemaInitializer(dataSource, 2), script);
+
+        assertThat(statementCount).isEqualTo(3);
+        assertThat(bothTablesAreCreated.isBroken()).isFalse();
+        assertThat(findExecutedSql().get(2)).startsWith("CREATE TABLE broker_sales_group(");
+        assertThat(findConnectionCount()).isEqualTo(3);
+        assertThat(findTables()).containsExactlyInAnyOrder("BROKER", "SALES_GROUP", "BROKER_SALES_GROUP");
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Definitions of one table are executed in the script order, after the tables it depends on")
+    void tableDefinitionsKeepScriptOrder() throws SQLException {
+        String script = """
+                CREATE TABLE photo_comment(id BIGINT PRIMARY KEY, photo_id BIGINT);
+                CREATE TABLE photo(id BIGINT PRIMARY KEY);
+                ALTER TABLE photo_comment ADD CONSTRAINT photo_comment_photo_fk FOREIGN KEY (photo_id)
+                    REFERENCES photo(id);
+                CREATE INDEX photo_comment_photo_idx ON photo_comment(photo_id);
+                """;
+
+        runScript(new ParallelSchemaInitializer(createSpiedDataSource(), 4), script);
+
+        List<String> executedSql = findExecutedSql();
+        assertThat(executedSql).hasSize(4);
+        assertThat(executedSql.indexOf("CREATE TABLE photo(id BIGINT PRIMARY KEY)"))
+                .isLessThan(executedSql.indexOf("CREATE TABLE photo_comment(id BIGINT PRIMARY KEY, photo_id BIGINT)"));
+        assertThat(executedSql.subList(1, 4)).allMatch(sql -> sql.contains("photo_comment"));
+        assertThat(findTables()).containsExactlyInAnyOrder("PHOTO", "PHOTO_COMMENT");
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Data statements are barriers that keep the script order across tables")
+    void dataStatementsKeepScriptOrder() throws SQLException {
+        String script = """
+                CREATE TABLE parent(id BIGINT PRIMARY KEY);
+                CREATE TABLE child(id BIGINT PRIMARY KEY, parent_id BIGINT REFERENCES parent(id));
+                INSERT INTO parent VALUES (1);
+                INSERT INTO child VALUES (1, 1);
+                DELETE FROM child;
+                DELETE FROM parent;
+                INSERT INTO parent VALUES (2);
+                CREATE TABLE note(id BIGINT PRIMARY KEY);
+                INSERT INTO note SELECT id FROM parent;
+                """;
+
+        int statementCount = runScript(new ParallelSchemaInitializer(createSpiedDataSource(), 4), script);
+
+        assertThat(statementCount).isEqualTo(9);
+        assertThat(findExecutedSql().subList(2, 7)).containsExactly(
+                "INSERT INTO parent VALUES (1)",
+                "INSERT INTO child VALUES (1, 1)",
+                "DELETE FROM child",
+                "DELETE FROM parent",
+                "INSERT INTO parent VALUES (2)");
+        assertThat(executions.subList(2, 7)).extracting(Execution::connection)
+                .containsOnly(executions.get(2).connection());
+        assertThat(findIds("parent")).containsExactly(2L);
+        assertThat(findIds("child")).isEmpty();
+        assertThat(findIds("note")).containsExactly(2L);
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Statement that does not define a table is executed between the statements above and below it")
+    void otherStatementsAreBarriers() throws SQLException {
+        String script = """
+                CREATE TABLE author(id BIGINT PRIMARY KEY);
+                CREATE SEQUENCE book_seq;
+                CREATE TABLE book(id BIGINT DEFAULT NEXT VALUE FOR book_seq PRIMARY KEY);
+                CREATE TABLE genre(id BIGINT PRIMARY KEY);
+                """;
+
+        int statementCount = runScript(new ParallelSchemaInitializer(createSpiedDataSource(), 4), script);
+
+        assertThat(statementCount).isEqualTo(4);
+        List<String> executedSql = findExecutedSql();
+        assertThat(executedSql.subList(0, 2)).containsExactly(
+                "CREATE TABLE author(id BIGINT PRIMARY KEY)",
+                "CREATE SEQUENCE book_seq");
+        assertThat(findTables()).containsExactlyInAnyOrder("AUTHOR", "BOOK", "GENRE");
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Tables that depend on each other in a cycle are initialized sequentially")
+    void cycleIsInitializedSequentially() throws SQLException {
+        String script = """
+                CREATE TABLE users(id BIGINT PRIMARY KEY, profile_id BIGINT);
+                CREATE TABLE profiles(id BIGINT PRIMARY KEY, user_id BIGINT REFERENCES users(id));
+                ALTER TABLE users ADD CONSTRAINT users_profiles_fk FOREIGN KEY (profile_id) REFERENCES profiles(id);
+                """;
+
+        int statementCount = runScript(new ParallelSchemaInitializer(createSpiedDataSource(), 4), script);
+
+        assertThat(statementCount).isEqualTo(3);
+        assertThat(findExecutedSql()).containsExactly(
+                "CREATE TABLE users(id BIGINT PRIMARY KEY, profile_id BIGINT)",
+                "CREATE TABLE profiles(id BIGINT PRIMARY KEY, user_id BIGINT REFERENCES users(id))",
+                "ALTER TABLE users ADD CONSTRAINT users_profiles_fk FOREIGN KEY (profile_id) REFERENCES profiles(id)");
+        assertThat(findConnectionCount()).isEqualTo(1);
+        assertThat(findTables()).containsExactlyInAnyOrder("USERS", "PROFILES");
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Failed table is reported, its dependents and the rest of the script are not executed")
+    void failedTableIsReported() {
+        String script = """
+                CREATE TABLE account(id BIGINT PRIMARY KEY);
+                CREATE TABLE broken(id UNKNOWN_TYPE PRIMARY KEY);
+                CREATE TABLE broken_account(
+                    account_id BIGINT REFERENCES account(id),
+                    broken_id BIGINT REFERENCES broken(id)
+                );
+                INSERT INTO account VALUES (1);
+                """;
+
+        assertThatExceptionOfType(SqlScriptException.class)
+                .isThrownBy(() -> runScript(new ParallelSchemaInitializer(createSpiedDataSource(), 4), script))
+                .satisfies(e -> {
+                    assertThat(e.getLineNumber()).isEqualTo(2);
+                    assertThat(e.getStatement()).isEqualTo("CREATE TABLE broken(id UNKNOWN_TYPE PRIMARY KEY)");
+                });
+        assertThat(findExecutedSql()).containsExactlyInAnyOrder(
+                "CREATE TABLE account(id BIGINT PRIMARY KEY)",
+                "CREATE TABLE broken(id UNKNOWN_TYPE PRIMARY KEY)");
+        assertThat(findTables()).containsExactly("ACCOUNT");
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("Parallelism should be positive")
+    void parallelismShouldBePositive() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> new ParallelSchemaInitializer(DATA_SOURCE, 0))
+                .withMessage("Parallelism should be positive");
+    }
+
+    private static int runScript(ParallelSchemaInitializer initializer, String script) throws SQLException {
+        try (SqlScriptReader reader = new SqlScriptReader(new StringReader(script))) {
+            return initializer.run("test.sql", reader);
+        }
+    }
+
+    private DataSource createSpiedDataSource() throws SQLException {
+        return createSpiedDataSource(sql -> {
+        });
+    }
+
+    /**
+     * Creates a data source that records every executed statement together with its connection. The callback is
+     * invoked right before the statement is executed.
+     */
+    private DataSource createSpiedDataSource(Consumer<String> beforeExecute) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenAnswer(invocation -> {
+            Connection connection = spy(DATA_SOURCE.getConnection());
+            doAnswer(createStatement -> {
+                Statement statement = spy((Statement) createStatement.callRealMethod());
+                doAnswer(execute -> {
+                    String sql = execute.getArgument(0);
+                    executions.add(new Execution(sql, connection));
+                    beforeExecute.accept(sql);
+                    return execute.callRealMethod();
+                }).when(statement).execute(anyString());
+                doAnswer(addBatch -> {
+                    executions.add(new Execution(addBatch.getArgument(0), connection));
+                    return addBatch.callRealMethod();
+                }).when(statement).addBatch(anyString());
+                return statement;
+            }).when(connection).createStatement();
+            return connection;
+        });
+        return dataSource;
+    }
+
+    @SneakyThrows
+    private static void awaitQuietly(CyclicBarrier barrier) {
+        barrier.await(5, TimeUnit.SECONDS);
+    }
+
+    private List<String> findExecutedSql() {
+        return executions.stream().map(Execution::sql).toList();
+    }
+
+    private long findConnectionCount() {
+        return executions.stream().map(Execution::connection).distinct().count();
+    }
+
+    @SneakyThrows
+    private static List<String> findTables() {
+        try (Connection connection = DATA_SOURCE.getConnection();
+             ResultSet resultSet = connection.getMetaData().getTables(null, "PUBLIC", "%", new String[]{"TABLE"})) {
+            List<String> tables = new ArrayList<>();
+            while (resultSet.next()) {
+                tables.add(resultSet.getString("TABLE_NAME"));
+            }
+            return tables;
+        }
+    }
+
+    @SneakyThrows
+    private static List<Long> findIds(String table) {
+        try (Connection connection = DATA_SOURCE.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT id FROM " + table + " ORDER BY id")) {
+            List<Long> ids = new ArrayList<>();
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong(1));
+            }
+            return ids;
+        }
+    }
+
+    private record Execution(String sql, Connection connection) {
+    }
+}
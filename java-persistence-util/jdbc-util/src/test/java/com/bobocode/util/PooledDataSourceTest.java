@@ -0,0 +1,279 @@
+package com.bobocode.util;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+import static org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@TestMethodOrder(OrderAnnotation.class)
+class PooledDataSourceTest {
+    private static final DataSource TARGET_DATA_SOURCE = JdbcUtil.createInMemoryH2DataSource(
+            "jdbc:h2:mem:pooled_data_source_test;DB_CLOSE_DELAY=-1", "sa", "");
+
+    private PooledDataSource pool;
+
+    @AfterEach
+    void closePool() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Closing a borrowed connection returns it to the pool")
+    @SneakyThrows
+    void borrowAndReturn() {
+        pool = new PooledDataSource(TARGET_DATA_SOURCE, PoolConfig.builder().build());
+
+        Connection connection = pool.getConnection();
+        assertThat(pool.getActiveConnections()).isEqualTo(1);
+        assertThat(pool.getIdleConnections()).isZero();
+
+        connection.close();
+        assertThat(connection.isClosed()).isTrue();
+        assertThat(pool.getActiveConnections()).isZero();
+        assertThat(pool.getIdleConnections()).isEqualTo(1);
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Returned physical connection is reused by the next borrow")
+    @SneakyThrows
+    void returnedConnectionIsReused() {
+        pool = new PooledDataSource(TARGET_DATA_SOURCE, PoolConfig.builder().build());
+
+        Connection physicalConnection;
+        try (Connection connection = pool.getConnection()) {
+            physicalConnection = connection.unwrap(Connection.class);
+        }
+        try (Connection connection = pool.getConnection()) {
+            assertThat(connection.unwrap(Connection.class)).isSameAs(physicalConnection);
+        }
+        assertThat(pool.getTotalConnections()).isEqualTo(1);
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Returned connection gets its defaults restored")
+    @SneakyThrows
+    void returnedConnectionIsReset() {
+        pool = new PooledDataSource(TARGET_DATA_SOURCE, PoolConfig.builder().build());
+
+        try (Connection connection = pool.getConnection()) {
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+        }
+        try (Connection connection = pool.getConnection()) {
+            assertThat(connection.getAutoCommit()).isTrue();
+            assertThat(connection.isReadOnly()).isFalse();
+        }
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Closed logical connection cannot be used anymore")
+    @SneakyThrows
+    void closedConnectionCannotBeUsed() {
+        pool = new PooledDataSource(TARGET_DATA_SOURCE, PoolConfig.builder().build());
+
+        Connection connection = pool.getConnection();
+        connection.close();
+
+        assertThatExceptionOfType(SQLException.class)
+                .isThrownBy(connection::createStatement)
+                .withMessage("Connection is closed");
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("getConnection times out when the pool is exhausted")
+    @SneakyThrows
+    void getConnectionTimesOut() {
+        pool = new PooledDataSource(TARGET_DATA_SOURCE, PoolConfig.builder()
+                .maxPoolSize(1)
+                .connectionTimeout(Duration.ofMillis(100))
+                .build());
+
+        try (Connection ignored = pool.getConnection()) {
+            long startNanos = System.nanoTime();
+            assertThatExceptionOfType(SQLTransientConnectionException.class)
+                    .isThrownBy(pool::getConnection)
+                    .withMessageContaining("timed out after 100 ms");
+            assertThat(Duration.ofNanos(System.nanoTime() - startNanos))
+                    .isGreaterThanOrEqualTo(Duration.ofMillis(100));
+        }
+        try (Connection connection = pool.getConnection()) {
+            assertThat(connection.isValid(1)).isTrue();
+        }
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Broken idle connection is validated and replaced on borrow")
+    @SneakyThrows
+    void brokenConnectionIsReplaced() {
+        pool = new PooledDataSource(TARGET_DATA_SOURCE, PoolConfig.builder()
+                .validationBypassWindow(Duration.ZERO)
+                .build());
+
+        Connection brokenPhysicalConnection;
+        try (Connection connection = pool.getConnection()) {
+            brokenPhysicalConnection = connection.unwrap(Connection.class);
+        }
+        brokenPhysicalConnection.close();
+
+        try (Connection connection = pool.getConnection()) {
+            assertThat(connection.unwrap(Connection.class)).isNotSameAs(brokenPhysicalConnection);
+            assertThat(connection.isValid(1)).isTrue();
+        }
+        assertThat(pool.getTotalConnections()).isEqualTo(1);
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("Connection that is not returned within the threshold is reported as leaked")
+    @SneakyThrows
+    void leakIsReported() {
+        pool = new PooledDataSource(TARGET_DATA_SOURCE, PoolConfig.builder()
+                .leakDetectionThreshold(Duration.ofMillis(50))
+                .housekeepingPeriod(Duration.ofMillis(20))
+                .build());
+
+        try (Connection ignored = pool.getConnection()) {
+            Thread.sleep(300);
+            assertThat(pool.getReportedLeaks()).isEqualTo(1);
+        }
+        try (Connection ignored = pool.getConnection()) {
+            assertThat(pool.getReportedLeaks()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("Statements return the connection proxy, so closing it returns the connection to the pool")
+    @SneakyThrows
+    void statementReturnsConnectionProxy() {
+        pool = new PooledDataSource(TARGET_DATA_SOURCE, PoolConfig.builder().build());
+
+        Connection connection = pool.getConnection();
+        Connection physicalConnection = connection.unwrap(Connection.class);
+        Statement statement = connection.createStatement();
+        PreparedStatement preparedStatement = connection.prepareStatement("SELECT 1");
+
+        assertThat(statement.getConnection()).isSameAs(connection);
+        assertThat(preparedStatement.getConnection()).isSameAs(connection);
+
+        statement.getConnection().close();
+        assertThat(physicalConnection.isClosed()).isFalse();
+        assertThat(statement.isClosed()).isTrue();
+        assertThat(pool.getIdleConnections()).isEqualTo(1);
+    }
+
+    @Test
+    @Order(9)
+    @DisplayName("Wrapped statements keep the physical statement behaviour")
+    @SneakyThrows
+    void wrappedStatementExecutesQueries() {
+        pool = new PooledDataSource(TARGET_DATA_SOURCE, PoolConfig.builder().build());
+
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT ? + 1")) {
+            statement.setInt(1, 41);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                assertThat(resultSet.getInt(1)).isEqualTo(42);
+            }
+        }
+    }
+
+    @Test
+    @Order(10)
+    @DisplayName("Connection returned after the pool is closed is discarded")
+    @SneakyThrows
+    void connectionReturnedAfterCloseIsDiscarded() {
+        pool = new PooledDataSource(TARGET_DATA_SOURCE, PoolConfig.builder().build());
+
+        Connection connection = pool.getConnection();
+        Connection physicalConnection = connection.unwrap(Connection.class);
+        pool.close();
+        connection.close();
+
+        assertThat(physicalConnection.isClosed()).isTrue();
+        assertThat(pool.getIdleConnections()).isZero();
+        assertThat(pool.getTotalConnections()).isZero();
+    }
+
+    @Test
+    @Order(11)
+    @DisplayName("Connections returned concurrently with close are not left open in the pool")
+    @SneakyThrows
+    void concurrentReleaseAndClose() {
+        for (int i = 0; i < 50; i++) {
+            pool = new PooledDataSource(TARGET_DATA_SOURCE, PoolConfig.builder().build());
+            Connection connection = pool.getConnection();
+            Connection physicalConnection = connection.unwrap(Connection.class);
+
+            Thread releasingThread = Thread.ofPlatform().start(() -> closeQuietly(connection));
+            pool.close();
+            releasingThread.join();
+
+            assertThat(physicalConnection.isClosed()).isTrue();
+            assertThat(pool.getIdleConnections()).isZero();
+        }
+    }
+
+    @Test
+    @Order(12)
+    @DisplayName("Uncommitted work is rolled back when the connection default is auto-commit off")
+    @SneakyThrows
+    void uncommittedWorkIsRolledBackWithoutAutoCommitDefault() {
+        try (Connection connection = TARGET_DATA_SOURCE.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS note");
+            statement.execute("CREATE TABLE note(id INT PRIMARY KEY)");
+        }
+        DataSource manualCommitDataSource = mock(DataSource.class);
+        when(manualCommitDataSource.getConnection()).thenAnswer(invocation -> {
+            Connection connection = TARGET_DATA_SOURCE.getConnection();
+            connection.setAutoCommit(false);
+            return connection;
+        });
+        pool = new PooledDataSource(manualCommitDataSource, PoolConfig.builder().maxPoolSize(1).build());
+
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO note VALUES (1)");
+        }
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT count(*) FROM note")) {
+            resultSet.next();
+            assertThat(resultSet.getInt(1)).isZero();
+            assertThat(connection.getAutoCommit()).isFalse();
+        }
+        assertThat(pool.getTotalConnections()).isEqualTo(1);
+    }
+
+    @SneakyThrows
+    private static void closeQuietly(Connection connection) {
+        connection.close();
+    }
+}
@@ -0,0 +1,161 @@
+package com.bobocode.util;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.mockito.InOrder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@TestMethodOrder(OrderAnnotation.class)
+class ResultSetStreamsTest {
+    private static DataSource dataSource;
+
+    @BeforeAll
+    @SneakyThrows
+    static void init() {
+        dataSource = JdbcUtil.createInMemoryH2DataSource("jdbc:h2:mem:result_set_streams_test;DB_CLOSE_DELAY=-1",
+                "sa", "");
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE numbers(n INT PRIMARY KEY)");
+            statement.execute("INSERT INTO numbers SELECT x FROM SYSTEM_RANGE(1, 2500)");
+        }
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Stream returns all rows of the query in chunks of fetch size")
+    @SneakyThrows
+    void streamReturnsAllRows() {
+        try (Stream<Integer> numbers = ResultSetStreams.openStream(dataSource,
+                "SELECT n FROM numbers ORDER BY n", 100, resultSet -> resultSet.getInt(1))) {
+            List<Integer> allNumbers = numbers.toList();
+
+            assertThat(allNumbers).hasSize(2500);
+            assertThat(allNumbers.get(0)).isEqualTo(1);
+            assertThat(allNumbers.get(2499)).isEqualTo(2500);
+        }
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Closing the stream restores connection settings and closes the connection")
+    @SneakyThrows
+    void closeRestoresConnection() {
+        CursorMocks mocks = new CursorMocks();
+
+        ResultSetStreams.openStream(mocks.dataSource, "SELECT 1", resultSet -> 1).close();
+
+        verify(mocks.settingStatement).executeUpdate("SET LAZY_QUERY_EXECUTION FALSE");
+        verify(mocks.connection).rollback();
+        verify(mocks.connection).setAutoCommit(true);
+        verify(mocks.connection).close();
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Connection is restored and closed even if the result set cannot be closed")
+    @SneakyThrows
+    void failedResultSetCloseStillRestoresConnection() {
+        CursorMocks mocks = new CursorMocks();
+        SQLException resultSetFailure = new SQLException("Cannot close the result set");
+        doThrow(resultSetFailure).when(mocks.resultSet).close();
+        Stream<Integer> stream = ResultSetStreams.openStream(mocks.dataSource, "SELECT 1", resultSet -> 1);
+
+        assertThatExceptionOfType(ResultSetStreamException.class)
+                .isThrownBy(stream::close)
+                .withCause(resultSetFailure);
+
+        InOrder inOrder = inOrder(mocks.statement, mocks.settingStatement, mocks.connection);
+        inOrder.verify(mocks.statement).close();
+        inOrder.verify(mocks.settingStatement).executeUpdate("SET LAZY_QUERY_EXECUTION FALSE");
+        inOrder.verify(mocks.connection).rollback();
+        inOrder.verify(mocks.connection).setAutoCommit(true);
+        inOrder.verify(mocks.connection).close();
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Every failing release step is reported, the first one as a cause and the others as suppressed")
+    @SneakyThrows
+    void failuresOfAllStepsAreSuppressed() {
+        CursorMocks mocks = new CursorMocks();
+        SQLException statementFailure = new SQLException("Cannot close the statement");
+        SQLException rollbackFailure = new SQLException("Cannot roll back");
+        SQLException closeFailure = new SQLException("Cannot close the connection");
+        doThrow(statementFailure).when(mocks.statement).close();
+        doThrow(rollbackFailure).when(mocks.connection).rollback();
+        doThrow(closeFailure).when(mocks.connection).close();
+        Stream<Integer> stream = ResultSetStreams.openStream(mocks.dataSource, "SELECT 1", resultSet -> 1);
+
+        assertThatExceptionOfType(ResultSetStreamException.class)
+                .isThrownBy(stream::close)
+                .withCause(statementFailure);
+
+        assertThat(statementFailure.getSuppressed()).containsExactly(rollbackFailure, closeFailure);
+        verify(mocks.connection).setAutoCommit(true);
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Failure of the query closes the connection and suppresses release failures")
+    @SneakyThrows
+    void failedQueryReleasesConnection() {
+        CursorMocks mocks = new CursorMocks();
+        SQLException queryFailure = new SQLException("Syntax error");
+        SQLException rollbackFailure = new SQLException("Cannot roll back");
+        when(mocks.statement.executeQuery()).thenThrow(queryFailure);
+        doThrow(rollbackFailure).when(mocks.connection).rollback();
+
+        assertThatExceptionOfType(SQLException.class)
+                .isThrownBy(() -> ResultSetStreams.openStream(mocks.dataSource, "SELECT 1", resultSet -> 1))
+                .isSameAs(queryFailure);
+
+        assertThat(queryFailure.getSuppressed()).containsExactly(rollbackFailure);
+        verify(mocks.connection).close();
+    }
+
+    private static class CursorMocks {
+        final DataSource dataSource = mock(DataSource.class);
+        final Connection connection = mock(Connection.class);
+        final Statement settingStatement = mock(Statement.class);
+        final PreparedStatement statement = mock(PreparedStatement.class);
+        final ResultSet resultSet = mock(ResultSet.class);
+
+        @SneakyThrows
+        CursorMocks() {
+            DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+            when(metaData.getDatabaseProductName()).thenReturn("H2");
+            when(dataSource.getConnection()).thenReturn(connection);
+            when(connection.getAutoCommit()).thenReturn(true);
+            when(connection.getMetaData()).thenReturn(metaData);
+            when(connection.createStatement()).thenReturn(settingStatement);
+            when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(statement);
+            when(statement.executeQuery()).thenReturn(resultSet);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.bobocode.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+
+@TestMethodOrder(OrderAnnotation.class)
+class SqlScriptReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @Order(1)
+    @DisplayName("Statements are split by ; and trimmed, empty statements are skipped")
+    void statementsAreSplitBySemicolon() {
+        String script = """
+                CREATE TABLE a(id INT);
+                  ;
+                INSERT INTO a VALUES (1);;
+                SELECT * FROM a""";
+
+        assertThat(readStatements(script)).containsExactly(
+                "CREATE TABLE a(id INT)",
+                "INSERT INTO a VALUES (1)",
+                "SELECT * FROM a");
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Semicolon inside a string literal does not end a statement, doubled quote is kept")
+    void semicolonInStringLiteral() {
+        String script = "INSERT INTO t VALUES ('It''s; fine'); SELECT ';'";
+
+        assertThat(readStatements(script)).containsExactly(
+                "INSERT INTO t VALUES ('It''s; fine')",
+                "SELECT ';'");
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Backslash escapes are only supported in E'' strings")
+    void backslashEscapesInEscapeStrings() {
+        String script = "SELECT E'\\'; still a string'; SELECT e'a\\\\'; SELECT 'C:\\'; SELECT 1";
+
+        assertThat(readStatements(script)).containsExactly(
+                "SELECT E'\\'; still a string'",
+                "SELECT e'a\\\\'",
+                "SELECT 'C:\\'",
+                "SELECT 1");
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Identifier that ends with E does not start an escape string")
+    void identifierEndingWithE() {
+        String script = "SELECT name'\\'; SELECT 2";
+
+        assertThat(readStatements(script)).containsExactly("SELECT name'\\'", "SELECT 2");
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Semicolon inside a quoted identifier does not end a statement")
+    void semicolonInQuotedIdentifier() {
+        String script = "CREATE TABLE \"odd;name\"(\"a\"\"b\" INT); SELECT 1";
+
+        assertThat(readStatements(script)).containsExactly(
+                "CREATE TABLE \"odd;name\"(\"a\"\"b\" INT)",
+                "SELECT 1");
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Line comments are removed, a single dash is kept")
+    void lineCommentsAreRemoved() {
+        String script = """
+                -- leading comment; with a semicolon
+                SELECT 3 - 1, -2 -- trailing comment;
+                FROM dual;
+                -- comment at the end""";
+
+        assertThat(readStatements(script)).containsExactly("SELECT 3 - 1, -2 \nFROM dual");
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("Nested block comments are removed, a single slash is kept")
+    void nestedBlockCommentsAreRemoved() {
+        String script = "/* outer; /* inner; */ still comment; */ SELECT 4 / 2 /* tail */; SELECT 1";
+
+        assertThat(readStatements(script)).containsExactly("SELECT 4 / 2", "SELECT 1");
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("Dollar-quoted strings keep their content, including other tags and semicolons")
+    void dollarQuotedStrings() {
+        String function = """
+                CREATE FUNCTION f() RETURNS INT AS $body$
+                BEGIN
+                    RAISE NOTICE $$it's; $inner$;$$;
+                    RETURN 1;
+                END;
+                $body$ LANGUAGE plpgsql""";
+        String script = function + ";\nSELECT $$a;b$$";
+
+        assertThat(readStatements(script)).containsExactly(function, "SELECT $$a;b$$");
+    }
+
+    @Test
+    @Order(9)
+    @DisplayName("Dollar sign that does not start a tag is kept as is")
+    void dollarSignWithoutTag() {
+        String script = "PREPARE p AS SELECT $1 + $2; SELECT price$; SELECT a$b$c; SELECT 1";
+
+        assertThat(readStatements(script)).containsExactly(
+                "PREPARE p AS SELECT $1 + $2",
+                "SELECT price$",
+                "SELECT a$b$c",
+                "SELECT 1");
+    }
+
+    @Test
+    @Order(10)
+    @DisplayName("Statement line is the line of the first statement character")
+    void statementLines() {
+        String script = """
+                -- header
+
+                CREATE TABLE a(id INT);
+                /* multi
+                   line */ INSERT INTO a
+                VALUES ('multi
+                line');
+                   SELECT 1; SELECT 2;
+                """;
+
+        List<ScriptStatement> statements = new ArrayList<>();
+        try (SqlScriptReader reader = new SqlScriptReader(new StringReader(script))) {
+            reader.scriptStatements().forEachRemaining(statements::add);
+        }
+
+        assertThat(statements).containsExactly(
+                new ScriptStatement("CREATE TABLE a(id INT)", 3),
+                new ScriptStatement("INSERT INTO a\nVALUES ('multi\nline')", 5),
+                new ScriptStatement("SELECT 1", 8),
+                new ScriptStatement("SELECT 2", 8));
+    }
+
+    @Test
+    @Order(11)
+    @DisplayName("getStatementLine returns the line of the last read statement")
+    void getStatementLine() {
+        try (SqlScriptReader reader = new SqlScriptReader(new StringReader("SELECT 1;\n\nSELECT\n2;"))) {
+            assertThat(reader.nextStatement()).isEqualTo("SELECT 1");
+            assertThat(reader.getStatementLine()).isEqualTo(1);
+            assertThat(reader.nextStatement()).isEqualTo("SELECT\n2");
+            assertThat(reader.getStatementLine()).isEqualTo(3);
+            assertThat(reader.nextStatement()).isNull();
+        }
+    }
+
+    @Test
+    @Order(12)
+    @DisplayName("Statements longer than the read buffer are read completely")
+    void statementsLongerThanBuffer() {
+        String longLiteral = "x;".repeat(10_000);
+        String script = "SELECT '" + longLiteral + "'; SELECT 1";
+
+        assertThat(readStatements(script)).containsExactly("SELECT '" + longLiteral + "'", "SELECT 1");
+    }
+
+    @Test
+    @Order(13)
+    @DisplayName("Script on the file system is memory-mapped and read by statements")
+    void scriptFromFileSystem() throws IOException {
+        Path script = tempDir.resolve("init.sql");
+        Files.writeString(script, "CREATE TABLE міста(назва VARCHAR);\nINSERT INTO міста VALUES ('Київ');");
+
+        try (Stream<String> statements = SqlScriptReader.fromUrl(script.toUri().toURL()).statements()) {
+            assertThat(statements).containsExactly(
+                    "CREATE TABLE міста(назва VARCHAR)",
+                    "INSERT INTO міста VALUES ('Київ')");
+        }
+    }
+
+    @Test
+    @Order(14)
+    @DisplayName("Script packed into a jar is read as a stream")
+    void scriptFromJar() throws IOException {
+        Path jar = createJar(tempDir.resolve("scripts.jar"), "db/init.sql",
+                "CREATE TABLE a(id INT);\nINSERT INTO a VALUES (1);");
+        URL scriptUrl = new URL("jar:" + jar.toUri() + "!/db/init.sql");
+
+        try (SqlScriptReader reader = SqlScriptReader.fromUrl(scriptUrl)) {
+            Iterator<ScriptStatement> statements = reader.scriptStatements();
+            assertThat(statements.next()).isEqualTo(new ScriptStatement("CREATE TABLE a(id INT)", 1));
+            assertThat(statements.next()).isEqualTo(new ScriptStatement("INSERT INTO a VALUES (1)", 2));
+            assertThat(statements.hasNext()).isFalse();
+        }
+    }
+
+    @Test
+    @Order(15)
+    @DisplayName("Missing resource is reported with FileReaderException")
+    void missingResource() {
+        assertThatExceptionOfType(FileReaderException.class)
+                .isThrownBy(() -> SqlScriptReader.fromResources("db/missing.sql"))
+                .withMessage("Cannot find file db/missing.sql in resources");
+    }
+
+    static Path createJar(Path jar, String entryName, String content) throws IOException {
+        try (OutputStream fileStream = Files.newOutputStream(jar);
+             JarOutputStream jarStream = new JarOutputStream(fileStream)) {
+            jarStream.putNextEntry(new JarEntry(entryName));
+            jarStream.write(content.getBytes(StandardCharsets.UTF_8));
+            jarStream.closeEntry();
+        }
+        return jar;
+    }
+
+    private static List<String> readStatements(String script) {
+        try (Stream<String> statements = new SqlScriptReader(new StringReader(script)).statements()) {
+            return statements.toList();
+        }
+    }
+}
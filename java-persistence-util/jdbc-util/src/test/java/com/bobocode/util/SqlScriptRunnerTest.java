@@ -0,0 +1,290 @@
+package com.bobocode.util;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@TestMethodOrder(OrderAnnotation.class)
+class SqlScriptRunnerTest {
+    private static final DataSource DATA_SOURCE = JdbcUtil.createInMemoryH2DataSource(
+            "jdbc:h2:mem:sql_script_runner_test;DB_CLOSE_DELAY=-1", "sa", "");
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    @SneakyThrows
+    void createTable() {
+        try (Connection connection = DATA_SOURCE.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS person");
+            statement.execute("CREATE TABLE person(id INT PRIMARY KEY, name VARCHAR(255))");
+        }
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Script statements are executed and committed")
+    void scriptIsExecuted() throws SQLException {
+        String script = """
+                INSERT INTO person VALUES (1, 'Andrii');
+                INSERT INTO person VALUES (2, 'Taras');
+                UPDATE person SET name = 'Ivan' WHERE id = 2;
+                CREATE INDEX person_name_idx ON person(name);
+                DELETE FROM person WHERE id = 1;
+                """;
+
+        int statementCount = runScript(new SqlScriptRunner(DATA_SOURCE), script);
+
+        assertThat(statementCount).isEqualTo(5);
+        assertThat(findNames()).containsExactly("Ivan");
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Consecutive data statements are sent in batches, other statements flush the batch")
+    void dataStatementsAreBatched() throws SQLException {
+        List<Statement> statements = new CopyOnWriteArrayList<>();
+        SqlScriptRunner runner = new SqlScriptRunner(createSpiedDataSource(statements), 3);
+        StringBuilder script = new StringBuilder();
+        for (int id = 1; id <= 7; id++) {
+            script.append("INSERT INTO person VALUES (").append(id).append(", 'Person ").append(id).append("');\n");
+        }
+        script.append("CREATE INDEX person_name_idx ON person(name);\n");
+        script.append("UPDATE person SET name = 'Ivan' WHERE id = 1;\n");
+
+        int statementCount = runScript(runner, script.toString());
+
+        assertThat(statementCount).isEqualTo(9);
+        assertThat(statements).hasSize(1);
+        Statement statement = statements.get(0);
+        verify(statement, times(8)).addBatch(anyString());
+        verify(statement, times(4)).executeBatch();
+        verify(statement).execute("CREATE INDEX person_name_idx ON person(name)");
+        assertThat(findNames()).hasSize(7).contains("Ivan");
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Failed statement of a batch is reported with its line and the transaction is rolled back")
+    void failedBatchStatementIsReported() {
+        String script = """
+                INSERT INTO person VALUES (1, 'Andrii');
+                INSERT INTO person VALUES (2, 'Taras');
+                -- the same id again
+                INSERT INTO person
+                VALUES (1, 'Ivan');
+                INSERT INTO person VALUES (3, 'Petro');
+                """;
+
+        assertThatExceptionOfType(SqlScriptException.class)
+                .isThrownBy(() -> runScript(new SqlScriptRunner(DATA_SOURCE), script))
+                .satisfies(e -> {
+                    assertThat(e.getLineNumber()).isEqualTo(4);
+                    assertThat(e.getStatement()).isEqualTo("INSERT INTO person\nVALUES (1, 'Ivan')");
+                    assertThat(e.getMessage()).startsWith("Failed to execute statement at test.sql:4: INSERT");
+                    assertThat(e.getSQLState()).isEqualTo("23505");
+                });
+        assertThat(findNames()).isEmpty();
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Failed non-batched statement is reported with its line and the transaction is rolled back")
+    void failedStatementIsReported() {
+        String script = """
+                INSERT INTO person VALUES (1, 'Andrii');
+
+                SELECT * FROM missing_table;
+                """;
+
+        assertThatExceptionOfType(SqlScriptException.class)
+                .isThrownBy(() -> runScript(new SqlScriptRunner(DATA_SOURCE), script))
+                .satisfies(e -> {
+                    assertThat(e.getLineNumber()).isEqualTo(3);
+                    assertThat(e.getStatement()).isEqualTo("SELECT * FROM missing_table");
+                });
+        assertThat(findNames()).isEmpty();
+    }
+
+    @ParameterizedTest
+    @Order(5)
+    @DisplayName("Statements that cannot run inside a transaction block are detected")
+    @CsvSource(delimiter = '|', value = {
+            "VACUUM                                               | VACUUM",
+            "vacuum analyze person                                | VACUUM",
+            "CREATE DATABASE bobocode_db                          | CREATE DATABASE",
+            "drop  database bobocode_db                           | DROP DATABASE",
+            "CREATE TABLESPACE fast LOCATION '/ssd'               | CREATE TABLESPACE",
+            "ALTER SYSTEM SET work_mem = '64MB'                   | ALTER SYSTEM",
+            "CREATE INDEX CONCURRENTLY idx ON person(name)        | CREATE INDEX CONCURRENTLY",
+            "create unique index\\nconcurrently idx ON person(id) | CREATE UNIQUE INDEX CONCURRENTLY",
+            "DROP INDEX CONCURRENTLY IF EXISTS idx                | DROP INDEX CONCURRENTLY",
+            "REINDEX INDEX CONCURRENTLY idx                       | REINDEX INDEX CONCURRENTLY",
+            "REINDEX (VERBOSE) TABLE CONCURRENTLY person          | REINDEX (VERBOSE) TABLE CONCURRENTLY"})
+    void nonTransactionalStatementsAreDetected(String sql, String command) {
+        assertThat(SqlScriptRunner.findNonTransactionalCommand(sql.replace("\\n", "\n"))).isEqualTo(command);
+    }
+
+    @ParameterizedTest
+    @Order(6)
+    @DisplayName("Regular statements are not detected as non-transactional")
+    @ValueSource(strings = {
+            "CREATE INDEX idx ON person(name)",
+            "CREATE TABLE concurrently(id INT)",
+            "CREATE INDEX concurrently_idx ON person(name)",
+            "DROP TABLE database",
+            "INSERT INTO vacuum_log VALUES (1)",
+            "SELECT 'VACUUM'"})
+    void regularStatementsAreNotDetected(String sql) {
+        assertThat(SqlScriptRunner.findNonTransactionalCommand(sql)).isNull();
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("Non-transactional statement is rejected with a clear error before anything is committed")
+    void nonTransactionalStatementIsRejected() {
+        String script = """
+                INSERT INTO person VALUES (1, 'Andrii');
+                CREATE INDEX CONCURRENTLY person_name_idx ON person(name);
+                INSERT INTO person VALUES (2, 'Taras');
+                """;
+
+        assertThatExceptionOfType(SqlScriptException.class)
+                .isThrownBy(() -> runScript(new SqlScriptRunner(DATA_SOURCE), script))
+                .satisfies(e -> {
+                    assertThat(e.getLineNumber()).isEqualTo(2);
+                    assertThat(e.getSQLState()).isEqualTo(SqlScriptRunner.ACTIVE_SQL_TRANSACTION);
+                    assertThat(e.getCause()).hasMessage("CREATE INDEX CONCURRENTLY cannot run inside a transaction, "
+                            + "execute it separately with auto-commit");
+                });
+        assertThat(findNames()).isEmpty();
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("Auto-commit mode of the connection is restored")
+    void autoCommitIsRestored() throws SQLException {
+        List<Statement> statements = new CopyOnWriteArrayList<>();
+        List<Connection> connections = new CopyOnWriteArrayList<>();
+        DataSource dataSource = createSpiedDataSource(statements, connections);
+
+        runScript(new SqlScriptRunner(dataSource), "INSERT INTO person VALUES (1, 'Andrii');");
+
+        Connection connection = connections.get(0);
+        verify(connection).setAutoCommit(false);
+        verify(connection, never()).rollback();
+        verify(connection).setAutoCommit(true);
+        verify(connection).close();
+        assertThat(findNames()).containsExactly("Andrii");
+    }
+
+    @Test
+    @Order(9)
+    @DisplayName("Seed of 100k rows from a mapped script file takes seconds")
+    void largeSeedTakesSeconds() throws IOException {
+        Path script = tempDir.resolve("seed.sql");
+        try (BufferedWriter writer = Files.newBufferedWriter(script)) {
+            for (int id = 1; id <= 100_000; id++) {
+                writer.write("INSERT INTO person VALUES (" + id + ", 'Person " + id + "');\n");
+            }
+        }
+
+        int statementCount = assertTimeoutPreemptively(Duration.ofSeconds(15), () -> {
+            try (SqlScriptReader reader = SqlScriptReader.fromUrl(script.toUri().toURL())) {
+                return new SqlScriptRunner(DATA_SOURCE).runScript("seed.sql", reader);
+            }
+        });
+
+        assertThat(statementCount).isEqualTo(100_000);
+        assertThat(countRows()).isEqualTo(100_000);
+    }
+
+    private static int runScript(SqlScriptRunner runner, String script) throws SQLException {
+        try (SqlScriptReader reader = new SqlScriptReader(new StringReader(script))) {
+            return runner.runScript("test.sql", reader);
+        }
+    }
+
+    private static DataSource createSpiedDataSource(List<Statement> statements) throws SQLException {
+        return createSpiedDataSource(statements, new CopyOnWriteArrayList<>());
+    }
+
+    /**
+     * Creates a data source that hands out Mockito spies of H2 connections and their statements
+     */
+    private static DataSource createSpiedDataSource(List<Statement> statements, List<Connection> connections)
+            throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenAnswer(invocation -> {
+            Connection connection = spy(DATA_SOURCE.getConnection());
+            doAnswer(createStatement -> {
+                Statement statement = spy((Statement) createStatement.callRealMethod());
+                statements.add(statement);
+                return statement;
+            }).when(connection).createStatement();
+            connections.add(connection);
+            return connection;
+        });
+        return dataSource;
+    }
+
+    @SneakyThrows
+    private static List<String> findNames() {
+        try (Connection connection = DATA_SOURCE.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT name FROM person ORDER BY id")) {
+            List<String> names = new ArrayList<>();
+            while (resultSet.next()) {
+                names.add(resultSet.getString(1));
+            }
+            return names;
+        }
+    }
+
+    @SneakyThrows
+    private static int countRows() {
+        try (Connection connection = DATA_SOURCE.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT count(*) FROM person")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.bobocode.util;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@TestMethodOrder(OrderAnnotation.class)
+class StatementCacheTest {
+    private static final DataSource TARGET_DATA_SOURCE = JdbcUtil.createInMemoryH2DataSource(
+            "jdbc:h2:mem:statement_cache_test;DB_CLOSE_DELAY=-1", "sa", "");
+    private static final String FIND_BY_ID = "SELECT name FROM person WHERE id = ?";
+    private static final String FIND_BY_NAME = "SELECT id FROM person WHERE name = ?";
+    private static final String COUNT = "SELECT count(*) FROM person WHERE id > ?";
+
+    /**
+     * Physical statements prepared by the pool in the order of preparation
+     */
+    private final List<PreparedStatement> physicalStatements = new CopyOnWriteArrayList<>();
+    private PooledDataSource pool;
+
+    @BeforeAll
+    @SneakyThrows
+    static void createTable() {
+        try (Connection connection = TARGET_DATA_SOURCE.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE person(id BIGINT PRIMARY KEY, name VARCHAR(255))");
+            statement.execute("INSERT INTO person VALUES (1, 'Andrii'), (2, 'Taras')");
+        }
+    }
+
+    @AfterEach
+    void closePool() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Preparing the same SQL again is a hit that reuses the physical statement")
+    void sameSqlIsHit() throws SQLException {
+        pool = createPool(2);
+
+        try (Connection connection = pool.getConnection()) {
+            assertThat(findName(connection, 1)).isEqualTo("Andrii");
+            assertThat(findName(connection, 2)).isEqualTo("Taras");
+        }
+        try (Connection connection = pool.getConnection()) {
+            assertThat(findName(connection, 1)).isEqualTo("Andrii");
+        }
+
+        assertThat(pool.getStatementCacheMisses()).isEqualTo(1);
+        assertThat(pool.getStatementCacheHits()).isEqualTo(2);
+        assertThat(physicalStatements).hasSize(1);
+        verify(physicalStatements.get(0), never()).close();
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Least recently used statement is evicted and closed when the cache size is exceeded")
+    void leastRecentlyUsedStatementIsEvicted() throws SQLException {
+        pool = createPool(2);
+
+        try (Connection connection = pool.getConnection()) {
+            prepareAndClose(connection, FIND_BY_ID);
+            prepareAndClose(connection, FIND_BY_NAME);
+            prepareAndClose(connection, FIND_BY_ID);
+            prepareAndClose(connection, COUNT);
+
+            assertThat(physicalStatements).hasSize(3);
+            verify(physicalStatements.get(1)).close();
+            verify(physicalStatements.get(0), never()).close();
+            verify(physicalStatements.get(2), never()).close();
+
+            prepareAndClose(connection, FIND_BY_ID);
+            prepareAndClose(connection, COUNT);
+            prepareAndClose(connection, FIND_BY_NAME);
+        }
+
+        assertThat(physicalStatements).hasSize(4);
+        assertThat(pool.getStatementCacheHits()).isEqualTo(3);
+        assertThat(pool.getStatementCacheMisses()).isEqualTo(4);
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Statements with the same SQL that are open at the same time do not share a physical statement")
+    void openStatementsAreNotShared() throws SQLException {
+        pool = createPool(2);
+
+        try (Connection connection = pool.getConnection()) {
+            PreparedStatement first = connection.prepareStatement(FIND_BY_ID);
+            PreparedStatement second = connection.prepareStatement(FIND_BY_ID);
+            first.setLong(1, 1);
+            second.setLong(1, 2);
+
+            assertThat(physicalStatements).hasSize(2);
+            assertThat(queryString(first)).isEqualTo("Andrii");
+            assertThat(queryString(second)).isEqualTo("Taras");
+
+            first.close();
+            second.close();
+            // only one of them is kept, the other one is closed instead of being leaked
+            verify(physicalStatements.get(0)).close();
+            verify(physicalStatements.get(1), never()).close();
+        }
+
+        assertThat(pool.getStatementCacheHits()).isZero();
+        assertThat(pool.getStatementCacheMisses()).isEqualTo(2);
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Statement closed after its parameters were set is reused without the old parameters")
+    void reusedStatementHasNoOldParameters() throws SQLException {
+        pool = createPool(2);
+
+        try (Connection connection = pool.getConnection()) {
+            PreparedStatement statement = connection.prepareStatement(FIND_BY_ID);
+            statement.setLong(1, 2);
+            statement.executeQuery();
+            statement.close();
+
+            try (PreparedStatement reused = connection.prepareStatement(FIND_BY_ID)) {
+                assertThat(reused).isNotSameAs(statement);
+                assertThat(pool.getStatementCacheHits()).isEqualTo(1);
+                assertThatExceptionOfType(SQLException.class).isThrownBy(reused::executeQuery);
+                reused.setLong(1, 1);
+                assertThat(queryString(reused)).isEqualTo("Andrii");
+            }
+            assertThatExceptionOfType(SQLException.class)
+                    .isThrownBy(() -> statement.setLong(1, 1))
+                    .withMessage("Statement is closed");
+        }
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Statement with modified settings is closed instead of being cached")
+    void modifiedStatementIsNotCached() throws SQLException {
+        pool = createPool(2);
+
+        try (Connection connection = pool.getConnection()) {
+            try (PreparedStatement statement = connection.prepareStatement(FIND_BY_ID)) {
+                statement.setMaxRows(1);
+            }
+            verify(physicalStatements.get(0)).close();
+            prepareAndClose(connection, FIND_BY_ID);
+        }
+
+        assertThat(physicalStatements).hasSize(2);
+        assertThat(pool.getStatementCacheHits()).isZero();
+    }
+
+    private PooledDataSource createPool(int statementCacheSize) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenAnswer(invocation -> {
+            Connection connection = spy(TARGET_DATA_SOURCE.getConnection());
+            doAnswer(prepareStatement -> {
+                PreparedStatement statement = spy((PreparedStatement) prepareStatement.callRealMethod());
+                physicalStatements.add(statement);
+                return statement;
+            }).when(connection).prepareStatement(anyString());
+            return connection;
+        });
+        return new PooledDataSource(dataSource, PoolConfig.builder()
+                .maxPoolSize(1)
+                .statementCacheSize(statementCacheSize)
+                .build());
+    }
+
+    private static String findName(Connection connection, long id) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(FIND_BY_ID)) {
+            statement.setLong(1, id);
+            return queryString(statement);
+        }
+    }
+
+    private static void prepareAndClose(Connection connection, String sql) throws SQLException {
+        connection.prepareStatement(sql).close();
+    }
+
+    private static String queryString(PreparedStatement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            assertThat(resultSet.next()).isTrue();
+            return resultSet.getString(1);
+        }
+    }
+}
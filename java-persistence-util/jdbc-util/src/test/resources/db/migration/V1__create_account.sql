@@ -0,0 +1,5 @@
+CREATE TABLE account
+(
+    id    BIGINT PRIMARY KEY,
+    email VARCHAR(255) NOT NULL
+);
@@ -0,0 +1,2 @@
+INSERT INTO account VALUES (1, 'andrii@bobocode.com');
+INSERT INTO account VALUES (2, 'taras@bobocode.com');
@@ -0,0 +1,3 @@
+INSERT INTO account VALUES (3, 'ivan@bobocode.com');
+-- the table is never created
+INSERT INTO missing_table VALUES (1);
@@ -0,0 +1,25 @@
+package com.bobocode.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * {@link CacheStats} is a snapshot of {@link EntityCache} counters
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CacheStats {
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+
+    /**
+     * @return a share of lookups that were served from the cache, or {@code 1.0} if there were no lookups
+     */
+    public double getHitRatio() {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+}
@@ -0,0 +1,214 @@
+package com.bobocode.util;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * {@link EntityCache} is a bounded concurrent read-through cache of detached entities. Entities are stored by their
+ * primary key, and can also be found by a secondary unique key (e.g. email), which is indexed as well.
+ * <p>
+ * An entry expires after {@code timeToLive}. When the cache grows over {@code maxSize}, the oldest entries are
+ * evicted first. A value loaded concurrently with {@link EntityCache#invalidate(Object)} is not cached, so
+ * an invalidation is never overwritten by a stale value that was read before the update.
+ *
+ * @param <K> primary key type
+ * @param <S> secondary key type
+ * @param <V> entity type
+ */
+public class EntityCache<K, S, V> {
+    private final int maxSize;
+    private final long timeToLiveNanos;
+    private final Function<V, K> keyExtractor;
+    private final Function<V, S> secondaryKeyExtractor;
+
+    private final Map<K, Entry<K, S, V>> entries = new ConcurrentHashMap<>();
+    private final Map<S, K> secondaryIndex = new ConcurrentHashMap<>();
+    private final Queue<Entry<K, S, V>> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger insertionOrderSize = new AtomicInteger();
+    private final AtomicLong invalidationCount = new AtomicLong();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param maxSize               max number of cached entities
+     * @param timeToLive            time after which a cached entity expires
+     * @param keyExtractor          returns a primary key of the entity
+     * @param secondaryKeyExtractor returns a secondary unique key of the entity
+     */
+    public EntityCache(int maxSize, Duration timeToLive, Function<V, K> keyExtractor, Function<V, S> secondaryKeyExtractor) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Max cache size should be positive");
+        }
+        if (timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("Time to live should be positive");
+        }
+        this.maxSize = maxSize;
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.keyExtractor = Objects.requireNonNull(keyExtractor);
+        this.secondaryKeyExtractor = Objects.requireNonNull(secondaryKeyExtractor);
+    }
+
+    /**
+     * Returns a cached entity by its primary key. If it's not cached, it loads the entity using provided loader and
+     * caches it.
+     *
+     * @param key    primary key
+     * @param loader loads an entity by primary key on a cache miss
+     * @return entity or {@code null} if the loader returned {@code null}
+     */
+    public V get(K key, Function<K, V> loader) {
+        Entry<K, S, V> entry = entries.get(key);
+        if (isAlive(entry)) {
+            hitCount.increment();
+            return entry.value;
+        }
+        missCount.increment();
+        return load(key, loader);
+    }
+
+    /**
+     * Returns a cached entity by its secondary key. If it's not cached, it loads the entity using provided loader and
+     * caches it.
+     *
+     * @param secondaryKey secondary unique key
+     * @param loader       loads an entity by secondary key on a cache miss
+     * @return entity or {@code null} if the loader returned {@code null}
+     */
+    public V getBySecondaryKey(S secondaryKey, Function<S, V> loader) {
+        K key = secondaryIndex.get(secondaryKey);
+        if (key != null) {
+            Entry<K, S, V> entry = entries.get(key);
+            if (isAlive(entry) && Objects.equals(entry.secondaryKey, secondaryKey)) {
+                hitCount.increment();
+                return entry.value;
+            }
+        }
+        missCount.increment();
+        return load(secondaryKey, loader);
+    }
+
+    /**
+     * Removes an entity from the cache. A value that is being loaded concurrently won't be cached.
+     *
+     * @param key primary key
+     */
+    public void invalidate(K key) {
+        invalidationCount.incrementAndGet();
+        Entry<K, S, V> entry = entries.get(key);
+        if (entry != null) {
+            remove(entry);
+        }
+    }
+
+    /**
+     * Removes all entities from the cache
+     */
+    public void invalidateAll() {
+        invalidationCount.incrementAndGet();
+        entries.values().forEach(this::remove);
+    }
+
+    /**
+     * @return number of cached entities, including expired entities that were not removed yet
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(hitCount.sum(), missCount.sum(), evictionCount.sum());
+    }
+
+    private <L> V load(L lookupKey, Function<L, V> loader) {
+        long invalidationsBeforeLoad = invalidationCount.get();
+        V value = loader.apply(lookupKey);
+        if (value != null) {
+            put(value, invalidationsBeforeLoad);
+        }
+        return value;
+    }
+
+    private void put(V value, long invalidationsBeforeLoad) {
+        Entry<K, S, V> entry = new Entry<>(keyExtractor.apply(value), secondaryKeyExtractor.apply(value), value,
+                System.nanoTime() + timeToLiveNanos);
+        Entry<K, S, V> replacedEntry = entries.put(entry.key, entry);
+        if (replacedEntry != null && replacedEntry.secondaryKey != null) {
+            secondaryIndex.remove(replacedEntry.secondaryKey, replacedEntry.key);
+        }
+        if (entry.secondaryKey != null) {
+            secondaryIndex.put(entry.secondaryKey, entry.key);
+        }
+        insertionOrder.add(entry);
+        insertionOrderSize.incrementAndGet();
+        if (invalidationCount.get() != invalidationsBeforeLoad) {
+            remove(entry);
+        }
+        evictIfNeeded();
+    }
+
+    /**
+     * Evicts the oldest entries while the cache is over its max size. Entries that were already invalidated or
+     * replaced stay in the insertion queue until they are polled, so the queue is also compacted when it gets
+     * much longer than the cache itself.
+     */
+    private void evictIfNeeded() {
+        while (entries.size() > maxSize || insertionOrderSize.get() > 2 * maxSize) {
+            Entry<K, S, V> oldestEntry = insertionOrder.poll();
+            if (oldestEntry == null) {
+                return;
+            }
+            insertionOrderSize.decrementAndGet();
+            if (entries.get(oldestEntry.key) != oldestEntry) {
+                continue;
+            }
+            if (entries.size() > maxSize || !isAlive(oldestEntry)) {
+                if (remove(oldestEntry)) {
+                    evictionCount.increment();
+                }
+            } else {
+                insertionOrder.add(oldestEntry);
+                insertionOrderSize.incrementAndGet();
+            }
+        }
+    }
+
+    private boolean isAlive(Entry<K, S, V> entry) {
+        return entry != null && entry.expiresAtNanos - System.nanoTime() > 0;
+    }
+
+    private boolean remove(Entry<K, S, V> entry) {
+        if (entries.remove(entry.key, entry)) {
+            if (entry.secondaryKey != null) {
+                secondaryIndex.remove(entry.secondaryKey, entry.key);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Entries are compared by identity, so a replaced entry is never removed instead of the one that replaced it
+     */
+    private static class Entry<K, S, V> {
+        private final K key;
+        private final S secondaryKey;
+        private final V value;
+        private final long expiresAtNanos;
+
+        Entry(K key, S secondaryKey, V value, long expiresAtNanos) {
+            this.key = key;
+            this.secondaryKey = secondaryKey;
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
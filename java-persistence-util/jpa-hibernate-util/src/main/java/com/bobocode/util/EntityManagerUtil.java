@@ -1,15 +1,64 @@
 package com.bobocode.util;
 
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * {@link EntityManagerUtil} performs the code that works with an {@link EntityManager} within a transaction.
+ * <p>
+ * Async transactions run on virtual threads of an executor that is created on the first async call. The util should
+ * be closed when it is not needed anymore, so the executor is shut down. It does not close the
+ * {@link EntityManagerFactory}, since the factory is owned by the caller.
+ */
+@Slf4j
+public class EntityManagerUtil implements AutoCloseable {
+    /**
+     * Default size of Hibernate built-in connection pool, used when the persistence unit does not specify it
+     */
+    static final int DEFAULT_MAX_CONCURRENT_TRANSACTIONS = 20;
+    static final String POOL_SIZE_PROPERTY = "hibernate.connection.pool_size";
 
-public class EntityManagerUtil {
     private EntityManagerFactory entityManagerFactory;
+    private final Semaphore transactionPermits;
+    private ExecutorService asyncExecutor;
+    private boolean closed;
+    private final Map<String, LongAdder> retryCounts = new ConcurrentHashMap<>();
 
     public EntityManagerUtil(EntityManagerFactory entityManagerFactory) {
+        this(entityManagerFactory, resolvePoolSize(entityManagerFactory.getProperties()));
+    }
+
+    /**
+     * @param entityManagerFactory      factory of entity managers
+     * @param maxConcurrentTransactions max number of async transactions that run at the same time. It should not
+     *                                  exceed the connection pool size, otherwise the extra transactions just wait
+     *                                  for a connection inside the pool
+     */
+    public EntityManagerUtil(EntityManagerFactory entityManagerFactory, int maxConcurrentTransactions) {
+        if (maxConcurrentTransactions <= 0) {
+            throw new IllegalArgumentException("Max number of concurrent transactions should be positive");
+        }
         this.entityManagerFactory = entityManagerFactory;
+        this.transactionPermits = new Semaphore(maxConcurrentTransactions, true);
     }
 
     public void performWithinTx(Consumer<EntityManager> entityManagerConsumer) {
@@ -40,4 +89,238 @@ public class EntityManagerUtil {
             entityManager.close();
         }
     }
+
+    /**
+     * Performs {@link EntityManagerUtil#performWithinTx(Consumer)} and retries it according to the retry policy.
+     *
+     * @see EntityManagerUtil#performReturningWithinTx(RetryPolicy, Function)
+     */
+    public void performWithinTx(RetryPolicy retryPolicy, Consumer<EntityManager> entityManagerConsumer) {
+        performReturningWithinTx(retryPolicy, entityManager -> {
+            entityManagerConsumer.accept(entityManager);
+            return null;
+        });
+    }
+
+    /**
+     * Performs a function within a transaction of the isolation level specified by the retry policy. If the transaction
+     * fails with one of {@link RetryPolicy#getRetryableSqlStates()} (e.g. a serialization failure or a deadlock),
+     * it is rolled back and performed again with a new {@link EntityManager}, until it succeeds or
+     * {@link RetryPolicy#getMaxAttempts()} is reached. Before each retry it sleeps for a random time up to
+     * an exponentially growing backoff, so the competing transactions do not collide again at the same moment.
+     * <p>
+     * The function can be called several times, so it should not have side effects outside of the transaction.
+     *
+     * @return the result of the successful attempt
+     */
+    public <T> T performReturningWithinTx(RetryPolicy retryPolicy, Function<EntityManager, T> entityManagerFunction) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return performReturningWithinIsolatedTx(retryPolicy.getIsolationLevel(), entityManagerFunction);
+            } catch (RuntimeException e) {
+                String sqlState = findRetryableSqlState(e, retryPolicy);
+                if (sqlState == null || attempt >= retryPolicy.getMaxAttempts()) {
+                    throw e;
+                }
+                retryCounts.computeIfAbsent(sqlState, state -> new LongAdder()).increment();
+                backOff(retryPolicy, attempt, e);
+            }
+        }
+    }
+
+    /**
+     * @return number of retried transactions by SQLState of the failure that caused the retry
+     */
+    public Map<String, Long> getRetryCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        retryCounts.forEach((sqlState, count) -> counts.put(sqlState, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Performs {@link EntityManagerUtil#performWithinTx(Consumer)} on a virtual thread. Every call gets its own
+     * virtual thread, so thousands of concurrent calls do not need thousands of platform threads. A virtual thread
+     * waits for a free transaction slot before it opens an entity manager, so no more than
+     * {@code maxConcurrentTransactions} transactions hold a connection at the same time.
+     *
+     * @return a future that is completed when the transaction is committed, or completed exceptionally with
+     * the exception that rolled it back
+     */
+    public CompletableFuture<Void> performWithinTxAsync(Consumer<EntityManager> entityManagerConsumer) {
+        return CompletableFuture.runAsync(
+                () -> withTransactionPermit(() -> {
+                    performWithinTx(entityManagerConsumer);
+                    return null;
+                }),
+                getAsyncExecutor());
+    }
+
+    /**
+     * Performs {@link EntityManagerUtil#performReturningWithinTx(Function)} on a virtual thread, limiting the number
+     * of concurrent transactions the same way as {@link EntityManagerUtil#performWithinTxAsync(Consumer)}.
+     *
+     * @return a future of the function result
+     */
+    public <T> CompletableFuture<T> performReturningWithinTxAsync(Function<EntityManager, T> entityManagerFunction) {
+        return CompletableFuture.supplyAsync(
+                () -> withTransactionPermit(() -> performReturningWithinTx(entityManagerFunction)),
+                getAsyncExecutor());
+    }
+
+    /**
+     * Stops accepting async transactions and waits until the submitted ones are completed. Synchronous methods
+     * can still be used after the util is closed.
+     */
+    @Override
+    public void close() {
+        ExecutorService executor;
+        synchronized (this) {
+            closed = true;
+            executor = asyncExecutor;
+        }
+        if (executor != null) {
+            executor.close();
+        }
+    }
+
+    /**
+     * Sets the isolation level on the JDBC connection before the transaction begins, and restores it after
+     * the transaction ends. The session holds the same connection until it's closed, so the restored connection
+     * is the one that was changed. If the transaction fails, a failure to restore the isolation level is added
+     * to the transaction failure as suppressed, so it does not hide the failure that decides about the retry.
+     */
+    private <T> T performReturningWithinIsolatedTx(Integer isolationLevel,
+                                                   Function<EntityManager, T> entityManagerFunction) {
+        if (isolationLevel == null) {
+            return performReturningWithinTx(entityManagerFunction);
+        }
+        Session session = entityManagerFactory.unwrap(SessionFactory.class).withOptions()
+                .connectionHandlingMode(PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_HOLD)
+                .openSession();
+        try {
+            int defaultIsolationLevel = session.doReturningWork(connection -> {
+                int previousIsolationLevel = connection.getTransactionIsolation();
+                connection.setTransactionIsolation(isolationLevel);
+                return previousIsolationLevel;
+            });
+            RuntimeException failure = null;
+            try {
+                return performReturningWithinSessionTx(session, entityManagerFunction);
+            } catch (RuntimeException e) {
+                failure = e;
+                throw e;
+            } finally {
+                try {
+                    session.doWork(connection -> connection.setTransactionIsolation(defaultIsolationLevel));
+                } catch (RuntimeException restoreFailure) {
+                    if (failure == null) {
+                        throw restoreFailure;
+                    }
+                    failure.addSuppressed(restoreFailure);
+                }
+            }
+        } finally {
+            session.close();
+        }
+    }
+
+    private static <T> T performReturningWithinSessionTx(Session session,
+                                                         Function<EntityManager, T> entityManagerFunction) {
+        session.getTransaction().begin();
+        try {
+            T result = entityManagerFunction.apply(session);
+            session.getTransaction().commit();
+            return result;
+        } catch (Exception e) {
+            if (session.getTransaction().isActive()) {
+                session.getTransaction().rollback();
+            }
+            throw e;
+        }
+    }
+
+    private static String findRetryableSqlState(Throwable exception, RetryPolicy retryPolicy) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException
+                    && retryPolicy.getRetryableSqlStates().contains(sqlException.getSQLState())) {
+                return sqlException.getSQLState();
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sleeps for a random time between zero and {@link #backoffBound(RetryPolicy, int)}. If the thread is
+     * interrupted, the failure is rethrown without retry.
+     */
+    private static void backOff(RetryPolicy retryPolicy, int attempt, RuntimeException failure) {
+        long backoffNanos = backoffBound(retryPolicy, attempt).toNanos();
+        try {
+            Thread.sleep(Duration.ofNanos(ThreadLocalRandom.current().nextLong(backoffNanos + 1)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw failure;
+        }
+    }
+
+    /**
+     * @return {@code initialBackoff * 2^(attempt - 1)} limited by {@link RetryPolicy#getMaxBackoff()}
+     */
+    static Duration backoffBound(RetryPolicy retryPolicy, int attempt) {
+        long maxBackoffNanos = retryPolicy.getMaxBackoff().toNanos();
+        long backoffNanos = retryPolicy.getInitialBackoff().toNanos();
+        for (int i = 1; i < attempt && backoffNanos < maxBackoffNanos; i++) {
+            backoffNanos *= 2;
+        }
+        return Duration.ofNanos(Math.min(backoffNanos, maxBackoffNanos));
+    }
+
+    private synchronized ExecutorService getAsyncExecutor() {
+        if (closed) {
+            throw new IllegalStateException("EntityManagerUtil is closed");
+        }
+        if (asyncExecutor == null) {
+            asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        }
+        return asyncExecutor;
+    }
+
+    private <T> T withTransactionPermit(Supplier<T> transaction) {
+        try {
+            transactionPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a free transaction slot", e);
+        }
+        try {
+            return transaction.get();
+        } finally {
+            transactionPermits.release();
+        }
+    }
+
+    /**
+     * Returns the pool size of the persistence unit. If the property is not set, or it is not a positive number,
+     * it falls back to {@link #DEFAULT_MAX_CONCURRENT_TRANSACTIONS}.
+     */
+    static int resolvePoolSize(Map<String, Object> properties) {
+        Object poolSize = properties.get(POOL_SIZE_PROPERTY);
+        if (poolSize == null) {
+            return DEFAULT_MAX_CONCURRENT_TRANSACTIONS;
+        }
+        try {
+            int parsedPoolSize = Integer.parseInt(poolSize.toString().trim());
+            if (parsedPoolSize > 0) {
+                return parsedPoolSize;
+            }
+        } catch (NumberFormatException ignored) {
+            // falls back to the default below
+        }
+        log.warn("Invalid {} value '{}', using {} concurrent transactions", POOL_SIZE_PROPERTY, poolSize,
+                DEFAULT_MAX_CONCURRENT_TRANSACTIONS);
+        return DEFAULT_MAX_CONCURRENT_TRANSACTIONS;
+    }
 }
@@ -0,0 +1,60 @@
+package com.bobocode.util;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * {@link KeysetPage} is a single page of a keyset (seek) pagination. Instead of a page number, it holds an opaque
+ * continuation token that encodes the id of the last returned element. The next page is loaded by seeking
+ * to the elements with a greater id, so every page costs the same no matter how far it is from the first one.
+ *
+ * @param <T> element type
+ */
+@Getter
+@ToString
+public class KeysetPage<T> {
+    private final List<T> content;
+    private final String nextPageToken;
+
+    public KeysetPage(List<T> content, String nextPageToken) {
+        this.content = List.copyOf(content);
+        this.nextPageToken = nextPageToken;
+    }
+
+    /**
+     * @return {@code true} if there are more elements after this page
+     */
+    public boolean hasNext() {
+        return nextPageToken != null;
+    }
+
+    /**
+     * Creates a continuation token that points right after the element with the given id
+     *
+     * @param lastId id of the last element of a page
+     * @return opaque continuation token
+     */
+    public static String encodeToken(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Returns an id of the last element of the previous page
+     *
+     * @param token continuation token created by {@link KeysetPage#encodeToken(long)}
+     * @return id of the last element
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static long decodeToken(String token) {
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("Invalid page token: %s", token), e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.bobocode.util;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * {@link KeysetPagination} provides an API that allows to load entities page by page seeking on the numeric
+ * identifier attribute {@code id}, e.g. {@code SELECT e FROM Entity e WHERE e.id > :lastId ORDER BY e.id}. Unlike
+ * offset pagination, the database does not scan and skip all previous rows, it starts right from the primary key
+ * index entry.
+ */
+public class KeysetPagination {
+
+    /**
+     * Loads a page of entities ordered by id.
+     *
+     * @param entityManager an entity manager to use
+     * @param entityClass   entity type
+     * @param idGetter      returns an id of the entity
+     * @param pageToken     continuation token of the previous page, or {@code null} to load the first page
+     * @param pageSize      max number of entities on the page
+     * @param <T>           entity type
+     * @return page of entities with a continuation token, if there are more entities
+     */
+    public static <T> KeysetPage<T> findPage(EntityManager entityManager, Class<T> entityClass,
+                                             ToLongFunction<T> idGetter, String pageToken, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size should be positive");
+        }
+        String jpql = String.format("select e from %s e where e.id > :lastId order by e.id",
+                entityManager.getMetamodel().entity(entityClass).getName());
+        List<T> entities = entityManager.createQuery(jpql, entityClass)
+                .setParameter("lastId", pageToken == null ? Long.MIN_VALUE : KeysetPage.decodeToken(pageToken))
+                .setMaxResults(pageSize + 1)
+                .getResultList();
+        if (entities.size() <= pageSize) {
+            return new KeysetPage<>(entities, null);
+        }
+        List<T> content = entities.subList(0, pageSize);
+        return new KeysetPage<>(content, KeysetPage.encodeToken(idGetter.applyAsLong(content.get(pageSize - 1))));
+    }
+}
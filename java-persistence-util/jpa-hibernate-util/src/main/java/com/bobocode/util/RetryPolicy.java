@@ -0,0 +1,54 @@
+package com.bobocode.util;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * {@link RetryPolicy} holds the settings of a retrying transaction of {@link EntityManagerUtil}. All values have
+ * reasonable defaults, so {@code RetryPolicy.builder().build()} retries serialization failures and deadlocks
+ * up to three times.
+ */
+@Getter
+@Builder
+public class RetryPolicy {
+    /**
+     * SQLState of a serialization failure, e.g. a concurrent update under {@link Connection#TRANSACTION_SERIALIZABLE}
+     * or {@link Connection#TRANSACTION_REPEATABLE_READ}
+     */
+    public static final String SERIALIZATION_FAILURE = "40001";
+    /**
+     * SQLState of a deadlock detected by PostgreSQL
+     */
+    public static final String DEADLOCK_DETECTED = "40P01";
+
+    /**
+     * Max number of attempts including the first one
+     */
+    @Builder.Default
+    private int maxAttempts = 3;
+    /**
+     * JDBC isolation level of the transaction, e.g. {@link Connection#TRANSACTION_SERIALIZABLE}. {@code null} keeps
+     * the isolation level of the connection
+     */
+    @Builder.Default
+    private Integer isolationLevel = null;
+    /**
+     * Upper bound of the backoff before the first retry. Every next retry doubles it
+     */
+    @Builder.Default
+    private Duration initialBackoff = Duration.ofMillis(10);
+    /**
+     * Max upper bound of the backoff between two attempts
+     */
+    @Builder.Default
+    private Duration maxBackoff = Duration.ofSeconds(1);
+    /**
+     * SQLStates of failures that can succeed if the transaction is performed again
+     */
+    @Builder.Default
+    private Set<String> retryableSqlStates = Set.of(SERIALIZATION_FAILURE, DEADLOCK_DETECTED);
+}
@@ -0,0 +1,428 @@
+package com.bobocode.util;
+
+import com.bobocode.model.Account;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import jakarta.persistence.PersistenceException;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.mockito.InOrder;
+import org.mockito.stubbing.Answer;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+@TestMethodOrder(OrderAnnotation.class)
+class EntityManagerUtilTest {
+    private static final int POOL_SIZE = 2;
+
+    private static final List<Connection> openedConnections = new CopyOnWriteArrayList<>();
+    private static volatile boolean failIsolationLevelRestore;
+
+    private static EntityManagerFactory entityManagerFactory;
+    private static EntityManagerFactory spiedConnectionsEntityManagerFactory;
+
+    @BeforeAll
+    static void setup() throws SQLException {
+        entityManagerFactory = Persistence.createEntityManagerFactory("Account",
+                Map.of(EntityManagerUtil.POOL_SIZE_PROPERTY, String.valueOf(POOL_SIZE)));
+        spiedConnectionsEntityManagerFactory = Persistence.createEntityManagerFactory("Account",
+                Map.of("jakarta.persistence.nonJtaDataSource", createSpiedConnectionsDataSource()));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        entityManagerFactory.close();
+        spiedConnectionsEntityManagerFactory.close();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Async transactions do not run more than pool_size at the same time")
+    void asyncTransactionsAreLimitedByPoolSize() {
+        AtomicInteger runningTransactions = new AtomicInteger();
+        AtomicInteger maxRunningTransactions = new AtomicInteger();
+
+        try (EntityManagerUtil emUtil = new EntityManagerUtil(entityManagerFactory)) {
+            List<CompletableFuture<Void>> futures = IntStream.range(0, 10)
+                    .mapToObj(i -> emUtil.performWithinTxAsync(entityManager -> {
+                        int running = runningTransactions.incrementAndGet();
+                        maxRunningTransactions.accumulateAndGet(running, Math::max);
+                        entityManager.persist(TestDataGenerator.generateAccount());
+                        sleep(50);
+                        runningTransactions.decrementAndGet();
+                    }))
+                    .toList();
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        }
+
+        assertThat(maxRunningTransactions.get()).isEqualTo(POOL_SIZE);
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Async transaction returns the function result")
+    void asyncTransactionReturnsResult() {
+        try (EntityManagerUtil emUtil = new EntityManagerUtil(entityManagerFactory)) {
+            Account account = TestDataGenerator.generateAccount();
+
+            Long id = emUtil.performReturningWithinTxAsync(entityManager -> {
+                entityManager.persist(account);
+                return account.getId();
+            }).join();
+
+            Account foundAccount = emUtil.performReturningWithinTx(
+                    entityManager -> entityManager.find(Account.class, id));
+            assertThat(foundAccount.getEmail()).isEqualTo(account.getEmail());
+        }
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Failed async transaction completes the future exceptionally and rolls back")
+    void failedAsyncTransactionCompletesExceptionally() {
+        try (EntityManagerUtil emUtil = new EntityManagerUtil(entityManagerFactory)) {
+            Account account = TestDataGenerator.generateAccount();
+            IllegalStateException failure = new IllegalStateException("Transaction failed");
+
+            CompletableFuture<Void> future = emUtil.performWithinTxAsync(entityManager -> {
+                entityManager.persist(account);
+                entityManager.flush();
+                throw failure;
+            });
+
+            assertThatExceptionOfType(CompletionException.class)
+                    .isThrownBy(future::join)
+                    .withCause(failure);
+            assertThat(future.isCompletedExceptionally()).isTrue();
+            Long accountCount = emUtil.performReturningWithinTx(entityManager -> entityManager
+                    .createQuery("select count(a) from Account a where a.email = :email", Long.class)
+                    .setParameter("email", account.getEmail())
+                    .getSingleResult());
+            assertThat(accountCount).isZero();
+        }
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("close waits for submitted transactions and rejects new ones")
+    void closeWaitsForSubmittedTransactions() throws InterruptedException {
+        EntityManagerUtil emUtil = new EntityManagerUtil(entityManagerFactory);
+        CountDownLatch transactionStarted = new CountDownLatch(1);
+        CompletableFuture<Void> future = emUtil.performWithinTxAsync(entityManager -> {
+            transactionStarted.countDown();
+            sleep(100);
+        });
+        assertThat(transactionStarted.await(1, TimeUnit.SECONDS)).isTrue();
+
+        emUtil.close();
+
+        assertThat(future.isDone()).isTrue();
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> emUtil.performWithinTxAsync(entityManager -> {
+                }))
+                .withMessage("EntityManagerUtil is closed");
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Pool size falls back to the default when the property is missing or invalid")
+    void poolSizeFallsBackToDefault() {
+        assertThat(EntityManagerUtil.resolvePoolSize(Map.of(EntityManagerUtil.POOL_SIZE_PROPERTY, " 5 ")))
+                .isEqualTo(5);
+        assertThat(EntityManagerUtil.resolvePoolSize(Map.of()))
+                .isEqualTo(EntityManagerUtil.DEFAULT_MAX_CONCURRENT_TRANSACTIONS);
+        assertThat(EntityManagerUtil.resolvePoolSize(Map.of(EntityManagerUtil.POOL_SIZE_PROPERTY, "ten")))
+                .isEqualTo(EntityManagerUtil.DEFAULT_MAX_CONCURRENT_TRANSACTIONS);
+        assertThat(EntityManagerUtil.resolvePoolSize(Map.of(EntityManagerUtil.POOL_SIZE_PROPERTY, 0)))
+                .isEqualTo(EntityManagerUtil.DEFAULT_MAX_CONCURRENT_TRANSACTIONS);
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Invalid pool_size of a data source backed unit does not break the construction")
+    void invalidPoolSizeDoesNotBreakConstruction() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:entity_manager_util_db;DB_CLOSE_DELAY=-1");
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory("Account", Map.of(
+                "jakarta.persistence.nonJtaDataSource", dataSource,
+                EntityManagerUtil.POOL_SIZE_PROPERTY, "ten"));
+        try (emf; EntityManagerUtil emUtil = new EntityManagerUtil(emf)) {
+            Long accountCount = emUtil.performReturningWithinTxAsync(entityManager -> entityManager
+                    .createQuery("select count(a) from Account a", Long.class)
+                    .getSingleResult()).join();
+            assertThat(accountCount).isNotNull();
+        }
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("Serialization failure wrapped by Hibernate is retried until the transaction succeeds")
+    void serializationFailureIsRetried() {
+        EntityManagerUtil emUtil = new EntityManagerUtil(entityManagerFactory);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = emUtil.performReturningWithinTx(retryPolicy(3), entityManager -> {
+            if (attempts.incrementAndGet() < 3) {
+                failWithSqlState(entityManager, RetryPolicy.SERIALIZATION_FAILURE);
+            }
+            return "committed";
+        });
+
+        assertThat(result).isEqualTo("committed");
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(emUtil.getRetryCounts()).containsExactly(Map.entry(RetryPolicy.SERIALIZATION_FAILURE, 2L));
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("Retry counts are reported per SQLState")
+    void retryCountsArePerSqlState() {
+        EntityManagerUtil emUtil = new EntityManagerUtil(entityManagerFactory);
+        AtomicInteger attempts = new AtomicInteger();
+
+        emUtil.performWithinTx(retryPolicy(5), entityManager -> {
+            switch (attempts.incrementAndGet()) {
+                case 1, 2 -> failWithSqlState(entityManager, RetryPolicy.DEADLOCK_DETECTED);
+                case 3 -> failWithSqlState(entityManager, RetryPolicy.SERIALIZATION_FAILURE);
+                default -> entityManager.persist(TestDataGenerator.generateAccount());
+            }
+        });
+
+        assertThat(attempts.get()).isEqualTo(4);
+        assertThat(emUtil.getRetryCounts()).containsExactly(
+                Map.entry(RetryPolicy.SERIALIZATION_FAILURE, 1L),
+                Map.entry(RetryPolicy.DEADLOCK_DETECTED, 2L));
+    }
+
+    @Test
+    @Order(9)
+    @DisplayName("Retries stop after max attempts and the last failure is thrown")
+    void retriesStopAfterMaxAttempts() {
+        EntityManagerUtil emUtil = new EntityManagerUtil(entityManagerFactory);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatExceptionOfType(PersistenceException.class)
+                .isThrownBy(() -> emUtil.performWithinTx(retryPolicy(3), entityManager -> {
+                    attempts.incrementAndGet();
+                    failWithSqlState(entityManager, RetryPolicy.DEADLOCK_DETECTED);
+                }))
+                .havingRootCause()
+                .isInstanceOf(SQLException.class)
+                .withMessage("Simulated failure " + RetryPolicy.DEADLOCK_DETECTED);
+
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(emUtil.getRetryCounts()).containsExactly(Map.entry(RetryPolicy.DEADLOCK_DETECTED, 2L));
+    }
+
+    @Test
+    @Order(10)
+    @DisplayName("Failure with a non-retryable SQLState is not retried")
+    void nonRetryableFailureIsNotRetried() {
+        EntityManagerUtil emUtil = new EntityManagerUtil(entityManagerFactory);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatExceptionOfType(PersistenceException.class)
+                .isThrownBy(() -> emUtil.performWithinTx(retryPolicy(3), entityManager -> {
+                    attempts.incrementAndGet();
+                    failWithSqlState(entityManager, "23505");
+                }));
+
+        assertThat(attempts.get()).isEqualTo(1);
+        assertThat(emUtil.getRetryCounts()).isEmpty();
+    }
+
+    @Test
+    @Order(11)
+    @DisplayName("Backoff bound doubles with every attempt and is limited by max backoff")
+    void backoffBoundGrowsExponentially() {
+        RetryPolicy retryPolicy = RetryPolicy.builder()
+                .initialBackoff(Duration.ofMillis(10))
+                .maxBackoff(Duration.ofMillis(50))
+                .build();
+
+        assertThat(EntityManagerUtil.backoffBound(retryPolicy, 1)).isEqualTo(Duration.ofMillis(10));
+        assertThat(EntityManagerUtil.backoffBound(retryPolicy, 2)).isEqualTo(Duration.ofMillis(20));
+        assertThat(EntityManagerUtil.backoffBound(retryPolicy, 3)).isEqualTo(Duration.ofMillis(40));
+        assertThat(EntityManagerUtil.backoffBound(retryPolicy, 4)).isEqualTo(Duration.ofMillis(50));
+        assertThat(EntityManagerUtil.backoffBound(retryPolicy, 30)).isEqualTo(Duration.ofMillis(50));
+    }
+
+    @Test
+    @Order(12)
+    @DisplayName("Interrupted backoff throws the failure without retry")
+    void interruptedBackoffIsNotRetried() {
+        EntityManagerUtil emUtil = new EntityManagerUtil(entityManagerFactory);
+        AtomicInteger attempts = new AtomicInteger();
+        RetryPolicy retryPolicy = RetryPolicy.builder().initialBackoff(Duration.ofSeconds(10)).build();
+
+        try {
+            assertThatExceptionOfType(PersistenceException.class)
+                    .isThrownBy(() -> emUtil.performWithinTx(retryPolicy, entityManager -> {
+                        attempts.incrementAndGet();
+                        Thread.currentThread().interrupt();
+                        failWithSqlState(entityManager, RetryPolicy.SERIALIZATION_FAILURE);
+                    }));
+            assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        } finally {
+            Thread.interrupted();
+        }
+        assertThat(attempts.get()).isEqualTo(1);
+    }
+
+    @Test
+    @Order(13)
+    @DisplayName("Isolation level is set for every attempt and restored before the connection is released")
+    void isolationLevelIsRestored() throws SQLException {
+        EntityManagerUtil emUtil = new EntityManagerUtil(spiedConnectionsEntityManagerFactory);
+        List<Integer> transactionIsolationLevels = new CopyOnWriteArrayList<>();
+        openedConnections.clear();
+
+        emUtil.performWithinTx(retryPolicyBuilder(3).isolationLevel(Connection.TRANSACTION_SERIALIZABLE).build(),
+                entityManager -> {
+                    transactionIsolationLevels.add(entityManager.unwrap(Session.class)
+                            .doReturningWork(Connection::getTransactionIsolation));
+                    if (transactionIsolationLevels.size() == 1) {
+                        failWithSqlState(entityManager, RetryPolicy.SERIALIZATION_FAILURE);
+                    }
+                });
+
+        assertThat(transactionIsolationLevels)
+                .containsExactly(Connection.TRANSACTION_SERIALIZABLE, Connection.TRANSACTION_SERIALIZABLE);
+        assertThat(openedConnections).hasSize(2);
+        for (Connection connection : openedConnections) {
+            InOrder inOrder = inOrder(connection);
+            inOrder.verify(connection).setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+            inOrder.verify(connection).setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            inOrder.verify(connection).close();
+        }
+    }
+
+    @Test
+    @Order(14)
+    @DisplayName("Failure to restore the isolation level does not hide the transaction failure")
+    void isolationLevelRestoreFailureIsSuppressed() {
+        EntityManagerUtil emUtil = new EntityManagerUtil(spiedConnectionsEntityManagerFactory);
+        IllegalStateException failure = new IllegalStateException("Transaction failed");
+
+        failIsolationLevelRestore = true;
+        try {
+            assertThatExceptionOfType(IllegalStateException.class)
+                    .isThrownBy(() -> emUtil.performWithinTx(
+                            retryPolicyBuilder(3).isolationLevel(Connection.TRANSACTION_SERIALIZABLE).build(),
+                            entityManager -> {
+                                throw failure;
+                            }))
+                    .isSameAs(failure);
+        } finally {
+            failIsolationLevelRestore = false;
+        }
+
+        assertThat(failure.getSuppressed()).hasSize(1);
+        assertThat(failure.getSuppressed()[0])
+                .isInstanceOf(PersistenceException.class)
+                .hasRootCauseMessage("Cannot restore the isolation level");
+    }
+
+    @Test
+    @Order(15)
+    @DisplayName("Transaction without a retry policy is rolled back on failure")
+    void transactionWithoutRetryPolicyIsRolledBack() {
+        EntityManagerUtil emUtil = new EntityManagerUtil(entityManagerFactory);
+        Account account = TestDataGenerator.generateAccount();
+
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> emUtil.performReturningWithinTx(entityManager -> {
+                    entityManager.persist(account);
+                    entityManager.flush();
+                    throw new IllegalStateException("Transaction failed");
+                }));
+
+        Long accountCount = emUtil.performReturningWithinTx(entityManager -> entityManager
+                .createQuery("select count(a) from Account a where a.email = :email", Long.class)
+                .setParameter("email", account.getEmail())
+                .getSingleResult());
+        assertThat(accountCount).isZero();
+    }
+
+    private static RetryPolicy retryPolicy(int maxAttempts) {
+        return retryPolicyBuilder(maxAttempts).build();
+    }
+
+    private static RetryPolicy.RetryPolicyBuilder retryPolicyBuilder(int maxAttempts) {
+        return RetryPolicy.builder()
+                .maxAttempts(maxAttempts)
+                .initialBackoff(Duration.ofMillis(1))
+                .maxBackoff(Duration.ofMillis(5));
+    }
+
+    /**
+     * Throws a {@link SQLException} with the given SQLState from the JDBC connection, so Hibernate wraps it the same
+     * way as a failure reported by the database.
+     */
+    private static void failWithSqlState(EntityManager entityManager, String sqlState) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            throw new SQLException("Simulated failure " + sqlState, sqlState);
+        });
+    }
+
+    /**
+     * Creates an H2 data source that hands out Mockito spies of its connections, so the tests can verify
+     * the calls that reached the physical connection, and break the isolation level restore on demand.
+     */
+    private static DataSource createSpiedConnectionsDataSource() throws SQLException {
+        JdbcDataSource h2DataSource = new JdbcDataSource();
+        h2DataSource.setURL("jdbc:h2:mem:entity_manager_util_retry_db;DB_CLOSE_DELAY=-1");
+        Answer<Connection> spiedConnection = invocation -> {
+            Connection connection = spy(h2DataSource.getConnection());
+            if (failIsolationLevelRestore) {
+                doThrow(new SQLException("Cannot restore the isolation level"))
+                        .when(connection).setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            }
+            openedConnections.add(connection);
+            return connection;
+        };
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenAnswer(spiedConnection);
+        when(dataSource.getConnection(anyString(), anyString())).thenAnswer(spiedConnection);
+        return dataSource;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
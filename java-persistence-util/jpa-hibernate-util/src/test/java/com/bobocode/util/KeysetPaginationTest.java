@@ -0,0 +1,135 @@
+package com.bobocode.util;
+
+import com.bobocode.model.Account;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+
+@TestMethodOrder(OrderAnnotation.class)
+class KeysetPaginationTest {
+    private static final int ACCOUNT_COUNT = 7;
+
+    private static EntityManagerFactory entityManagerFactory;
+    private static EntityManagerUtil emUtil;
+
+    private List<Long> accountIds;
+
+    @BeforeAll
+    static void setup() {
+        entityManagerFactory = Persistence.createEntityManagerFactory("Account",
+                Map.of("hibernate.connection.url", "jdbc:h2:mem:keyset_pagination_db;DB_CLOSE_DELAY=-1"));
+        emUtil = new EntityManagerUtil(entityManagerFactory);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        emUtil.close();
+        entityManagerFactory.close();
+    }
+
+    @BeforeEach
+    void saveAccounts() {
+        List<Account> accounts = TestDataGenerator.generateAccountList(ACCOUNT_COUNT);
+        emUtil.performWithinTx(entityManager -> {
+            entityManager.createQuery("delete from Account").executeUpdate();
+            accounts.forEach(entityManager::persist);
+        });
+        accountIds = accounts.stream().map(Account::getId).sorted().toList();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("First page contains the accounts with the lowest ids and a token of its last account")
+    void firstPage() {
+        KeysetPage<Account> page = findPage(null, 3);
+
+        assertThat(page.getContent()).extracting(Account::getId).containsExactlyElementsOf(accountIds.subList(0, 3));
+        assertThat(page.hasNext()).isTrue();
+        assertThat(KeysetPage.decodeToken(page.getNextPageToken())).isEqualTo(accountIds.get(2));
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Pages are loaded by their tokens until the last page, which has no next token")
+    void lastPage() {
+        List<Long> loadedIds = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        KeysetPage<Account> page = null;
+        do {
+            page = findPage(page == null ? null : page.getNextPageToken(), 3);
+            page.getContent().forEach(account -> loadedIds.add(account.getId()));
+            pageSizes.add(page.getContent().size());
+        } while (page.hasNext());
+
+        assertThat(pageSizes).containsExactly(3, 3, 1);
+        assertThat(page.getNextPageToken()).isNull();
+        assertThat(loadedIds).containsExactlyElementsOf(accountIds);
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Page that ends exactly at the last account has no next token")
+    void exactPageSizeBoundary() {
+        KeysetPage<Account> firstPage = findPage(null, 4);
+        KeysetPage<Account> lastPage = findPage(firstPage.getNextPageToken(), 3);
+        KeysetPage<Account> singlePage = findPage(null, ACCOUNT_COUNT);
+
+        assertThat(lastPage.getContent()).extracting(Account::getId)
+                .containsExactlyElementsOf(accountIds.subList(4, ACCOUNT_COUNT));
+        assertThat(lastPage.hasNext()).isFalse();
+        assertThat(singlePage.getContent()).hasSize(ACCOUNT_COUNT);
+        assertThat(singlePage.hasNext()).isFalse();
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Token that points after the last account gives an empty page")
+    void pageAfterLastAccount() {
+        KeysetPage<Account> page = findPage(KeysetPage.encodeToken(accountIds.get(ACCOUNT_COUNT - 1)), 3);
+
+        assertThat(page.getContent()).isEmpty();
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Malformed token is rejected with IllegalArgumentException")
+    void malformedToken() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> findPage("not a token!", 3))
+                .withMessage("Invalid page token: not a token!");
+        // valid Base64 of a text that is not a number
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> findPage("YWJj", 3))
+                .withMessage("Invalid page token: YWJj");
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Page size should be positive")
+    void pageSizeShouldBePositive() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> findPage(null, 0))
+                .withMessage("Page size should be positive");
+    }
+
+    private static KeysetPage<Account> findPage(String pageToken, int pageSize) {
+        return emUtil.performReturningWithinTx(entityManager ->
+                KeysetPagination.findPage(entityManager, Account.class, Account::getId, pageToken, pageSize));
+    }
+}